@@ -0,0 +1,32 @@
+-- =====================================================================
+-- Actualización manual 001: hash SHA-256 hexadecimal (dna_hash) -> huella
+-- de 128 bits (fp_hi, fp_lo)
+-- =====================================================================
+--
+-- El proyecto no usa Flyway ni Liquibase: este script NO se ejecuta solo.
+-- Con spring.jpa.hibernate.ddl-auto=create-drop (base H2 en memoria) el
+-- esquema se crea en cada arranque y no hace falta. En bases persistentes
+-- aplicarlo a mano antes de desplegar la versión que usa fp_hi / fp_lo.
+--
+-- Esquema de partida (el que generaba Hibernate antes de este cambio):
+--   dna_records(id, dna_hash VARCHAR(64) UNIQUE, is_mutant, created_at)
+--
+-- Las huellas no pueden calcularse a partir de dna_hash: el ADN original no
+-- se guarda y el hash anterior ordenaba las filas (matrices con las filas
+-- permutadas compartían hash). Los registros existentes se conservan para
+-- que /stats no cambie, con una huella sustituta (fp_hi = 0, fp_lo = id)
+-- única por registro que ninguna huella real va a reproducir en la
+-- práctica. Esas matrices se vuelven a analizar la próxima vez que lleguen
+-- y se guardan con su huella real.
+
+ALTER TABLE dna_records ADD COLUMN fp_hi BIGINT;
+ALTER TABLE dna_records ADD COLUMN fp_lo BIGINT;
+
+UPDATE dna_records SET fp_hi = 0, fp_lo = id;
+
+ALTER TABLE dna_records ALTER COLUMN fp_hi SET NOT NULL;
+ALTER TABLE dna_records ALTER COLUMN fp_lo SET NOT NULL;
+
+ALTER TABLE dna_records ADD CONSTRAINT uk_dna_records_fingerprint UNIQUE (fp_hi, fp_lo);
+
+ALTER TABLE dna_records DROP COLUMN dna_hash;
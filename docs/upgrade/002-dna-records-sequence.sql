@@ -0,0 +1,39 @@
+-- =====================================================================
+-- Actualización manual 002: id de dna_records por secuencia
+-- (dna_records_seq) en lugar de IDENTITY
+-- =====================================================================
+--
+-- El proyecto no usa Flyway ni Liquibase: este script NO se ejecuta solo.
+-- Con spring.jpa.hibernate.ddl-auto=create-drop (base H2 en memoria)
+-- Hibernate crea la secuencia en cada arranque y no hace falta. En bases
+-- persistentes aplicarlo a mano, después de 001-dna-fingerprint.sql y antes
+-- de desplegar la versión que asigna los ids por secuencia.
+--
+-- Con IDENTITY Hibernate necesita el id generado por cada INSERT y no
+-- puede agruparlos en lotes JDBC. La secuencia incrementa de a 50: cada
+-- llamada reserva un bloque de 50 ids que se asignan en memoria, tanto los
+-- de Hibernate (optimizador pooled-lo, ver DnaRecord) como los del MERGE
+-- insert-if-absent (DnaRecordIdAllocator), así que el INCREMENT BY debe
+-- coincidir con DnaRecord.ID_ALLOCATION_SIZE.
+--
+-- La columna id conserva su valor por defecto IDENTITY, que ya no se usa
+-- (todos los INSERT traen el id).
+--
+-- START WITH sólo admite una constante, así que la secuencia se crea con un
+-- valor fijo y después se mueve por encima de los ids existentes. Con
+-- pooled-lo el valor v reserva el bloque [v, v + 49], por lo que alcanza con
+-- v > MAX(id); se usa MAX(id) + 50 para que tampoco choque si el bloque se
+-- interpreta hacia abajo ([v - 49, v], optimizador pooled).
+
+CREATE SEQUENCE dna_records_seq START WITH 1 INCREMENT BY 50;
+
+-- H2:
+ALTER SEQUENCE dna_records_seq
+    RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM dna_records);
+
+-- PostgreSQL (en lugar del ALTER SEQUENCE anterior; con false el próximo
+-- nextval devuelve exactamente ese valor):
+-- SELECT setval('dna_records_seq', COALESCE(MAX(id), 0) + 50, false) FROM dna_records;
+--
+-- Si la base no acepta una consulta en RESTART WITH, calcular el valor con
+-- SELECT COALESCE(MAX(id), 0) + 50 FROM dna_records y usarlo como literal.
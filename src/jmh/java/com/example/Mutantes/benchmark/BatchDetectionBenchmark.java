@@ -0,0 +1,77 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.service.DnaBatch;
+import com.example.Mutantes.service.MutantDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el análisis matriz por matriz con isMutant(String[]) contra el
+ * kernel por lotes sobre la disposición structure-of-arrays.
+ *
+ * Las matrices son aleatorias (mezcla de humanos y mutantes) y el tiempo se
+ * reporta por matriz. El lote se arma en el setup: se mide sólo la
+ * validación y la detección.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BatchDetectionBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"6", "12"})
+    private int size;
+
+    private String[][] matrices;
+    private DnaBatch batch;
+
+    private final MutantDetector detector = new MutantDetector();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(13);
+        matrices = new String[BATCH][];
+        batch = new DnaBatch(size, BATCH);
+        for (int b = 0; b < BATCH; b++) {
+            String[] dna = new String[size];
+            for (int i = 0; i < size; i++) {
+                StringBuilder row = new StringBuilder(size);
+                for (int j = 0; j < size; j++) {
+                    row.append("ATCG".charAt(random.nextInt(4)));
+                }
+                dna[i] = row.toString();
+            }
+            matrices[b] = dna;
+            batch.add(dna);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void perItem(Blackhole blackhole) {
+        for (String[] dna : matrices) {
+            blackhole.consume(detector.isMutant(dna));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BitSet batch() {
+        return detector.isMutantBatch(batch);
+    }
+}
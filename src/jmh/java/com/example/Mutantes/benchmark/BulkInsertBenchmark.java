@@ -0,0 +1,134 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.entity.DnaRecord;
+import com.example.Mutantes.validator.DnaFingerprint;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserción masiva en dna_records con Hibernate: id IDENTITY (antes) contra
+ * id de secuencia pooled-lo (después, {@link DnaRecord}).
+ *
+ * Ambos casos usan la misma configuración de lotes que la aplicación
+ * (hibernate.jdbc.batch_size=500, order_inserts) y el mismo recorrido que
+ * DnaRecordBulkRepositoryImpl#saveAllInBatches: persist() de cada registro
+ * y flush() + clear() cada BATCH. Con IDENTITY Hibernate necesita el id
+ * generado de cada fila y ejecuta un INSERT por registro aunque el lote
+ * esté configurado; con la secuencia envía un executeBatch por flush() y
+ * pide un bloque de 50 ids cada 50 registros.
+ *
+ * Cada medición inserta {@code records} registros en una tabla vacía de una
+ * base H2 en memoria (una por caso) dentro de una transacción. El tiempo es
+ * por medición completa: registros por segundo = records / tiempo.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkInsertBenchmark {
+
+    private static final int BATCH = 500;
+
+    @Param({"10000", "1000000"})
+    private int records;
+
+    private SessionFactory identityFactory;
+    private SessionFactory sequenceFactory;
+
+    private long[] his;
+    private long[] los;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        identityFactory = sessionFactory(IdentityDnaRecord.class, "bulk_identity");
+        sequenceFactory = sessionFactory(DnaRecord.class, "bulk_sequence");
+
+        Random random = new Random(22);
+        his = new long[records];
+        los = new long[records];
+        for (int k = 0; k < records; k++) {
+            his[k] = random.nextLong();
+            los[k] = random.nextLong();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTables() {
+        truncate(identityFactory);
+        truncate(sequenceFactory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        identityFactory.close();
+        sequenceFactory.close();
+    }
+
+    @Benchmark
+    public int identityInsert() {
+        try (Session session = identityFactory.openSession()) {
+            session.beginTransaction();
+            for (int k = 0; k < records; k++) {
+                session.persist(new IdentityDnaRecord(his[k], los[k], (k & 1) == 0));
+                if ((k + 1) % BATCH == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+        return records;
+    }
+
+    @Benchmark
+    public int sequenceInsert() {
+        try (Session session = sequenceFactory.openSession()) {
+            session.beginTransaction();
+            for (int k = 0; k < records; k++) {
+                session.persist(new DnaRecord(new DnaFingerprint(his[k], los[k]), (k & 1) == 0));
+                if ((k + 1) % BATCH == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+        return records;
+    }
+
+    private static SessionFactory sessionFactory(Class<?> entity, String database) {
+        return new Configuration()
+                .addAnnotatedClass(entity)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", String.valueOf(BATCH))
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .buildSessionFactory();
+    }
+
+    private static void truncate(SessionFactory factory) {
+        try (Session session = factory.openSession()) {
+            session.beginTransaction();
+            session.createNativeMutationQuery("TRUNCATE TABLE dna_records").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+}
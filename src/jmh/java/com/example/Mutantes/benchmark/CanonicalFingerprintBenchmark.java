@@ -0,0 +1,166 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.validator.DnaFingerprint;
+import com.example.Mutantes.validator.PreparedDna;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la huella por orden de filas contra la huella canónica como clave
+ * de caché, sobre un tráfico con duplicados reflejados y reetiquetados.
+ *
+ * El tráfico son REQUESTS peticiones sobre DISTINCT matrices distintas; cada
+ * petición es, con probabilidad {@code variantShare}, una de las 192
+ * variantes equivalentes (rotación/reflejo + reetiquetado) de su matriz y si
+ * no la matriz original. Cada invocación recorre todo el tráfico contra una
+ * caché vacía (un HashSet de huellas), así que además del tiempo por petición
+ * (preparar + huella + consulta) se reportan los contadores {@code hits} y
+ * {@code misses}: el hit ratio es hits / (hits + misses), y cada miss es una
+ * fila en dna_records y una llamada al detector.
+ *
+ * Con la huella canónica los fallos son sólo las DISTINCT primeras
+ * apariciones (hit ratio 1 - DISTINCT / REQUESTS, sin importar
+ * variantShare); con la huella por orden cada variante distinta vista es
+ * además una clave nueva.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CanonicalFingerprintBenchmark {
+
+    private static final int DISTINCT = 256;
+
+    private static final int REQUESTS = 8192;
+
+    @Param({"6", "12"})
+    private int size;
+
+    @Param({"0.0", "0.5"})
+    private double variantShare;
+
+    private String[][] traffic;
+
+    /**
+     * Aciertos y fallos de caché por iteración; JMH los reporta junto al tiempo.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(16);
+        byte[] bases = {'A', 'T', 'C', 'G'};
+        byte[][] originals = new byte[DISTINCT][size * size];
+        for (byte[] matrix : originals) {
+            for (int c = 0; c < matrix.length; c++) {
+                matrix[c] = bases[random.nextInt(4)];
+            }
+        }
+
+        traffic = new String[REQUESTS][];
+        for (int r = 0; r < REQUESTS; r++) {
+            byte[] matrix = originals[random.nextInt(DISTINCT)];
+            if (random.nextDouble() < variantShare) {
+                matrix = variant(matrix, random.nextInt(8), shuffled(random, bases));
+            }
+            traffic[r] = rows(matrix);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public Set<DnaFingerprint> rowOrderKey(CacheCounters counters) {
+        Set<DnaFingerprint> cache = new HashSet<>();
+        for (String[] dna : traffic) {
+            record(cache, PreparedDna.prepare(dna).getFingerprint(), counters);
+        }
+        return cache;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public Set<DnaFingerprint> canonicalKey(CacheCounters counters) {
+        Set<DnaFingerprint> cache = new HashSet<>();
+        for (String[] dna : traffic) {
+            record(cache, PreparedDna.prepare(dna).getCanonicalFingerprint(), counters);
+        }
+        return cache;
+    }
+
+    private static void record(Set<DnaFingerprint> cache, DnaFingerprint key, CacheCounters counters) {
+        if (cache.add(key)) {
+            counters.misses++;
+        } else {
+            counters.hits++;
+        }
+    }
+
+    /**
+     * Transformación t del cuadrado (4 rotaciones y sus reflejos) con las bases renombradas.
+     */
+    private byte[] variant(byte[] matrix, int t, byte[] relabel) {
+        int n = size;
+        int last = n - 1;
+        byte[] out = new byte[n * n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int i = (t & 4) == 0 ? r : c;
+                int j = (t & 4) == 0 ? c : r;
+                if ((t & 1) != 0) {
+                    j = last - j;
+                }
+                if ((t & 2) != 0) {
+                    i = last - i;
+                }
+                out[r * n + c] = relabel["ATCG".indexOf(matrix[i * n + j])];
+            }
+        }
+        return out;
+    }
+
+    private static byte[] shuffled(Random random, byte[] bases) {
+        byte[] copy = bases.clone();
+        for (int k = copy.length - 1; k > 0; k--) {
+            int swap = random.nextInt(k + 1);
+            byte tmp = copy[k];
+            copy[k] = copy[swap];
+            copy[swap] = tmp;
+        }
+        return copy;
+    }
+
+    private String[] rows(byte[] matrix) {
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            dna[i] = new String(matrix, i * size, size, StandardCharsets.US_ASCII);
+        }
+        return dna;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.entity.DnaRecord;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mapeo anterior de dna_records, con id IDENTITY: línea base de
+ * {@link BulkInsertBenchmark} frente a {@link DnaRecord}.
+ */
+@Entity
+@Table(name = "dna_records")
+public class IdentityDnaRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fp_hi", nullable = false)
+    private long fingerprintHi;
+
+    @Column(name = "fp_lo", nullable = false)
+    private long fingerprintLo;
+
+    @Column(name = "is_mutant", nullable = false)
+    private boolean isMutant;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    protected IdentityDnaRecord() {
+    }
+
+    IdentityDnaRecord(long fingerprintHi, long fingerprintLo, boolean isMutant) {
+        this.fingerprintHi = fingerprintHi;
+        this.fingerprintLo = fingerprintLo;
+        this.isMutant = isMutant;
+        this.createdAt = LocalDateTime.now();
+    }
+}
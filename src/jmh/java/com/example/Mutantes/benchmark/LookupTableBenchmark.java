@@ -0,0 +1,73 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.service.engine.DetectionEngine;
+import com.example.Mutantes.service.engine.LookupTableDetectionEngine;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import com.example.Mutantes.service.engine.UnrolledDetectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el motor por tablas (N <= 8) con el escalar y con los detectores
+ * desenrollados sobre matrices aleatorias, para decidir el valor por defecto
+ * de {@code mutant.detector.lookup-table}.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LookupTableBenchmark {
+
+    private static final int MATRICES = 64;
+
+    @Param({"4", "6", "8"})
+    private int size;
+
+    private byte[][] matrices;
+    private int next;
+
+    private final DetectionEngine scalar = new ScalarDetectionEngine();
+    private final DetectionEngine unrolled = new UnrolledDetectionEngine();
+    private final DetectionEngine lookup = new LookupTableDetectionEngine();
+
+    @Setup
+    public void setUp() {
+        byte[] bases = {'A', 'T', 'C', 'G'};
+        Random random = new Random(42);
+        matrices = new byte[MATRICES][size * size];
+        for (byte[] matrix : matrices) {
+            for (int i = 0; i < matrix.length; i++) {
+                matrix[i] = bases[random.nextInt(4)];
+            }
+        }
+    }
+
+    private byte[] nextMatrix() {
+        return matrices[next++ & (MATRICES - 1)];
+    }
+
+    @Benchmark
+    public int scalar() {
+        return scalar.countSequences(nextMatrix(), 0, size, size, 2);
+    }
+
+    @Benchmark
+    public int unrolled() {
+        return unrolled.countSequences(nextMatrix(), 0, size, size, 2);
+    }
+
+    @Benchmark
+    public int lookup() {
+        return lookup.countSequences(nextMatrix(), 0, size, size, 2);
+    }
+}
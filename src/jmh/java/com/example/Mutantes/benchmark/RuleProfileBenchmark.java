@@ -0,0 +1,104 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.service.MutantDetector;
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import com.example.Mutantes.service.engine.RuleProfileEngine;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import com.example.Mutantes.service.engine.ThreadLocalScratch;
+import com.example.Mutantes.service.engine.TiledDetectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifica que hacer configurables las reglas no penaliza al perfil por defecto
+ * y que un perfil personalizado corre a la par del perfil por defecto.
+ *
+ * Compara, sobre una matriz humana (sin secuencias, recorrido completo):
+ * - original: detector construido directamente con el motor escalar (constantes 4 / 2)
+ * - configuredDefault: detector construido desde un perfil de reglas equivalente
+ *   al por defecto (debe resolverse al mismo motor especializado)
+ * - specializedProfile: detector construido desde un perfil personalizado
+ *   (K = 4, T = 3, todas las direcciones), que se resuelve al detector generado
+ *   ProfileDetector4HVDA; debe quedar a la par de original
+ * - genericProfile: el mismo perfil personalizado forzado al motor genérico
+ *   (sin especializar: conserva las comparaciones de todas las direcciones),
+ *   como referencia de lo que ahorra el detector generado
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RuleProfileBenchmark {
+
+    @Param({"6", "100", "1000"})
+    private int size;
+
+    private String[] human;
+
+    private MutantDetector original;
+    private MutantDetector configuredDefault;
+    private MutantDetector specializedProfile;
+    private MutantDetector genericProfile;
+
+    @Setup
+    public void setUp() {
+        human = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                // Patrón sin secuencias en ninguna dirección
+                row.append("ATCG".charAt((j + 2 * i) % 4));
+            }
+            human[i] = row.toString();
+        }
+
+        // Instancia distinta de DetectionRules.DEFAULT, como la que produce la configuración
+        DetectionRules rules = new DetectionRules(
+            MutantDetector.SEQUENCE_LENGTH, MutantDetector.MUTANT_THRESHOLD, "ATCG", EnumSet.allOf(Direction.class)
+        );
+
+        // Sin modo paralelo ni detectores desenrollados, para comparar sólo el motor
+        original = new MutantDetector(new ScalarDetectionEngine(), 0);
+        configuredDefault = new MutantDetector(ScalarDetectionEngine.NAME, 0, ThreadLocalScratch.DEFAULT_MAX_ELEMENTS,
+            false, false, TiledDetectionEngine.DEFAULT_TILE_SIZE, rules);
+
+        // Perfil distinto del por defecto sólo en el umbral: mismo recorrido que 4 / 2
+        DetectionRules custom = new DetectionRules(
+            MutantDetector.SEQUENCE_LENGTH, MutantDetector.MUTANT_THRESHOLD + 1, "ATCG", EnumSet.allOf(Direction.class)
+        );
+        specializedProfile = new MutantDetector(ScalarDetectionEngine.NAME, 0, ThreadLocalScratch.DEFAULT_MAX_ELEMENTS,
+            false, false, TiledDetectionEngine.DEFAULT_TILE_SIZE, custom);
+        genericProfile = new MutantDetector(new RuleProfileEngine(custom), 0, ThreadLocalScratch.DEFAULT_MAX_ELEMENTS, custom);
+    }
+
+    @Benchmark
+    public boolean original() {
+        return original.isMutant(human);
+    }
+
+    @Benchmark
+    public boolean configuredDefault() {
+        return configuredDefault.isMutant(human);
+    }
+
+    @Benchmark
+    public boolean specializedProfile() {
+        return specializedProfile.isMutant(human);
+    }
+
+    @Benchmark
+    public boolean genericProfile() {
+        return genericProfile.isMutant(human);
+    }
+}
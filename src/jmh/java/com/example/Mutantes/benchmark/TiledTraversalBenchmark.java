@@ -0,0 +1,64 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.service.engine.DetectionEngine;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import com.example.Mutantes.service.engine.TiledDetectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el recorrido row-major del motor escalar con el recorrido por
+ * bloques (tiled) sobre matrices aleatorias de N = 64 a 8192.
+ *
+ * Se cuentan todas las secuencias (sin terminación anticipada) para que ambos
+ * recorran la matriz completa. Con N = 8192 la matriz ocupa 64 MB: ejecutar
+ * con suficiente heap (-Xmx1g o más).
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TiledTraversalBenchmark {
+
+    @Param({"64", "256", "1024", "4096", "8192"})
+    private int size;
+
+    @Param({"32", "64", "128"})
+    private int tileSize;
+
+    private byte[] matrix;
+
+    private final DetectionEngine scalar = new ScalarDetectionEngine();
+    private DetectionEngine tiled;
+
+    @Setup
+    public void setUp() {
+        byte[] bases = {'A', 'T', 'C', 'G'};
+        Random random = new Random(42);
+        matrix = new byte[size * size];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = bases[random.nextInt(4)];
+        }
+        tiled = new TiledDetectionEngine(tileSize);
+    }
+
+    @Benchmark
+    public int rowMajor() {
+        return scalar.countSequences(matrix, 0, size, size, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public int tiled() {
+        return tiled.countSequences(matrix, 0, size, size, Integer.MAX_VALUE);
+    }
+}
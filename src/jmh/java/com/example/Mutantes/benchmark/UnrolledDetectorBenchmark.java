@@ -0,0 +1,60 @@
+package com.example.Mutantes.benchmark;
+
+import com.example.Mutantes.service.engine.DetectionEngine;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import com.example.Mutantes.service.engine.UnrolledDetectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el ciclo escalar con los detectores desenrollados generados en el
+ * build para los tamaños más comunes del tráfico (6x6 a 16x16).
+ *
+ * Se mide el peor caso (matriz humana, sin secuencias): ambos recorren la
+ * matriz completa y la diferencia es el costo de ciclos y boundary checking.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnrolledDetectorBenchmark {
+
+    @Param({"6", "8", "12", "16"})
+    private int size;
+
+    private byte[] human;
+
+    private final DetectionEngine scalar = new ScalarDetectionEngine();
+    private final DetectionEngine unrolled = new UnrolledDetectionEngine();
+
+    @Setup
+    public void setUp() {
+        byte[] bases = {'A', 'T', 'C', 'G'};
+        human = new byte[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                // Patrón sin secuencias en ninguna dirección
+                human[i * size + j] = bases[(j + 2 * i) % 4];
+            }
+        }
+    }
+
+    @Benchmark
+    public int scalar() {
+        return scalar.countSequences(human, 0, size, size, 2);
+    }
+
+    @Benchmark
+    public int unrolled() {
+        return unrolled.countSequences(human, 0, size, size, 2);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.Mutantes.config;
+
+import com.example.Mutantes.service.MutantDetector;
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Perfil de reglas de detección construido a partir de las propiedades
+ * {@code mutant.detector.rules.*}. Sin configuración se obtiene el perfil
+ * por defecto (4 / 2 / ATCG / todas las direcciones).
+ */
+@Configuration
+public class DetectionRulesConfig {
+
+    @Bean
+    public DetectionRules detectionRules(
+            @Value("${mutant.detector.rules.sequence-length:" + MutantDetector.SEQUENCE_LENGTH + "}") int sequenceLength,
+            @Value("${mutant.detector.rules.threshold:" + MutantDetector.MUTANT_THRESHOLD + "}") int threshold,
+            @Value("${mutant.detector.rules.alphabet:" + DetectionRules.DEFAULT_ALPHABET + "}") String alphabet,
+            @Value("${mutant.detector.rules.directions:HORIZONTAL,VERTICAL,DIAGONAL,ANTI_DIAGONAL}") String directions) {
+        DetectionRules rules = new DetectionRules(sequenceLength, threshold, alphabet.trim(), parseDirections(directions));
+        return rules.isDefault() ? DetectionRules.DEFAULT : rules;
+    }
+
+    /**
+     * Convierte una lista separada por comas (ej: "HORIZONTAL, vertical") en direcciones.
+     */
+    static Set<Direction> parseDirections(String directions) {
+        Set<Direction> result = EnumSet.noneOf(Direction.class);
+        for (String name : directions.split(",")) {
+            String key = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+            if (key.isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(Direction.valueOf(key));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Dirección de detección desconocida: " + name.trim());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.Mutantes.controller;
+
+import com.example.Mutantes.dto.EngineSelectionResponse;
+import com.example.Mutantes.service.MutantDetector;
+import com.example.Mutantes.service.engine.AdaptiveDetectionEngine;
+import com.example.Mutantes.service.engine.DetectionEngine;
+import com.example.Mutantes.service.engine.EngineRange;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/detector")
+@Tag(name = "Detector API", description = "Endpoints para inspeccionar la configuración del detector de mutantes")
+public class DetectorController {
+
+    private final MutantDetector mutantDetector;
+
+    public DetectorController(MutantDetector mutantDetector) {
+        this.mutantDetector = mutantDetector;
+    }
+
+    @GetMapping("/engines")
+    @Operation(
+        summary = "Obtiene el motor de detección elegido para cada tamaño de matriz",
+        description = "Retorna los rangos de N y el motor que resuelve cada uno; con el motor adaptativo incluye las mediciones de la calibración al iniciar"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Selección de motores obtenida exitosamente")
+    })
+    public ResponseEntity<EngineSelectionResponse> engines() {
+        DetectionEngine engine = mutantDetector.getEngine();
+
+        List<EngineSelectionResponse.Range> ranges = mutantDetector.getEngineRanges().stream()
+            .map(DetectorController::toRange)
+            .collect(Collectors.toList());
+
+        EngineSelectionResponse.EngineSelectionResponseBuilder response = EngineSelectionResponse.builder()
+            .engine(engine.name())
+            .ranges(ranges)
+            .calibration(List.of());
+
+        if (engine instanceof AdaptiveDetectionEngine) {
+            AdaptiveDetectionEngine adaptive = (AdaptiveDetectionEngine) engine;
+            response.calibration_millis(adaptive.getCalibrationMillis())
+                .calibration(adaptive.getSamples().stream()
+                    .map(sample -> new EngineSelectionResponse.Sample(
+                        sample.getSize(), sample.getEngine(), sample.getNanosPerCall()))
+                    .collect(Collectors.toList()));
+        }
+
+        return ResponseEntity.ok(response.build());
+    }
+
+    private static EngineSelectionResponse.Range toRange(EngineRange range) {
+        Integer to = range.getToSize() == Integer.MAX_VALUE ? null : range.getToSize();
+        return new EngineSelectionResponse.Range(range.getFromSize(), to, range.getEngine());
+    }
+}
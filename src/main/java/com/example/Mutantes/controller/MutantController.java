@@ -4,6 +4,8 @@ import com.example.Mutantes.dto.DnaRequest;
 import com.example.Mutantes.dto.StatsResponse;
 import com.example.Mutantes.service.MutantService;
 import com.example.Mutantes.service.StatsService;
+import com.example.Mutantes.service.StatsStreamPublisher;
+import com.example.Mutantes.validator.PreparedDna;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,9 +13,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/")
@@ -22,10 +30,24 @@ public class MutantController {
 
     private final MutantService mutantService;
     private final StatsService statsService;
+    private final StatsStreamPublisher statsStreamPublisher;
+
+    /**
+     * Cache-Control de /stats: max-age y stale-while-revalidate configurados
+     * (mutant.stats.*), o no-cache (revalidar siempre con el ETag) si ambos son 0.
+     */
+    private final CacheControl statsCacheControl;
 
-    public MutantController(MutantService mutantService, StatsService statsService) {
+    public MutantController(MutantService mutantService, StatsService statsService,
+                            StatsStreamPublisher statsStreamPublisher,
+                            @Value("${mutant.stats.max-age:0s}") Duration statsMaxAge,
+                            @Value("${mutant.stats.stale-while-revalidate:0s}") Duration statsStaleWhileRevalidate) {
         this.mutantService = mutantService;
         this.statsService = statsService;
+        this.statsStreamPublisher = statsStreamPublisher;
+        this.statsCacheControl = statsMaxAge.isZero() && statsStaleWhileRevalidate.isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(statsMaxAge).staleWhileRevalidate(statsStaleWhileRevalidate);
     }
 
     @PostMapping("/mutant")
@@ -39,7 +61,12 @@ public class MutantController {
         @ApiResponse(responseCode = "400", description = "Solicitud inválida - ADN mal formado")
     })
     public ResponseEntity<Void> isMutant(@Valid @RequestBody DnaRequest request) {
-        boolean mutant = mutantService.analyzeDna(request.getDna());
+        // El validador ya dejó el ADN preparado (validado, codificado y con su hash);
+        // si la petición no pasó por la validación, el servicio lo prepara con el perfil activo
+        PreparedDna prepared = request.getPrepared();
+        boolean mutant = prepared != null
+                ? mutantService.analyzeDna(prepared)
+                : mutantService.analyzeDna(request.getDna());
         if (mutant) {
             return ResponseEntity.ok().build();
         } else {
@@ -50,15 +77,44 @@ public class MutantController {
     @GetMapping("/stats")
     @Operation(
         summary = "Obtiene estadísticas de verificaciones de ADN",
-        description = "Retorna las estadísticas de mutantes vs humanos y el ratio"
+        description = "Retorna las estadísticas de mutantes vs humanos y el ratio. "
+            + "Incluye un ETag fuerte que cambia sólo cuando cambian los conteos: "
+            + "con If-None-Match retorna 304 sin cuerpo si no hubo cambios."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente"),
+        @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag de If-None-Match"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     public ResponseEntity<StatsResponse> stats() {
         StatsResponse response = statsService.getStats();
-        return ResponseEntity.ok(response);
+        // Spring compara el ETag con If-None-Match y responde 304 sin serializar el cuerpo
+        return ResponseEntity.ok()
+                .eTag(eTag(response))
+                .cacheControl(statsCacheControl)
+                .body(response);
+    }
+
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Suscripción a las estadísticas por Server-Sent Events",
+        description = "Envía el último StatsResponse al conectarse y luego un evento \"stats\" "
+            + "cada vez que cambian los conteos, como máximo uno por intervalo configurado"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Flujo de eventos abierto")
+    })
+    public SseEmitter statsStream() {
+        return statsStreamPublisher.subscribe();
+    }
+
+    /**
+     * ETag fuerte de las estadísticas: los dos conteos (el ratio se deriva de
+     * ellos), que sólo crecen con cada INSERT. Dos respuestas con el mismo
+     * ETag tienen el mismo cuerpo.
+     */
+    private static String eTag(StatsResponse response) {
+        return "\"" + response.getCount_mutant_dna() + "-" + response.getCount_human_dna() + "\"";
     }
 }
 
@@ -1,26 +1,56 @@
 package com.example.Mutantes.dto;
 
+import com.example.Mutantes.validator.PreparedDna;
 import com.example.Mutantes.validator.ValidDnaSequence;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+/**
+ * DTO de la petición POST /mutant.
+ *
+ * @ValidDnaSequence se aplica a nivel de clase: al validar, el ADN se prepara
+ * en una sola pasada ({@link PreparedDna}) y queda guardado en el DTO para el
+ * servicio, que así no vuelve a validar, copiar ni hashear la matriz.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@ValidDnaSequence
 public class DnaRequest {
 
     @Schema(
-        description = "Array de strings que representan la matriz NxN del ADN. Cada string es una fila y debe contener solo los caracteres A, T, C, G",
+        description = "Array de strings que representan la matriz NxN del ADN. Cada string es una fila y debe contener solo bases del alfabeto configurado (A, T, C, G por defecto)",
         example = "[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]",
         required = true
     )
     @NotNull(message = "El campo 'dna' no puede ser nulo")
     @NotEmpty(message = "El campo 'dna' no puede estar vacío")
-    @ValidDnaSequence
     private String[] dna;
+
+    /**
+     * ADN preparado por el validador con el alfabeto del perfil de reglas
+     * activo (no forma parte del JSON); null si la petición no se validó.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient PreparedDna prepared;
+
+    public DnaRequest(String[] dna) {
+        this.dna = dna;
+    }
+
+    public void setDna(String[] dna) {
+        this.dna = dna;
+        // El ADN preparado corresponde al arreglo anterior
+        this.prepared = null;
+    }
 }
 
@@ -0,0 +1,89 @@
+package com.example.Mutantes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la respuesta del endpoint /detector/engines.
+ *
+ * Informa qué motor de detección resuelve cada rango de tamaños N y, si el
+ * motor es adaptativo, las mediciones de la calibración al iniciar.
+ *
+ * Ejemplo de respuesta JSON:
+ * {
+ *   "engine": "adaptive",
+ *   "calibration_millis": 1840,
+ *   "ranges": [
+ *     { "from_size": 1, "to_size": 16, "engine": "unrolled" },
+ *     { "from_size": 17, "to_size": null, "engine": "scalar" }
+ *   ],
+ *   "calibration": [
+ *     { "size": 6, "engine": "scalar", "nanos_per_call": 85.2 }
+ *   ]
+ * }
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EngineSelectionResponse {
+
+    /**
+     * Motor configurado en mutant.detector.engine.
+     */
+    private String engine;
+
+    /**
+     * Duración de la calibración en milisegundos (0 si el motor no es adaptativo).
+     */
+    private long calibration_millis;
+
+    /**
+     * Rangos contiguos de tamaños desde N=1 y el motor que resuelve cada uno.
+     */
+    private List<Range> ranges;
+
+    /**
+     * Mediciones de la calibración (vacía si el motor no es adaptativo).
+     */
+    private List<Sample> calibration;
+
+    /**
+     * Rango de tamaños [from_size, to_size] resuelto por un motor.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Range {
+
+        private int from_size;
+
+        /**
+         * Último tamaño del rango; null si el rango no tiene límite superior.
+         */
+        private Integer to_size;
+
+        private String engine;
+    }
+
+    /**
+     * Tiempo de un recorrido completo de un motor para un tamaño de muestra.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Sample {
+
+        private int size;
+
+        private String engine;
+
+        private double nanos_per_call;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.Mutantes.entity;
 
+import com.example.Mutantes.validator.DnaFingerprint;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,14 +9,22 @@ import java.time.LocalDateTime;
 /**
  * Entidad JPA que representa un registro de análisis de ADN.
  *
- * Almacena el hash único del ADN analizado, el resultado de si es mutante o no,
- * y la fecha de creación del registro.
+ * Almacena la huella de 128 bits del ADN analizado, el resultado de si es
+ * mutante o no, y la fecha de creación del registro.
  *
- * El campo dnaHash tiene restricción de unicidad a nivel de base de datos para
- * evitar el análisis duplicado del mismo ADN.
+ * La huella ocupa dos columnas BIGINT (fp_hi, fp_lo) con un índice único
+ * compuesto, que evita el análisis duplicado del mismo ADN: 16 bytes por
+ * clave en lugar de los 64 caracteres del hash SHA-256 hexadecimal anterior
+ * (actualización manual en docs/upgrade/001-dna-fingerprint.sql).
+ *
+ * El id sale de una secuencia para que los INSERT se puedan agrupar en lotes
+ * (actualización manual en docs/upgrade/002-dna-records-sequence.sql).
  */
 @Entity
-@Table(name = "dna_records")
+@Table(
+    name = "dna_records",
+    uniqueConstraints = @UniqueConstraint(name = "uk_dna_records_fingerprint", columnNames = {"fp_hi", "fp_lo"})
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,26 +32,41 @@ import java.time.LocalDateTime;
 @Builder
 public class DnaRecord {
 
+    /**
+     * Ids reservados por cada llamada a dna_records_seq (su INCREMENT BY).
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Identificador único del registro.
-     * Generado automáticamente por la base de datos.
+     *
+     * Sale de la secuencia dna_records_seq con el optimizador pooled-lo
+     * (spring.jpa.properties.hibernate.id.optimizer.pooled.preferred): cada
+     * llamada a la secuencia reserva {@link #ID_ALLOCATION_SIZE} ids que se
+     * asignan en memoria. A diferencia de IDENTITY, Hibernate conoce el id
+     * antes del INSERT y puede agrupar los INSERT en lotes JDBC
+     * (hibernate.jdbc.batch_size). Los INSERT nativos reparten los mismos
+     * bloques con {@code DnaRecordIdAllocator}.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dna_records_seq")
+    @SequenceGenerator(name = "dna_records_seq", sequenceName = "dna_records_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
-     * Hash único del ADN analizado.
-     *
-     * Este campo es crítico para evitar duplicados:
-     * - unique = true: Garantiza unicidad a nivel de base de datos
-     * - nullable = false: No permite valores nulos
+     * 64 bits altos de la huella del ADN ({@link DnaFingerprint#getHi()}).
      *
-     * Se genera a partir del array de DNA para identificar de manera única
-     * cada secuencia analizada.
+     * Junto con fingerprintLo identifica de manera única cada matriz
+     * analizada (índice único uk_dna_records_fingerprint).
+     */
+    @Column(name = "fp_hi", nullable = false)
+    private long fingerprintHi;
+
+    /**
+     * 64 bits bajos de la huella del ADN ({@link DnaFingerprint#getLo()}).
      */
-    @Column(name = "dna_hash", unique = true, nullable = false, length = 64)
-    private String dnaHash;
+    @Column(name = "fp_lo", nullable = false)
+    private long fingerprintLo;
 
     /**
      * Indica si el ADN corresponde a un mutante.
@@ -79,12 +103,22 @@ public class DnaRecord {
      * Constructor de conveniencia para crear un registro sin ID.
      * Útil para crear nuevas entidades antes de persistirlas.
      *
-     * @param dnaHash Hash único del ADN
+     * @param fingerprint Huella única del ADN
      * @param isMutant Indica si es mutante
      */
-    public DnaRecord(String dnaHash, boolean isMutant) {
-        this.dnaHash = dnaHash;
+    public DnaRecord(DnaFingerprint fingerprint, boolean isMutant) {
+        this.fingerprintHi = fingerprint.getHi();
+        this.fingerprintLo = fingerprint.getLo();
         this.isMutant = isMutant;
     }
+
+    /**
+     * Huella del ADN a partir de sus dos columnas.
+     *
+     * @return Huella de 128 bits
+     */
+    public DnaFingerprint getFingerprint() {
+        return new DnaFingerprint(fingerprintHi, fingerprintLo);
+    }
 }
 
@@ -0,0 +1,35 @@
+package com.example.Mutantes.repository;
+
+import com.example.Mutantes.entity.DnaRecord;
+
+/**
+ * Inserción masiva de registros de ADN, para cargas de muchos registros
+ * (importaciones, reprocesos) que con save() por registro pagarían una ida y
+ * vuelta a la base de datos por cada uno.
+ *
+ * Fragmento de {@link DnaRecordRepository}: Spring Data usa
+ * {@link DnaRecordBulkRepositoryImpl} como implementación.
+ */
+public interface DnaRecordBulkRepository {
+
+    /**
+     * Persiste registros nuevos en lotes JDBC de hibernate.jdbc.batch_size
+     * INSERT, en una sola transacción.
+     *
+     * A diferencia de saveAll(), vacía y limpia el contexto de persistencia
+     * después de cada lote: la memoria no depende de la cantidad de
+     * registros. Las entidades quedan desacopladas (detached) al terminar.
+     *
+     * Todas las huellas deben ser nuevas: una huella existente viola la
+     * restricción única y revierte la transacción completa (para un
+     * resultado suelto usar {@link DnaRecordRepository#insertIfAbsent}).
+     *
+     * Los contadores de /stats y el filtro de Bloom no se enteran: las cargas
+     * de la aplicación pasan por {@code MutantService#saveAllResults}, que los
+     * actualiza después de confirmar la transacción.
+     *
+     * @param records Registros sin id
+     * @return Cantidad de registros insertados
+     */
+    int saveAllInBatches(Iterable<DnaRecord> records);
+}
@@ -0,0 +1,44 @@
+package com.example.Mutantes.repository;
+
+import com.example.Mutantes.entity.DnaRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementación de {@link DnaRecordBulkRepository} con el EntityManager.
+ *
+ * Los INSERT se agrupan porque el id sale de una secuencia (ver
+ * {@link DnaRecord}) y hibernate.order_inserts está habilitado: cada
+ * flush() envía los registros pendientes como un único lote JDBC.
+ */
+public class DnaRecordBulkRepositoryImpl implements DnaRecordBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Registros por flush(); coincide con el tamaño de lote de Hibernate
+     * para que cada flush sea un solo executeBatch.
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public int saveAllInBatches(Iterable<DnaRecord> records) {
+        int count = 0;
+        for (DnaRecord record : records) {
+            entityManager.persist(record);
+            if (++count % batchSize == 0) {
+                // OPTIMIZACIÓN: enviar el lote y soltar las entidades ya escritas
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Mutantes.repository;
+
+import com.example.Mutantes.entity.DnaRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ids de dna_records para los INSERT nativos (MERGE insert-if-absent), que
+ * no pasan por el generador de Hibernate.
+ *
+ * Reparte la secuencia dna_records_seq igual que el optimizador pooled-lo
+ * de Hibernate (ver {@link DnaRecord}): cada llamada a la secuencia reserva
+ * el bloque [valor, valor + {@link DnaRecord#ID_ALLOCATION_SIZE}) y sus ids
+ * se asignan en memoria. Los bloques de Hibernate y los de este asignador
+ * salen de la misma secuencia, así que nunca se pisan, y cada INSERT nativo
+ * consume un solo id en lugar de un bloque entero.
+ *
+ * Thread-safe: lo comparten las peticiones sincrónicas
+ * ({@link DnaRecordRepository#insertIfAbsent}) y el hilo del write-behind.
+ * Los ids de un INSERT que se revierte o de un bloque sin terminar al cerrar
+ * la aplicación se pierden, igual que con Hibernate.
+ */
+@Component
+public class DnaRecordIdAllocator {
+
+    /**
+     * Siguiente valor de la secuencia (H2; en PostgreSQL
+     * SELECT nextval('dna_records_seq')).
+     */
+    static final String NEXT_BLOCK_SQL = "SELECT NEXT VALUE FOR dna_records_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Próximo id a entregar y fin (exclusivo) del bloque actual; el bloque
+     * está agotado cuando son iguales.
+     */
+    private long next;
+    private long end;
+
+    public DnaRecordIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Entrega el próximo id; sólo consulta la secuencia cuando se agota el
+     * bloque actual (una vez cada {@link DnaRecord#ID_ALLOCATION_SIZE} ids).
+     *
+     * @return Id que ningún otro INSERT va a usar
+     */
+    public synchronized long nextId() {
+        if (next == end) {
+            Long low = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+            if (low == null) {
+                throw new IllegalStateException("dna_records_seq no devolvió ningún valor");
+            }
+            next = low;
+            end = low + DnaRecord.ID_ALLOCATION_SIZE;
+        }
+        return next++;
+    }
+}
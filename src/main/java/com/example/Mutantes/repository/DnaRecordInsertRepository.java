@@ -0,0 +1,28 @@
+package com.example.Mutantes.repository;
+
+import com.example.Mutantes.validator.DnaFingerprint;
+
+/**
+ * Insert-if-absent de un resultado suelto.
+ *
+ * Fragmento de {@link DnaRecordRepository}: Spring Data usa
+ * {@link DnaRecordInsertRepositoryImpl} como implementación, que toma el id
+ * de {@link DnaRecordIdAllocator}.
+ */
+public interface DnaRecordInsertRepository {
+
+    /**
+     * Inserta el resultado de una huella si todavía no está guardada
+     * ({@link DnaRecordRepository#INSERT_IF_ABSENT_SQL}).
+     *
+     * La comprobación y el INSERT se resuelven dentro de la base de datos, en
+     * una sola ida y vuelta y sin la ventana entre un SELECT y un INSERT
+     * separados. Si retorna false, el registro existente se lee con
+     * {@link DnaRecordRepository#findByFingerprint(DnaFingerprint)}.
+     *
+     * @param fingerprint Huella única del ADN
+     * @param isMutant Resultado de la detección
+     * @return true si se insertó, false si la huella ya existía
+     */
+    boolean insertIfAbsent(DnaFingerprint fingerprint, boolean isMutant);
+}
@@ -0,0 +1,32 @@
+package com.example.Mutantes.repository;
+
+import com.example.Mutantes.validator.DnaFingerprint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementación de {@link DnaRecordInsertRepository} con el EntityManager.
+ */
+public class DnaRecordInsertRepositoryImpl implements DnaRecordInsertRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DnaRecordIdAllocator idAllocator;
+
+    public DnaRecordInsertRepositoryImpl(DnaRecordIdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+    }
+
+    @Override
+    @Transactional
+    public boolean insertIfAbsent(DnaFingerprint fingerprint, boolean isMutant) {
+        return entityManager.createNativeQuery(DnaRecordRepository.INSERT_IF_ABSENT_SQL)
+                .setParameter("id", idAllocator.nextId())
+                .setParameter("hi", fingerprint.getHi())
+                .setParameter("lo", fingerprint.getLo())
+                .setParameter("isMutant", isMutant)
+                .executeUpdate() == 1;
+    }
+}
@@ -1,39 +1,80 @@
 package com.example.Mutantes.repository;
 
 import com.example.Mutantes.entity.DnaRecord;
+import com.example.Mutantes.validator.DnaFingerprint;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repositorio JPA para la gestión de registros de ADN.
  *
  * Proporciona métodos CRUD automáticos a través de JpaRepository
  * y métodos de consulta personalizados para:
- * - Buscar registros por hash de ADN (evitar análisis duplicados)
+ * - Buscar registros por huella de ADN (evitar análisis duplicados)
+ * - Insertar un resultado sólo si su huella no existe, en una sentencia
+ *   ({@link DnaRecordInsertRepository})
+ * - Insertar muchos registros en lotes JDBC ({@link DnaRecordBulkRepository})
  * - Contar registros de mutantes/humanos (para estadísticas)
+ * - Recorrer todas las huellas (para cargar el filtro de Bloom al iniciar)
  *
  * Spring Data JPA genera automáticamente la implementación de esta interfaz
  * basándose en las convenciones de nombres de métodos.
  */
 @Repository
-public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
+public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long>,
+        DnaRecordInsertRepository, DnaRecordBulkRepository {
+
+    /**
+     * Busca un registro de ADN por las dos mitades de su huella.
+     *
+     * Query generada automáticamente (resuelta por el índice único compuesto):
+     * SELECT * FROM dna_records WHERE fp_hi = ? AND fp_lo = ?
+     *
+     * @param fingerprintHi 64 bits altos de la huella
+     * @param fingerprintLo 64 bits bajos de la huella
+     * @return Optional con el registro si existe, Optional.empty() si no existe
+     */
+    Optional<DnaRecord> findByFingerprintHiAndFingerprintLo(long fingerprintHi, long fingerprintLo);
 
     /**
-     * Busca un registro de ADN por su hash único.
+     * Busca un registro de ADN por su huella única.
      *
      * Este método es fundamental para:
      * - Evitar análisis duplicados del mismo ADN
      * - Retornar resultados cacheados de análisis previos
      *
-     * Query generada automáticamente:
-     * SELECT * FROM dna_records WHERE dna_hash = ?
-     *
-     * @param dnaHash Hash único del ADN a buscar
+     * @param fingerprint Huella única del ADN a buscar
      * @return Optional con el registro si existe, Optional.empty() si no existe
      */
-    Optional<DnaRecord> findByDnaHash(String dnaHash);
+    default Optional<DnaRecord> findByFingerprint(DnaFingerprint fingerprint) {
+        return findByFingerprintHiAndFingerprintLo(fingerprint.getHi(), fingerprint.getLo());
+    }
+
+    /**
+     * Insert-if-absent de una huella en una única sentencia MERGE (SQL
+     * estándar, soportada por H2 y PostgreSQL 15+), con los parámetros
+     * nombrados :id, :hi, :lo e :isMutant. Si la huella ya existe no modifica
+     * nada (ni is_mutant ni created_at). La sentencia nativa no pasa por el
+     * generador de Hibernate ni por @PrePersist: el id lo entrega
+     * {@link DnaRecordIdAllocator} (bloques de dna_records_seq compartidos con
+     * Hibernate, un id por INSERT) y created_at se asigna en la base de datos.
+     *
+     * La comparten {@link #insertIfAbsent(DnaFingerprint, boolean)} y los
+     * lotes JDBC del write-behind ({@code DnaRecordWriter}).
+     */
+    String INSERT_IF_ABSENT_SQL = "MERGE INTO dna_records t "
+            + "USING (SELECT CAST(:hi AS BIGINT) AS fp_hi, CAST(:lo AS BIGINT) AS fp_lo) s "
+            + "ON t.fp_hi = s.fp_hi AND t.fp_lo = s.fp_lo "
+            + "WHEN NOT MATCHED THEN INSERT (id, fp_hi, fp_lo, is_mutant, created_at) "
+            + "VALUES (:id, s.fp_hi, s.fp_lo, :isMutant, LOCALTIMESTAMP)";
 
     /**
      * Cuenta la cantidad de registros según el tipo (mutante o humano).
@@ -49,5 +90,18 @@ public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
      * @return Cantidad de registros que coinciden con el criterio
      */
     long countByIsMutant(boolean isMutant);
-}
 
+    /**
+     * Recorre las huellas de todos los registros sin cargar las entidades.
+     *
+     * Las filas se leen por lotes del cursor JDBC a medida que se consume el
+     * Stream, así que la memoria no depende del tamaño de la tabla. Debe
+     * llamarse dentro de una transacción y cerrarse al terminar
+     * (try-with-resources).
+     *
+     * @return Stream de huellas en el orden en que las devuelve la base de datos
+     */
+    @Query("SELECT new com.example.Mutantes.validator.DnaFingerprint(r.fingerprintHi, r.fingerprintLo) FROM DnaRecord r")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<DnaFingerprint> streamAllFingerprints();
+}
@@ -0,0 +1,208 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.service.engine.BatchDetectionKernel;
+
+/**
+ * Lote de matrices de ADN del mismo tamaño en disposición structure-of-arrays.
+ *
+ * La celda (i, j) de la matriz b se guarda en
+ * {@code cells[(i * n + j) * lanes + b]}, con {@code lanes} igual a la
+ * capacidad redondeada a múltiplo de 8: la misma celda de todas las matrices
+ * queda contigua, así que el detector por lotes
+ * ({@link MutantDetector#isMutantBatch(DnaBatch)}) recorre cada celda
+ * inicial una sola vez y compara 8 matrices por palabra de 64 bits
+ * ({@link BatchDetectionKernel}), con accesos secuenciales y sin saltos por
+ * matriz.
+ *
+ * El lote sólo copia las bases (rechazando los caracteres fuera de
+ * US-ASCII, que no caben en un byte): la validación contra el alfabeto la
+ * hace el detector en una pasada sobre todo el buffer. Las instancias no son
+ * thread-safe.
+ */
+public final class DnaBatch {
+
+    private final int n;
+    private final int capacity;
+    private final int lanes;
+    private final byte[] cells;
+    private int size;
+
+    /**
+     * Crea un lote vacío.
+     *
+     * @param n Tamaño de las matrices (NxN)
+     * @param capacity Cantidad máxima de matrices
+     * @throws IllegalArgumentException si n o capacity no son positivos, o el buffer no cabe en un arreglo
+     */
+    public DnaBatch(int n, int capacity) {
+        if (n <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException(
+                "El tamaño de la matriz y la capacidad del lote deben ser positivos: " + n + ", " + capacity
+            );
+        }
+        int lanes = (int) (((long) capacity + BatchDetectionKernel.LANES_PER_WORD - 1)
+            / BatchDetectionKernel.LANES_PER_WORD * BatchDetectionKernel.LANES_PER_WORD);
+        long length = (long) n * n * lanes;
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El lote excede el tamaño máximo de un arreglo: " + length + " celdas");
+        }
+        this.n = n;
+        this.capacity = capacity;
+        this.lanes = lanes;
+        this.cells = new byte[(int) length];
+    }
+
+    /**
+     * Agrega una matriz al lote.
+     *
+     * Los caracteres fuera de US-ASCII se rechazan aquí: al pasarlos a byte
+     * se truncarían (ej: 'Ł', U+0141, quedaría como 'A') y el detector no
+     * podría distinguirlos de una base válida.
+     *
+     * @param dna Filas de la matriz (NxN)
+     * @return Índice de la matriz dentro del lote
+     * @throws IllegalArgumentException si la matriz no es NxN o tiene caracteres fuera de US-ASCII
+     * @throws IllegalStateException si el lote está lleno
+     */
+    public int add(String[] dna) {
+        if (dna == null || dna.length != n) {
+            throw notSquare();
+        }
+        for (String row : dna) {
+            if (row == null || row.length() != n) {
+                throw notSquare();
+            }
+        }
+        int b = nextIndex();
+        for (int i = 0; i < n; i++) {
+            String row = dna[i];
+            int at = i * n * lanes + b;
+            // Sin saltos por celda: se acumulan los bits altos y se revisa la fila al final
+            int seen = 0;
+            for (int j = 0; j < n; j++) {
+                char base = row.charAt(j);
+                seen |= base;
+                cells[at] = (byte) base;
+                at += lanes;
+            }
+            if (seen > 0x7F) {
+                // La matriz no se agrega: su carril queda libre para la siguiente
+                size--;
+                throw notAscii(i, row);
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Agrega una matriz recibida como bytes US-ASCII.
+     *
+     * @param data Buffer con las bases
+     * @param offset Posición de la celda (0, 0)
+     * @param stride Distancia en bytes entre el inicio de dos filas (>= n)
+     * @return Índice de la matriz dentro del lote
+     * @throws IllegalArgumentException si la matriz no cabe en el buffer
+     * @throws IllegalStateException si el lote está lleno
+     */
+    public int add(byte[] data, int offset, int stride) {
+        if (stride < n || offset < 0 || (long) offset + (long) (n - 1) * stride + n > data.length) {
+            throw new IllegalArgumentException(
+                "La matriz de ADN debe ser cuadrada (NxN) y caber en el buffer. Tamaño: " + n
+                + ", stride: " + stride + ", buffer: " + data.length
+            );
+        }
+        int b = nextIndex();
+        for (int i = 0; i < n; i++) {
+            int from = offset + i * stride;
+            int at = i * n * lanes + b;
+            for (int j = 0; j < n; j++) {
+                cells[at] = data[from + j];
+                at += lanes;
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Vacía el lote para reutilizar el buffer.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Base en la celda (i, j) de una matriz del lote.
+     *
+     * @param index Índice de la matriz
+     * @param i Fila
+     * @param j Columna
+     * @return Base en US-ASCII
+     */
+    public byte base(int index, int i, int j) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice fuera del lote: " + index + " (tamaño " + size + ")");
+        }
+        return cells[(i * n + j) * lanes + index];
+    }
+
+    /**
+     * Copia una matriz del lote a un buffer row-major de N x N bytes.
+     */
+    void copyTo(int index, byte[] target) {
+        int at = index;
+        for (int c = 0; c < n * n; c++) {
+            target[c] = cells[at];
+            at += lanes;
+        }
+    }
+
+    private int nextIndex() {
+        if (size == capacity) {
+            throw new IllegalStateException("El lote está lleno: " + capacity + " matrices");
+        }
+        return size++;
+    }
+
+    private static IllegalArgumentException notAscii(int i, String row) {
+        int j = 0;
+        while (row.charAt(j) <= 0x7F) {
+            j++;
+        }
+        return new IllegalArgumentException(
+            "Carácter inválido encontrado en posición [" + i + "][" + j + "]: '" + row.charAt(j)
+            + "'. Solo se permiten caracteres US-ASCII"
+        );
+    }
+
+    private IllegalArgumentException notSquare() {
+        return new IllegalArgumentException(
+            "La matriz de ADN debe ser cuadrada (NxN). Tamaño esperado: " + n + "x" + n
+        );
+    }
+
+    /**
+     * Buffer structure-of-arrays (celda mayor, matriz menor).
+     */
+    byte[] cells() {
+        return cells;
+    }
+
+    /**
+     * Distancia entre dos celdas consecutivas de una matriz (múltiplo de 8).
+     */
+    int lanes() {
+        return lanes;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+}
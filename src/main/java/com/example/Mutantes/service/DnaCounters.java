@@ -0,0 +1,108 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.repository.DnaRecordRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de mutantes y humanos en dna_records, para que /stats no
+ * recorra la tabla.
+ *
+ * Se cargan una vez al iniciar (antes de aceptar peticiones) con los
+ * COUNT(*) de la tabla y después se incrementan en cada INSERT confirmado:
+ * el MERGE sincrónico de {@link MutantService}, los lotes del write-behind
+ * ({@link DnaRecordWriter}) y las inserciones masivas. Un MERGE que no
+ * inserta (la huella ya existía) no cuenta. Leerlos es O(1) sin importar el
+ * tamaño de la tabla.
+ *
+ * Usa {@link LongAdder}: bajo muchas escrituras concurrentes cada hilo
+ * incrementa su propia celda en lugar de competir por un único contador.
+ *
+ * Sólo ven los INSERT de esta instancia: con varias instancias sobre la
+ * misma base de datos, los de las demás se reflejan al reiniciar.
+ */
+@Component
+public class DnaCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DnaCounters.class);
+
+    private final DnaRecordRepository dnaRecordRepository;
+    private final LongAdder mutants = new LongAdder();
+    private final LongAdder humans = new LongAdder();
+
+    /**
+     * Crea los contadores en cero (hasta {@link #load()}).
+     *
+     * @param dnaRecordRepository Repositorio para la carga inicial
+     */
+    public DnaCounters(DnaRecordRepository dnaRecordRepository) {
+        this.dnaRecordRepository = dnaRecordRepository;
+    }
+
+    /**
+     * Carga los contadores desde la tabla. Se ejecuta al crear el bean, antes
+     * de que el servidor web acepte peticiones, así que ningún INSERT se
+     * cuenta dos veces.
+     */
+    @PostConstruct
+    public void load() {
+        long started = System.nanoTime();
+        mutants.reset();
+        humans.reset();
+        mutants.add(dnaRecordRepository.countByIsMutant(true));
+        humans.add(dnaRecordRepository.countByIsMutant(false));
+        log.info("Contadores de /stats cargados: {} mutantes, {} humanos en {} ms",
+                mutants.sum(), humans.sum(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Registra un INSERT confirmado.
+     *
+     * @param isMutant Resultado del registro insertado
+     */
+    public void recordInserted(boolean isMutant) {
+        (isMutant ? mutants : humans).increment();
+    }
+
+    /**
+     * Registra varios INSERT confirmados (lotes, inserciones masivas).
+     *
+     * @param mutantCount Mutantes insertados
+     * @param humanCount Humanos insertados
+     */
+    public void recordInserted(long mutantCount, long humanCount) {
+        mutants.add(mutantCount);
+        humans.add(humanCount);
+    }
+
+    /**
+     * Cantidad de mutantes, sin consultar la base de datos.
+     *
+     * @return Registros de mutantes en dna_records
+     */
+    public long getMutantCount() {
+        return mutants.sum();
+    }
+
+    /**
+     * Cantidad de humanos, sin consultar la base de datos.
+     *
+     * @return Registros de humanos en dna_records
+     */
+    public long getHumanCount() {
+        return humans.sum();
+    }
+
+    /**
+     * Cantidad total de análisis guardados.
+     *
+     * @return Registros en dna_records (mutantes + humanos)
+     */
+    public long getTotalCount() {
+        return mutants.sum() + humans.sum();
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.repository.DnaRecordIdAllocator;
+import com.example.Mutantes.repository.DnaRecordRepository;
+import com.example.Mutantes.validator.DnaFingerprint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistencia write-behind de resultados: el INSERT sale del camino de la
+ * petición.
+ *
+ * Con {@code mutant.persistence.write-behind.enabled=true} el servicio encola
+ * el resultado en una cola acotada y responde sin esperar a la base de datos;
+ * la caché L1 ({@link DnaResultCache}) lo hace visible de inmediato. Un hilo
+ * en segundo plano vacía la cola en lotes JDBC del MERGE insert-if-absent
+ * ({@link DnaRecordRepository#INSERT_IF_ABSENT_SQL}), un lote por transacción,
+ * cuando junta {@code batch-size} registros o pasa {@code flush-interval}
+ * desde el primero del lote.
+ *
+ * Si la cola está llena (o el write-behind está deshabilitado o cerrándose),
+ * {@link #enqueue} retorna false y el servicio escribe de forma sincrónica,
+ * así que la cola nunca crece sin límite ni descarta resultados. Al cerrar la
+ * aplicación deja de aceptar registros y escribe los pendientes (drain)
+ * antes de que se cierre el DataSource.
+ *
+ * Mientras un registro está en la cola, /stats todavía no lo cuenta y, si la
+ * caché L1 lo desaloja, una petición del mismo ADN lo vuelve a detectar y
+ * encolar; el MERGE evita el duplicado.
+ *
+ * Métricas: {@code mutant.writer.queue.depth} (registros pendientes),
+ * {@code mutant.writer.flush} (latencia de cada lote),
+ * {@code mutant.writer.sync.fallbacks} (escrituras sincrónicas por cola
+ * llena) y {@code mutant.writer.failed} (registros que no se pudieron escribir).
+ */
+@Component
+public class DnaRecordWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DnaRecordWriter.class);
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration drainTimeout;
+    private final BlockingQueue<PendingRecord> queue;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DnaRecordIdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final DnaCounters dnaCounters;
+
+    private final Timer flushTimer;
+    private final Counter syncFallbacks;
+    private final Counter failedRecords;
+
+    /**
+     * true mientras se aceptan registros; el hilo escritor termina cuando
+     * pasa a false y la cola queda vacía.
+     */
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    /**
+     * Crea el escritor (detenido hasta {@link #start()}) y registra sus métricas.
+     *
+     * @param enabled false para escribir siempre de forma sincrónica
+     * @param queueCapacity Registros pendientes máximos
+     * @param batchSize Registros máximos por lote JDBC
+     * @param flushInterval Espera máxima desde el primer registro de un lote hasta escribirlo
+     * @param drainTimeout Espera máxima al cerrar para escribir los pendientes
+     * @param jdbcTemplate Acceso JDBC para los lotes
+     * @param idAllocator Ids de los registros, compartidos con los INSERT sincrónicos
+     * @param transactionManager Transacción de cada lote
+     * @param dnaCounters Contadores de /stats, que suman los registros insertados
+     * @param meterRegistry Registro de métricas de la aplicación
+     */
+    public DnaRecordWriter(@Value("${mutant.persistence.write-behind.enabled:false}") boolean enabled,
+                           @Value("${mutant.persistence.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${mutant.persistence.write-behind.batch-size:500}") int batchSize,
+                           @Value("${mutant.persistence.write-behind.flush-interval:50ms}") Duration flushInterval,
+                           @Value("${mutant.persistence.write-behind.drain-timeout:10s}") Duration drainTimeout,
+                           NamedParameterJdbcTemplate jdbcTemplate,
+                           DnaRecordIdAllocator idAllocator,
+                           PlatformTransactionManager transactionManager,
+                           DnaCounters dnaCounters,
+                           MeterRegistry meterRegistry) {
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException(
+                    "La capacidad de la cola y el tamaño de lote deben ser positivos: " + queueCapacity + ", " + batchSize);
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("El intervalo de escritura debe ser positivo: " + flushInterval);
+        }
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.drainTimeout = drainTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dnaCounters = dnaCounters;
+
+        Gauge.builder("mutant.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Resultados pendientes de escribir en dna_records")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("mutant.writer.flush")
+                .description("Latencia de escritura de cada lote de resultados")
+                .register(meterRegistry);
+        this.syncFallbacks = Counter.builder("mutant.writer.sync.fallbacks")
+                .description("Resultados escritos de forma sincrónica por cola llena")
+                .register(meterRegistry);
+        this.failedRecords = Counter.builder("mutant.writer.failed")
+                .description("Resultados en segundo plano que no se pudieron escribir")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia el hilo escritor (si el write-behind está habilitado).
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || writerThread != null) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::run, "dna-record-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Encola un resultado para escribirlo en segundo plano.
+     *
+     * @param fingerprint Huella del ADN
+     * @param isMutant Resultado de la detección
+     * @return true si se encoló; false si el llamador debe escribirlo de forma
+     *         sincrónica (deshabilitado, cerrándose o cola llena)
+     */
+    public boolean enqueue(DnaFingerprint fingerprint, boolean isMutant) {
+        if (!running) {
+            return false;
+        }
+        PendingRecord pending = new PendingRecord(fingerprint, isMutant);
+        if (queue.offer(pending)) {
+            // Si se cerró mientras tanto y nadie lo tomó de la cola, lo escribe el llamador
+            return running || !queue.remove(pending);
+        }
+        syncFallbacks.increment();
+        return false;
+    }
+
+    /**
+     * Deja de aceptar registros y escribe los pendientes.
+     *
+     * Espera al hilo escritor hasta {@code drain-timeout}; lo que quede en la
+     * cola después (encolado durante el cierre) se escribe en este hilo.
+     */
+    @PreDestroy
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            if (writerThread == null) {
+                return;
+            }
+            running = false;
+            thread = writerThread;
+        }
+
+        try {
+            thread.join(drainTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("El escritor de resultados no terminó en {}; quedan {} pendientes", drainTimeout, queue.size());
+            return;
+        }
+
+        List<PendingRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        log.info("Escritor de resultados detenido; cola vacía");
+    }
+
+    /**
+     * Registros pendientes en la cola (sin contar el lote que se está escribiendo).
+     *
+     * @return Profundidad actual de la cola
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Bucle del hilo escritor: junta un lote y lo escribe, hasta que se cierra
+     * y la cola queda vacía.
+     */
+    private void run() {
+        List<PendingRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Lo que ya se tomó de la cola se escribe antes de salir
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el escritor de resultados", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Espera el primer registro y junta más hasta completar el lote o hasta
+     * que pase el intervalo desde el primero.
+     */
+    private void collect(List<PendingRecord> batch) throws InterruptedException {
+        PendingRecord first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Escribe un lote en una transacción. Si falla (por ejemplo, un MERGE
+     * concurrente de otra instancia choca con la restricción única, o falla
+     * la asignación de ids) se reintenta registro por registro para no perder
+     * el resto del lote; los registros que tampoco se escriben así cuentan en
+     * {@code mutant.writer.failed}.
+     */
+    private void flush(List<PendingRecord> batch) {
+        long started = System.nanoTime();
+        try {
+            SqlParameterSource[] parameters = new SqlParameterSource[batch.size()];
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] = batch.get(i).toParameters(idAllocator);
+            }
+            int[] updateCounts = transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(DnaRecordRepository.INSERT_IF_ABSENT_SQL, parameters));
+            countInserted(batch, updateCounts);
+        } catch (RuntimeException e) {
+            log.warn("Falló el lote de {} resultados; se reintenta uno por uno: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeOne);
+        } finally {
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Suma a los contadores de /stats los registros que el MERGE insertó
+     * (1 fila); los que ya existían (0 filas) no cuentan.
+     */
+    private void countInserted(List<PendingRecord> batch, int[] updateCounts) {
+        long mutants = 0;
+        long humans = 0;
+        for (int i = 0; i < Math.min(batch.size(), updateCounts.length); i++) {
+            if (updateCounts[i] == 1) {
+                if (batch.get(i).isMutant) {
+                    mutants++;
+                } else {
+                    humans++;
+                }
+            }
+        }
+        dnaCounters.recordInserted(mutants, humans);
+    }
+
+    private void writeOne(PendingRecord pending) {
+        try {
+            if (jdbcTemplate.update(DnaRecordRepository.INSERT_IF_ABSENT_SQL, pending.toParameters(idAllocator)) == 1) {
+                dnaCounters.recordInserted(pending.isMutant);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia ya guardó la huella: nada que escribir
+            log.debug("Huella {} ya guardada", pending.fingerprint);
+        } catch (RuntimeException e) {
+            // El resultado sigue en la caché L1; si se desaloja, se vuelve a detectar
+            failedRecords.increment();
+            log.error("No se pudo guardar el resultado de la huella {}", pending.fingerprint, e);
+        }
+    }
+
+    /**
+     * Resultado pendiente de escribir.
+     */
+    private static final class PendingRecord {
+        private final DnaFingerprint fingerprint;
+        private final boolean isMutant;
+
+        PendingRecord(DnaFingerprint fingerprint, boolean isMutant) {
+            this.fingerprint = fingerprint;
+            this.isMutant = isMutant;
+        }
+
+        /**
+         * Parámetros del MERGE, con un id nuevo: si la huella ya existe, ese
+         * id se pierde (igual que en el insert-if-absent sincrónico).
+         */
+        SqlParameterSource toParameters(DnaRecordIdAllocator idAllocator) {
+            return new MapSqlParameterSource()
+                    .addValue("id", idAllocator.nextId())
+                    .addValue("hi", fingerprint.getHi())
+                    .addValue("lo", fingerprint.getLo())
+                    .addValue("isMutant", isMutant);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.validator.DnaFingerprint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Caché L1 en memoria de resultados por huella, delante de la base de datos.
+ *
+ * Los resultados son inmutables (la huella identifica al ADN y el ADN
+ * determina el resultado), así que no hace falta invalidar: la caché sólo
+ * acota la memoria. Usa Caffeine, cuyo desalojo W-TinyLFU retiene las
+ * huellas pedidas con frecuencia aunque llegue una ráfaga de ADN nuevos que
+ * se piden una sola vez.
+ *
+ * El límite es un presupuesto en bytes ({@code mutant.cache.max-size}): cada
+ * entrada pesa {@link #ENTRY_BYTES}, la estimación de lo que retiene en el
+ * heap. Con 0 la caché queda deshabilitada.
+ *
+ * Aciertos, fallos y desalojos se publican en Micrometer como las métricas
+ * {@code cache.gets}, {@code cache.evictions} y {@code cache.size} con
+ * {@code cache=dna.results} (ver /actuator/metrics), junto con
+ * {@code mutant.cache.bytes}, el peso ocupado.
+ */
+@Component
+public class DnaResultCache {
+
+    /**
+     * Nombre de la caché en las métricas.
+     */
+    public static final String NAME = "dna.results";
+
+    /**
+     * Bytes estimados por entrada (JVM de 64 bits con compressed oops):
+     * - DnaFingerprint: 12 de cabecera + 2 longs = 32 (alineado a 8)
+     * - Nodo de Caffeine con peso y punteros de las colas de desalojo: ~56
+     * - Nodo del ConcurrentHashMap interno: 32, más ~8 de su tabla
+     * - Contadores del sketch de frecuencias de W-TinyLFU: ~8
+     * El Boolean del resultado es una de las dos constantes compartidas.
+     */
+    public static final int ENTRY_BYTES = 136;
+
+    private final Cache<DnaFingerprint, Boolean> cache;
+    private final long maxBytes;
+
+    /**
+     * Crea la caché y registra sus métricas.
+     *
+     * @param maxSize Presupuesto de memoria (ej: 16MB); 0 deshabilita la caché
+     * @param meterRegistry Registro de métricas de la aplicación
+     */
+    public DnaResultCache(@Value("${mutant.cache.max-size:16MB}") DataSize maxSize,
+                          MeterRegistry meterRegistry) {
+        if (maxSize.isNegative()) {
+            throw new IllegalArgumentException("El tamaño de la caché no puede ser negativo: " + maxSize);
+        }
+        this.maxBytes = maxSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((DnaFingerprint key, Boolean value) -> ENTRY_BYTES)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        Gauge.builder("mutant.cache.bytes", this, DnaResultCache::weightedSize)
+                .description("Bytes estimados ocupados por la caché L1 de resultados")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resultado cacheado para una huella.
+     *
+     * @param fingerprint Huella del ADN
+     * @return true/false si está en caché, null si no
+     */
+    public Boolean get(DnaFingerprint fingerprint) {
+        return cache.getIfPresent(fingerprint);
+    }
+
+    /**
+     * Guarda un resultado leído de la base de datos o recién persistido.
+     *
+     * @param fingerprint Huella del ADN
+     * @param isMutant Resultado de la detección
+     */
+    public void put(DnaFingerprint fingerprint, boolean isMutant) {
+        cache.put(fingerprint, isMutant);
+    }
+
+    /**
+     * Contadores acumulados de aciertos, fallos y desalojos.
+     *
+     * @return Estadísticas de Caffeine desde el inicio
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Bytes estimados ocupados (entradas x {@link #ENTRY_BYTES}).
+     *
+     * @return Peso actual de la caché
+     */
+    public long weightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    /**
+     * Presupuesto configurado.
+     *
+     * @return Máximo de bytes estimados
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Ejecuta ahora el mantenimiento pendiente (desalojos), que Caffeine
+     * normalmente hace de forma asíncrona. Útil para tests.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.repository.DnaRecordRepository;
+import com.example.Mutantes.validator.DnaFingerprint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Caché negativa de huellas: un {@link ScalableBloomFilter} con todas las
+ * huellas guardadas en dna_records.
+ *
+ * La mayor parte del tráfico es ADN nunca visto, cuya consulta a la base de
+ * datos no encuentra nada. Si el filtro responde "ausente" la huella seguro
+ * no está en la tabla y el servicio pasa directo a detectar e insertar sin
+ * el SELECT; si responde "quizás", se consulta como siempre.
+ *
+ * El filtro se carga al iniciar recorriendo la tabla
+ * ({@link DnaRecordRepository#streamAllFingerprints()}) y se actualiza en
+ * cada INSERT. Mientras carga responde siempre "quizás", así que nunca da un
+ * falso negativo. Los registros insertados por otras instancias no están en
+ * el filtro: el MERGE de {@link MutantService} no los duplica y se lee el
+ * registro existente.
+ *
+ * Métricas: {@code mutant.bloom.bytes} (memoria de los arreglos de bits),
+ * {@code mutant.bloom.entries}, {@code mutant.bloom.fpp} (tasa de falsos
+ * positivos estimada con la ocupación actual) y
+ * {@code mutant.bloom.skipped.lookups} (SELECT evitados).
+ */
+@Component
+public class KnownFingerprints {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownFingerprints.class);
+
+    private final DnaRecordRepository dnaRecordRepository;
+    private final ScalableBloomFilter filter;
+    private final Counter skippedLookups;
+
+    /**
+     * true cuando el filtro contiene todas las huellas de la tabla.
+     */
+    private volatile boolean loaded;
+
+    /**
+     * Crea el filtro (vacío hasta {@link #load()}) y registra sus métricas.
+     *
+     * @param enabled false para consultar siempre la base de datos
+     * @param fpp Tasa de falsos positivos máxima del filtro
+     * @param initialCapacity Huellas del primer segmento del filtro
+     * @param dnaRecordRepository Repositorio para la carga inicial
+     * @param meterRegistry Registro de métricas de la aplicación
+     */
+    public KnownFingerprints(@Value("${mutant.bloom.enabled:true}") boolean enabled,
+                             @Value("${mutant.bloom.fpp:0.01}") double fpp,
+                             @Value("${mutant.bloom.initial-capacity:100000}") long initialCapacity,
+                             DnaRecordRepository dnaRecordRepository,
+                             MeterRegistry meterRegistry) {
+        this.dnaRecordRepository = dnaRecordRepository;
+        this.filter = enabled ? new ScalableBloomFilter(initialCapacity, fpp) : null;
+        this.skippedLookups = Counter.builder("mutant.bloom.skipped.lookups")
+                .description("Consultas a dna_records evitadas por el filtro de Bloom")
+                .register(meterRegistry);
+
+        if (filter != null) {
+            Gauge.builder("mutant.bloom.bytes", filter, ScalableBloomFilter::memoryBytes)
+                    .description("Memoria de los arreglos de bits del filtro de Bloom")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("mutant.bloom.entries", filter, ScalableBloomFilter::size)
+                    .description("Huellas agregadas al filtro de Bloom")
+                    .register(meterRegistry);
+            Gauge.builder("mutant.bloom.fpp", filter, ScalableBloomFilter::expectedFpp)
+                    .description("Tasa de falsos positivos estimada del filtro de Bloom")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Carga las huellas de la tabla al terminar de iniciar la aplicación.
+     *
+     * Las huellas insertadas durante la carga se agregan por {@link #add} y
+     * las que ya estaban por el recorrido, así que al terminar no falta ninguna.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (filter == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (Stream<DnaFingerprint> fingerprints = dnaRecordRepository.streamAllFingerprints()) {
+            fingerprints.forEach(filter::add);
+        }
+        loaded = true;
+        log.info("Filtro de Bloom cargado: {} huellas, {} KB, fpp estimada {} en {} ms",
+                filter.size(), filter.memoryBytes() / 1024, String.format("%.5f", filter.expectedFpp()),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Indica si la huella puede estar en dna_records.
+     *
+     * @param fingerprint Huella a consultar
+     * @return false sólo si seguro no está (se puede omitir el SELECT)
+     */
+    public boolean mightContain(DnaFingerprint fingerprint) {
+        if (filter == null || !loaded) {
+            return true;
+        }
+        if (filter.mightContain(fingerprint)) {
+            return true;
+        }
+        skippedLookups.increment();
+        return false;
+    }
+
+    /**
+     * Registra una huella recién guardada en dna_records (o encolada para
+     * guardarse con el write-behind, ver {@link DnaRecordWriter}).
+     *
+     * @param fingerprint Huella insertada
+     */
+    public void add(DnaFingerprint fingerprint) {
+        if (filter != null) {
+            filter.add(fingerprint);
+        }
+    }
+
+    /**
+     * Indica si la carga inicial terminó (antes, todas las consultas van a la base de datos).
+     *
+     * @return true si el filtro está en uso
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
@@ -1,8 +1,29 @@
 package com.example.Mutantes.service;
 
+import com.example.Mutantes.service.engine.AdaptiveDetectionEngine;
+import com.example.Mutantes.service.engine.BatchDetectionKernel;
+import com.example.Mutantes.service.engine.DetectionEngine;
+import com.example.Mutantes.service.engine.DetectionEngines;
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.EngineRange;
+import com.example.Mutantes.service.engine.LookupTableDetectionEngine;
+import com.example.Mutantes.service.engine.ParallelDetectionEngine;
+import com.example.Mutantes.service.engine.ProfileDetectors;
+import com.example.Mutantes.service.engine.RuleProfileEngine;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import com.example.Mutantes.service.engine.ThreadLocalScratch;
+import com.example.Mutantes.service.engine.TiledDetectionEngine;
+import com.example.Mutantes.service.engine.UnrolledDetectionEngine;
+import com.example.Mutantes.validator.PreparedDna;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeSet;
 
 /**
  * Servicio optimizado para detección de mutantes mediante análisis de secuencias de ADN.
@@ -13,6 +34,34 @@ import java.util.Set;
  * - Space O(1): No usa estructuras auxiliares dinámicas
  * - Time O(N²) en el peor caso, pero optimizado con boundary checking
  *
+ * La validación y conversión de la entrada se hace aquí: el ADN se trabaja
+ * como bytes US-ASCII en un único buffer plano con stride (los String[]
+ * pasan por un adaptador) y las bases se validan con la tabla de 256
+ * entradas del perfil de reglas activo ({@link DetectionRules}). El recorrido de la matriz se delega a un {@link DetectionEngine} seleccionado con la propiedad
+ * {@code mutant.detector.engine} (scalar por defecto; bitboard, runlength
+ * y vector opcionales para comparación A/B). Las matrices con N mayor o igual
+ * a {@code mutant.detector.parallel-threshold} se procesan con el motor
+ * fork/join paralelo y, si {@code mutant.detector.unrolled} está activo, las
+ * de N entre 4 y 16 con los detectores desenrollados generados en el build
+ * ({@link UnrolledDetectionEngine}). Con {@code mutant.detector.lookup-table}
+ * las de N <= 8 se resuelven por tablas precalculadas
+ * ({@link LookupTableDetectionEngine}).
+ *
+ * Con {@code mutant.detector.engine=adaptive} los motores se calibran al
+ * iniciar ({@link AdaptiveDetectionEngine}) y cada matriz se despacha por N
+ * según los puntos de cruce medidos en esta máquina; en ese modo no se
+ * aplican los umbrales fijos anteriores. La selección vigente se consulta con
+ * {@link #getEngineRanges()}.
+ * Todos los motores retornan exactamente los mismos resultados.
+ *
+ * Las reglas (longitud de secuencia, umbral, alfabeto y direcciones) se
+ * configuran con {@code mutant.detector.rules.*}. El perfil por defecto
+ * (4 / 2 / ATCG / todas las direcciones) usa los motores especializados en
+ * constantes; cualquier otro perfil usa el detector generado para su K y sus
+ * direcciones ({@link ProfileDetectors}, o el motor genérico
+ * {@link RuleProfileEngine} si K queda fuera del rango generado) y se procesa
+ * siempre en forma secuencial.
+ *
  * @author Sistema de Detección de Mutantes
  * @version 1.0
  */
@@ -20,32 +69,209 @@ import java.util.Set;
 public class MutantDetector {
 
     /**
-     * Set estático para validación rápida de caracteres válidos en O(1).
-     * Contiene únicamente las bases nitrogenadas válidas del ADN.
+     * Longitud de secuencia requerida para considerar un patrón mutante.
      */
-    private static final Set<Character> VALID_BASES = Set.of('A', 'T', 'C', 'G');
+    public static final int SEQUENCE_LENGTH = 4;
 
     /**
-     * Longitud de secuencia requerida para considerar un patrón mutante.
+     * Número mínimo de secuencias mutantes requeridas para clasificar como mutante.
      */
-    private static final int SEQUENCE_LENGTH = 4;
+    public static final int MUTANT_THRESHOLD = 2;
 
     /**
-     * Número mínimo de secuencias mutantes requeridas para clasificar como mutante.
+     * Tamaño (N) a partir del cual se usa el motor paralelo por defecto.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Motor que recorre la matriz validada en busca de secuencias.
+     */
+    private final DetectionEngine engine;
+
+    /**
+     * Motor fork/join usado para matrices de tamaño >= parallelThreshold.
+     */
+    private final DetectionEngine parallelEngine = new ParallelDetectionEngine();
+
+    /**
+     * Detectores desenrollados para N de 4 a 16; null si están deshabilitados.
+     */
+    private final DetectionEngine unrolledEngine;
+
+    /**
+     * Motor por tablas para N <= 8; null si está deshabilitado.
+     */
+    private final DetectionEngine lookupEngine;
+
+    /**
+     * Tamaño (N) a partir del cual se usa el motor paralelo; <= 0 lo deshabilita.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * Buffer plano reutilizado por hilo para la copia de la matriz: el camino
+     * caliente no asigna memoria por petición una vez que el buffer alcanzó
+     * el N más grande visto (hasta el tope configurado).
+     */
+    private final ThreadLocalScratch scratch;
+
+    /**
+     * Perfil de reglas activo: define el alfabeto válido y el umbral de mutante.
+     */
+    private final DetectionRules rules;
+
+    /**
+     * Secuencias necesarias para clasificar como mutante según el perfil activo.
+     */
+    private final int mutantThreshold;
+
+    /**
+     * Crea un detector con el motor escalar por defecto y los detectores
+     * desenrollados para matrices pequeñas.
+     */
+    public MutantDetector() {
+        this(ScalarDetectionEngine.NAME, DEFAULT_PARALLEL_THRESHOLD, ThreadLocalScratch.DEFAULT_MAX_ELEMENTS);
+    }
+
+    /**
+     * Crea un detector con el motor, el umbral paralelo y el tope del buffer
+     * reutilizable indicados por configuración.
+     *
+     * @param engineName Nombre del motor (scalar, bitboard, runlength, vector, unrolled, lookup, tiled)
+     * @param parallelThreshold Tamaño N a partir del cual se usa el motor paralelo (<= 0 deshabilita)
+     * @param scratchMaxCells Celdas máximas (N²) que se retienen por hilo en el buffer reutilizable
+     */
+    public MutantDetector(String engineName, int parallelThreshold, int scratchMaxCells) {
+        this(engineName, parallelThreshold, scratchMaxCells, true, false, TiledDetectionEngine.DEFAULT_TILE_SIZE,
+             DetectionRules.DEFAULT);
+    }
+
+    /**
+     * Crea un detector a partir de la configuración, incluido el perfil de reglas.
+     *
+     * Con el perfil por defecto se usa el motor indicado por nombre; con
+     * cualquier otro perfil el nombre se ignora y se usa el detector generado
+     * para el perfil ({@link DetectionEngines#forRules(DetectionRules, String, int)}).
+     *
+     * @param engineName Nombre del motor (scalar, bitboard, runlength, vector, unrolled, lookup, tiled, adaptive)
+     * @param parallelThreshold Tamaño N a partir del cual se usa el motor paralelo (<= 0 deshabilita)
+     * @param scratchMaxCells Celdas máximas (N²) que se retienen por hilo en el buffer reutilizable
+     * @param unrolled Si las matrices de N entre 4 y 16 usan los detectores desenrollados
+     * @param lookupTable Si las matrices de N <= 8 usan el motor por tablas
+     * @param tileSize Lado de bloque del motor tiled
+     * @param rules Perfil de reglas de detección
+     */
+    @Autowired
+    public MutantDetector(@Value("${mutant.detector.engine:scalar}") String engineName,
+                          @Value("${mutant.detector.parallel-threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}")
+                          int parallelThreshold,
+                          @Value("${mutant.detector.scratch-max-cells:" + ThreadLocalScratch.DEFAULT_MAX_ELEMENTS + "}")
+                          int scratchMaxCells,
+                          @Value("${mutant.detector.unrolled:true}") boolean unrolled,
+                          @Value("${mutant.detector.lookup-table:false}") boolean lookupTable,
+                          @Value("${mutant.detector.tile-size:" + TiledDetectionEngine.DEFAULT_TILE_SIZE + "}")
+                          int tileSize,
+                          DetectionRules rules) {
+        this(DetectionEngines.forRules(rules, engineName, tileSize), parallelThreshold, scratchMaxCells, rules,
+             unrolled, lookupTable);
+    }
+
+    /**
+     * Crea un detector para un perfil de reglas con el motor que le corresponde.
+     *
+     * @param rules Perfil de reglas de detección
+     */
+    public MutantDetector(DetectionRules rules) {
+        this(ScalarDetectionEngine.NAME, DEFAULT_PARALLEL_THRESHOLD, ThreadLocalScratch.DEFAULT_MAX_ELEMENTS,
+             true, false, TiledDetectionEngine.DEFAULT_TILE_SIZE, rules);
+    }
+
+    /**
+     * Crea un detector con un motor específico y el umbral paralelo por defecto.
+     *
+     * @param engine Motor de detección a utilizar
+     */
+    public MutantDetector(DetectionEngine engine) {
+        this(engine, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Crea un detector con un motor específico.
+     *
+     * @param engine Motor de detección a utilizar para matrices pequeñas y medianas
+     * @param parallelThreshold Tamaño N a partir del cual se usa el motor paralelo (<= 0 deshabilita)
+     */
+    public MutantDetector(DetectionEngine engine, int parallelThreshold) {
+        this(engine, parallelThreshold, ThreadLocalScratch.DEFAULT_MAX_ELEMENTS);
+    }
+
+    /**
+     * Crea un detector con un motor específico y un tope para el buffer reutilizable.
+     *
+     * @param engine Motor de detección a utilizar para matrices pequeñas y medianas
+     * @param parallelThreshold Tamaño N a partir del cual se usa el motor paralelo (<= 0 deshabilita)
+     * @param scratchMaxCells Celdas máximas (N²) que se retienen por hilo en el buffer reutilizable
      */
-    private static final int MUTANT_THRESHOLD = 2;
+    public MutantDetector(DetectionEngine engine, int parallelThreshold, int scratchMaxCells) {
+        this(engine, parallelThreshold, scratchMaxCells, DetectionRules.DEFAULT);
+    }
+
+    /**
+     * Crea un detector con un motor y un perfil de reglas específicos.
+     *
+     * El motor paralelo sólo conoce el perfil por defecto, por lo que se
+     * deshabilita para cualquier otro perfil.
+     *
+     * @param engine Motor de detección compatible con el perfil
+     * @param parallelThreshold Tamaño N a partir del cual se usa el motor paralelo (<= 0 deshabilita)
+     * @param scratchMaxCells Celdas máximas (N²) que se retienen por hilo en el buffer reutilizable
+     * @param rules Perfil de reglas de detección
+     */
+    public MutantDetector(DetectionEngine engine, int parallelThreshold, int scratchMaxCells, DetectionRules rules) {
+        this(engine, parallelThreshold, scratchMaxCells, rules, false, false);
+    }
+
+    /**
+     * Crea un detector con un motor, un perfil de reglas y, opcionalmente,
+     * los caminos rápidos para matrices pequeñas: tablas para N <= 8 y
+     * detectores desenrollados para N de 4 a 16 (las tablas tienen prioridad).
+     *
+     * Ambos caminos sólo conocen el perfil por defecto: con cualquier otro
+     * perfil se ignoran. Con un motor adaptativo también se ignoran, igual
+     * que el umbral paralelo, porque la calibración ya eligió el motor por N.
+     *
+     * @param engine Motor de detección compatible con el perfil
+     * @param parallelThreshold Tamaño N a partir del cual se usa el motor paralelo (<= 0 deshabilita)
+     * @param scratchMaxCells Celdas máximas (N²) que se retienen por hilo en el buffer reutilizable
+     * @param rules Perfil de reglas de detección
+     * @param unrolled Si las matrices de N entre 4 y 16 usan los detectores desenrollados
+     * @param lookupTable Si las matrices de N <= 8 usan el motor por tablas
+     */
+    public MutantDetector(DetectionEngine engine, int parallelThreshold, int scratchMaxCells,
+                          DetectionRules rules, boolean unrolled, boolean lookupTable) {
+        boolean fixedRouting = rules.isDefault() && !(engine instanceof AdaptiveDetectionEngine);
+        this.engine = engine;
+        this.unrolledEngine = unrolled && fixedRouting ? new UnrolledDetectionEngine() : null;
+        this.lookupEngine = lookupTable && fixedRouting ? new LookupTableDetectionEngine() : null;
+        this.parallelThreshold = fixedRouting ? parallelThreshold : 0;
+        this.scratch = new ThreadLocalScratch(scratchMaxCells);
+        this.rules = rules;
+        this.mutantThreshold = rules.getMutantThreshold();
+    }
 
     /**
      * Determina si un ADN pertenece a un mutante.
      *
      * Un humano es considerado mutante si tiene MÁS DE UNA secuencia de 4 letras
      * idénticas consecutivas en cualquier dirección (horizontal, vertical, diagonal).
+     * Con un perfil de reglas personalizado se usan su longitud, umbral,
+     * alfabeto y direcciones.
      *
      * Optimizaciones implementadas:
      * - Early Termination: Retorna true inmediatamente al encontrar 2 secuencias
-     * - Conversión a char[][] para acceso O(1)
-     * - Boundary checking para evitar búsquedas innecesarias
-     * - Single pass con verificación de múltiples direcciones por celda
+     * - Conversión a un único buffer plano de bytes US-ASCII (adaptador de String[])
+     * - Recorrido delegado al motor configurado (escalar, bitboard, run-length o vector)
+     *   o, para N de 4 a 16, a los detectores desenrollados
      *
      * @param dna Array de Strings representando cada fila del ADN (NxN)
      * @return true si es mutante (>1 secuencia), false en caso contrario
@@ -59,6 +285,169 @@ public class MutantDetector {
 
         int n = dna.length;
 
+        // VALIDACIÓN 2 y 3: Matriz NxN con solo caracteres válidos, copiada a bytes
+        byte[] cells = toCells(dna);
+
+        // OPTIMIZACIÓN 2: Early Termination delegada al motor
+        // El motor se detiene en cuanto encuentra mutantThreshold secuencias
+        return engineFor(n).countSequences(cells, 0, n, n, mutantThreshold) >= mutantThreshold;
+    }
+
+    /**
+     * Determina si un ADN ya preparado pertenece a un mutante.
+     *
+     * El ADN ya fue validado y codificado al prepararlo (una sola pasada
+     * compartida con el validador y el servicio): las celdas se pasan
+     * directamente al motor, sin validar ni copiar. Sólo si se preparó con un
+     * alfabeto que este perfil no acepta completo se validan contra él.
+     *
+     * @param dna ADN validado, codificado y con su huella
+     * @return true si es mutante, false en caso contrario
+     * @throws IllegalArgumentException si el ADN tiene bases fuera del alfabeto del perfil
+     */
+    public boolean isMutant(PreparedDna dna) {
+        int n = dna.getN();
+        byte[] cells = dna.cells();
+        if (!rules.acceptsAlphabetOf(dna.getRules())) {
+            validateCells(cells, 0, n, n);
+        }
+        return engineFor(n).countSequences(cells, 0, n, n, mutantThreshold) >= mutantThreshold;
+    }
+
+    /**
+     * Determina si un ADN pertenece a un mutante a partir de bytes US-ASCII.
+     *
+     * La celda (i, j) está en {@code data[offset + i * stride + j]}; el stride
+     * permite analizar la matriz directamente sobre un buffer más grande (por
+     * ejemplo, el cuerpo de la petición) sin copiarla.
+     *
+     * @param data Buffer con las bases en US-ASCII
+     * @param offset Posición de la celda (0, 0)
+     * @param n Tamaño de la matriz (NxN)
+     * @param stride Distancia en bytes entre el inicio de dos filas (>= n)
+     * @return true si es mutante (>1 secuencia), false en caso contrario
+     * @throws IllegalArgumentException si las dimensiones no caben en el buffer o hay bases inválidas
+     */
+    public boolean isMutant(byte[] data, int offset, int n, int stride) {
+        if (n == 0) {
+            return false;
+        }
+        validateCells(data, offset, n, stride);
+        return engineFor(n).countSequences(data, offset, n, stride, mutantThreshold) >= mutantThreshold;
+    }
+
+    /**
+     * Determina si un ADN pertenece a un mutante a partir de un ByteBuffer.
+     *
+     * La matriz empieza en la posición actual del buffer (que no se modifica).
+     * Si el buffer no tiene arreglo accesible (por ejemplo, es directo) las
+     * filas se copian al buffer reutilizable del hilo.
+     *
+     * @param buffer Buffer con las bases en US-ASCII
+     * @param n Tamaño de la matriz (NxN)
+     * @param stride Distancia en bytes entre el inicio de dos filas (>= n)
+     * @return true si es mutante (>1 secuencia), false en caso contrario
+     */
+    public boolean isMutant(ByteBuffer buffer, int n, int stride) {
+        if (buffer.hasArray()) {
+            return isMutant(buffer.array(), buffer.arrayOffset() + buffer.position(), n, stride);
+        }
+        byte[] copy = scratch.bytes(n * n);
+        for (int i = 0; i < n; i++) {
+            buffer.get(buffer.position() + i * stride, copy, i * n, n);
+        }
+        return isMutant(copy, 0, n, n);
+    }
+
+    /**
+     * Determina qué matrices de un lote pertenecen a mutantes.
+     *
+     * Con el perfil por defecto el lote se analiza completo con
+     * {@link BatchDetectionKernel}: cada celda inicial y dirección se evalúa
+     * una vez para todas las matrices, 8 matrices por palabra de 64 bits y
+     * sin saltos sobre la dimensión del lote. Con otro perfil se analiza
+     * matriz por matriz.
+     *
+     * El resultado de cada matriz es idéntico al de {@link #isMutant(String[])}.
+     *
+     * @param batch Lote de matrices NxN
+     * @return Bit b encendido si la matriz b es mutante
+     * @throws IllegalArgumentException si alguna matriz contiene bases inválidas
+     */
+    public BitSet isMutantBatch(DnaBatch batch) {
+        int size = batch.size();
+        int n = batch.getN();
+        BitSet mutants = new BitSet(size);
+        if (size == 0) {
+            return mutants;
+        }
+
+        // VALIDACIÓN: una pasada secuencial sobre todo el buffer del lote
+        validateBatch(batch);
+
+        if (rules.isDefault()) {
+            int[] counts = scratch.ints(size);
+            long[] pending = scratch.longs(BatchDetectionKernel.words(size));
+            BatchDetectionKernel.countSequences(batch.cells(), n, batch.lanes(), size, mutantThreshold,
+                counts, pending);
+            for (int b = 0; b < size; b++) {
+                if (counts[b] >= mutantThreshold) {
+                    mutants.set(b);
+                }
+            }
+            return mutants;
+        }
+
+        // Perfil personalizado: el kernel sólo conoce secuencias de 4 en las 4 direcciones
+        byte[] cells = scratch.bytes(n * n);
+        DetectionEngine matrixEngine = engineFor(n);
+        for (int b = 0; b < size; b++) {
+            batch.copyTo(b, cells);
+            if (matrixEngine.countSequences(cells, 0, n, n, mutantThreshold) >= mutantThreshold) {
+                mutants.set(b);
+            }
+        }
+        return mutants;
+    }
+
+    /**
+     * Valida las bases de todas las matrices de un lote.
+     */
+    private void validateBatch(DnaBatch batch) {
+        byte[] cells = batch.cells();
+        int n = batch.getN();
+        int lanes = batch.lanes();
+        int size = batch.size();
+        for (int c = 0; c < n * n; c++) {
+            int at = c * lanes;
+            // Sin saltos por matriz: sólo se busca la posición si la celda falla en alguna
+            boolean valid = true;
+            for (int b = 0; b < size; b++) {
+                valid &= rules.isValid(cells[at + b]);
+            }
+            if (valid) {
+                continue;
+            }
+            for (int b = 0; b < size; b++) {
+                byte base = cells[at + b];
+                if (!rules.isValid(base)) {
+                    throw new IllegalArgumentException(
+                        "Carácter inválido encontrado en la matriz " + b + " del lote, posición ["
+                        + (c / n) + "][" + (c % n) + "]: '" + (char) (base & 0xFF)
+                        + "'. Solo se permiten: " + rules.describeAlphabet()
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Adaptador de String[] al buffer plano de bytes: valida que la matriz sea
+     * NxN y que solo contenga bases del alfabeto mientras copia cada celda.
+     */
+    private byte[] toCells(String[] dna) {
+        int n = dna.length;
+
         // VALIDACIÓN 2: Matriz debe ser NxN (cuadrada)
         // También validamos que ninguna fila sea null o tenga longitud incorrecta
         for (String row : dna) {
@@ -69,125 +458,165 @@ public class MutantDetector {
             }
         }
 
-        // OPTIMIZACIÓN 1: Conversión a char[][] para acceso O(1)
-        // Evita el overhead de String.charAt() en cada acceso
-        char[][] matrix = new char[n][n];
+        // OPTIMIZACIÓN 1: Un único buffer plano de bytes (fila i en [i * n, i * n + n)),
+        // reutilizado por hilo para no asignar N + 1 objetos por petición
+        byte[] cells = scratch.bytes(n * n);
 
-        // VALIDACIÓN 3: Solo caracteres válidos (A, T, C, G)
+        // VALIDACIÓN 3: Solo caracteres del alfabeto (A, T, C, G por defecto) con tabla de 256 entradas
         // Se valida durante la conversión para no hacer múltiples pasadas
         for (int i = 0; i < n; i++) {
+            String row = dna[i];
+            int rowStart = i * n;
             for (int j = 0; j < n; j++) {
-                char base = dna[i].charAt(j);
-                if (!VALID_BASES.contains(base)) {
-                    throw new IllegalArgumentException(
-                        "Carácter inválido encontrado en posición [" + i + "][" + j + "]: '" + base +
-                        "'. Solo se permiten: A, T, C, G"
-                    );
+                char base = row.charAt(j);
+                if (!rules.isValid(base)) {
+                    throw invalidBase(i, j, base);
                 }
-                matrix[i][j] = base;
+                cells[rowStart + j] = (byte) base;
             }
         }
+        return cells;
+    }
 
-        // OPTIMIZACIÓN 2: Contador para Early Termination
-        // En cuanto sequenceCount > 1, retornamos true inmediatamente
-        int sequenceCount = 0;
-
-        // OPTIMIZACIÓN 3: Single Pass Algorithm
-        // Recorremos la matriz una sola vez, verificando todas las direcciones posibles
-        // desde cada celda con boundary checking
+    /**
+     * Valida dimensiones y bases de una matriz recibida como bytes.
+     */
+    private void validateCells(byte[] data, int offset, int n, int stride) {
+        if (n < 0 || stride < n || offset < 0
+                || (n > 0 && (long) offset + (long) (n - 1) * stride + n > data.length)) {
+            throw new IllegalArgumentException(
+                "La matriz de ADN debe ser cuadrada (NxN) y caber en el buffer. Tamaño: " + n
+                + ", stride: " + stride + ", buffer: " + data.length
+            );
+        }
         for (int i = 0; i < n; i++) {
+            int rowStart = offset + i * stride;
             for (int j = 0; j < n; j++) {
-                char currentBase = matrix[i][j];
-
-                // DIRECCIÓN 1: HORIZONTAL (→)
-                // Boundary Check: Solo buscar si quedan al menos 4 columnas
-                if (j <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, i, j, 0, 1, currentBase)) {
-                        sequenceCount++;
-                        // EARLY TERMINATION: Retornar inmediatamente al encontrar 2da secuencia
-                        if (sequenceCount >= MUTANT_THRESHOLD) {
-                            return true;
-                        }
-                    }
-                }
-
-                // DIRECCIÓN 2: VERTICAL (↓)
-                // Boundary Check: Solo buscar si quedan al menos 4 filas
-                if (i <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, i, j, 1, 0, currentBase)) {
-                        sequenceCount++;
-                        // EARLY TERMINATION
-                        if (sequenceCount >= MUTANT_THRESHOLD) {
-                            return true;
-                        }
-                    }
+                byte base = data[rowStart + j];
+                if (!rules.isValid(base)) {
+                    throw invalidBase(i, j, (char) (base & 0xFF));
                 }
+            }
+        }
+    }
 
-                // DIRECCIÓN 3: DIAGONAL PRINCIPAL (↘)
-                // Boundary Check: Solo buscar si quedan al menos 4 filas Y 4 columnas
-                if (i <= n - SEQUENCE_LENGTH && j <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, i, j, 1, 1, currentBase)) {
-                        sequenceCount++;
-                        // EARLY TERMINATION
-                        if (sequenceCount >= MUTANT_THRESHOLD) {
-                            return true;
-                        }
-                    }
-                }
+    private IllegalArgumentException invalidBase(int i, int j, char base) {
+        return new IllegalArgumentException(
+            "Carácter inválido encontrado en posición [" + i + "][" + j + "]: '" + base +
+            "'. Solo se permiten: " + rules.describeAlphabet()
+        );
+    }
 
-                // DIRECCIÓN 4: DIAGONAL INVERTIDA (↙)
-                // Boundary Check: Solo buscar si quedan al menos 4 filas Y hay al menos 3 columnas previas
-                if (i <= n - SEQUENCE_LENGTH && j >= SEQUENCE_LENGTH - 1) {
-                    if (checkSequence(matrix, i, j, 1, -1, currentBase)) {
-                        sequenceCount++;
-                        // EARLY TERMINATION
-                        if (sequenceCount >= MUTANT_THRESHOLD) {
-                            return true;
-                        }
-                    }
-                }
-            }
+    /**
+     * Selecciona el motor según el tamaño: las matrices de N <= 8 usan las
+     * tablas y las de N entre 4 y 16 los detectores desenrollados (si están
+     * habilitados); las de N >= parallelThreshold se reparten en franjas
+     * sobre el ForkJoinPool común.
+     */
+    private DetectionEngine engineFor(int n) {
+        if (lookupEngine != null && LookupTableDetectionEngine.supports(n)) {
+            return lookupEngine;
+        }
+        if (unrolledEngine != null && UnrolledDetectionEngine.supports(n)) {
+            return unrolledEngine;
         }
+        if (parallelThreshold > 0 && n >= parallelThreshold) {
+            return parallelEngine;
+        }
+        return engine;
+    }
+
+    /**
+     * Indica si el resultado es el mismo para las 8 rotaciones y reflejos de
+     * una matriz y para los 24 reetiquetados de A, T, C y G, de modo que la
+     * huella canónica ({@link PreparedDna#getCanonicalFingerprint()}) sirve
+     * como clave de caché.
+     *
+     * Requiere un perfil simétrico ({@link DetectionRules#isSymmetric()}) cuyo
+     * alfabeto sea exactamente A, T, C, G: si faltara alguna, un reetiquetado
+     * podría convertir un ADN inválido en uno válido, y las bases fuera de
+     * A, T, C, G no tienen forma canónica.
+     *
+     * @return true si las variantes equivalentes tienen siempre el mismo resultado
+     */
+    public boolean isSymmetryInvariant() {
+        return rules.hasDefaultAlphabet() && rules.isSymmetric();
+    }
+
+    /**
+     * Perfil de reglas del detector, el mismo con el que se prepara el ADN.
+     *
+     * @return Perfil de reglas activo
+     */
+    public DetectionRules getRules() {
+        return rules;
+    }
 
-        // Si terminamos el recorrido sin encontrar 2 o más secuencias, no es mutante
-        return false;
+    /**
+     * Motor configurado (el adaptativo, si se calibró al iniciar).
+     *
+     * @return Motor principal del detector
+     */
+    public DetectionEngine getEngine() {
+        return engine;
     }
 
     /**
-     * Verifica si existe una secuencia de 4 caracteres idénticos en una dirección específica.
+     * Motor que resuelve cada rango de tamaños, para saber qué camino toma una
+     * petición según su N.
      *
-     * OPTIMIZACIÓN: Método inline-friendly con complejidad O(1) ya que siempre verifica
-     * exactamente 4 caracteres. No usa bucles dinámicos para mejor performance.
+     * Con el motor adaptativo son los rangos calibrados; en otro caso se
+     * derivan de los umbrales fijos (tablas, desenrollados y paralelo).
      *
-     * @param matrix Matriz de caracteres del ADN
-     * @param startRow Fila inicial
-     * @param startCol Columna inicial
-     * @param rowDir Dirección en filas (-1, 0, 1)
-     * @param colDir Dirección en columnas (-1, 0, 1)
-     * @param expectedBase Carácter base esperado en la secuencia
-     * @return true si se encuentra una secuencia válida de 4 caracteres idénticos
+     * @return Rangos contiguos desde N=1 hasta el infinito
      */
-    private boolean checkSequence(char[][] matrix, int startRow, int startCol,
-                                   int rowDir, int colDir, char expectedBase) {
-        // OPTIMIZACIÓN: Desenrollado de bucle (loop unrolling) para mejor performance
-        // Verificamos exactamente 4 posiciones sin overhead de iteración
+    public List<EngineRange> getEngineRanges() {
+        if (engine instanceof AdaptiveDetectionEngine) {
+            return ((AdaptiveDetectionEngine) engine).getRanges();
+        }
 
-        // Posición 1 ya verificada (es expectedBase por definición)
-        // Posición 2
-        if (matrix[startRow + rowDir][startCol + colDir] != expectedBase) {
-            return false;
+        // Tamaños donde puede cambiar el motor elegido por engineFor
+        TreeSet<Integer> bounds = new TreeSet<>();
+        bounds.add(1);
+        if (lookupEngine != null) {
+            bounds.add(LookupTableDetectionEngine.MAX_SIZE + 1);
         }
-        // Posición 3
-        if (matrix[startRow + 2 * rowDir][startCol + 2 * colDir] != expectedBase) {
-            return false;
+        if (unrolledEngine != null) {
+            bounds.add(UnrolledDetectionEngine.MIN_SIZE);
+            bounds.add(UnrolledDetectionEngine.MAX_SIZE + 1);
         }
-        // Posición 4
-        if (matrix[startRow + 3 * rowDir][startCol + 3 * colDir] != expectedBase) {
-            return false;
+        if (parallelThreshold > 0) {
+            bounds.add(parallelThreshold);
         }
 
-        // Si todas las 4 posiciones tienen el mismo carácter, es una secuencia válida
-        return true;
+        List<EngineRange> ranges = new ArrayList<>();
+        Integer[] starts = bounds.toArray(new Integer[0]);
+        for (int k = 0; k < starts.length; k++) {
+            int from = starts[k];
+            int to = k + 1 < starts.length ? starts[k + 1] - 1 : Integer.MAX_VALUE;
+            String name = engineFor(from).name();
+            int last = ranges.size() - 1;
+            if (last >= 0 && ranges.get(last).getEngine().equals(name)) {
+                ranges.set(last, new EngineRange(ranges.get(last).getFromSize(), to, name));
+            } else {
+                ranges.add(new EngineRange(from, to, name));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Abre un análisis incremental fila por fila para una matriz NxN.
+     *
+     * Útil para matrices enormes: mantiene O(N) en memoria y decide
+     * "mutante" en cuanto aparece la secuencia número T, sin esperar el resto.
+     * Usa el mismo perfil de reglas que este detector.
+     *
+     * @param n Tamaño de la matriz
+     * @return Detector incremental para alimentar con feedRow(...)
+     */
+    public StreamingMutantDetector openStream(int n) {
+        return new StreamingMutantDetector(n, rules);
     }
 
     /**
@@ -203,58 +632,24 @@ public class MutantDetector {
         }
 
         int n = dna.length;
+        byte[] cells = toCells(dna);
+        return engineFor(n).countSequences(cells, 0, n, n, Integer.MAX_VALUE);
+    }
 
-        for (String row : dna) {
-            if (row == null || row.length() != n) {
-                throw new IllegalArgumentException("La matriz de ADN debe ser cuadrada (NxN)");
-            }
-        }
-
-        char[][] matrix = new char[n][n];
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                char base = dna[i].charAt(j);
-                if (!VALID_BASES.contains(base)) {
-                    throw new IllegalArgumentException("Carácter inválido: " + base);
-                }
-                matrix[i][j] = base;
-            }
-        }
-
-        int count = 0;
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                char currentBase = matrix[i][j];
-
-                if (j <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, i, j, 0, 1, currentBase)) {
-                        count++;
-                    }
-                }
-
-                if (i <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, i, j, 1, 0, currentBase)) {
-                        count++;
-                    }
-                }
-
-                if (i <= n - SEQUENCE_LENGTH && j <= n - SEQUENCE_LENGTH) {
-                    if (checkSequence(matrix, i, j, 1, 1, currentBase)) {
-                        count++;
-                    }
-                }
-
-                if (i <= n - SEQUENCE_LENGTH && j >= SEQUENCE_LENGTH - 1) {
-                    if (checkSequence(matrix, i, j, 1, -1, currentBase)) {
-                        count++;
-                    }
-                }
-            }
+    /**
+     * Cuenta el número total de secuencias mutantes de una matriz en bytes US-ASCII.
+     *
+     * @param data Buffer con las bases en US-ASCII
+     * @param offset Posición de la celda (0, 0)
+     * @param n Tamaño de la matriz (NxN)
+     * @param stride Distancia en bytes entre el inicio de dos filas (>= n)
+     * @return Número total de secuencias mutantes encontradas
+     */
+    public int countMutantSequences(byte[] data, int offset, int n, int stride) {
+        if (n == 0) {
+            return 0;
         }
-
-        return count;
+        validateCells(data, offset, n, stride);
+        return engineFor(n).countSequences(data, offset, n, stride, Integer.MAX_VALUE);
     }
 }
-
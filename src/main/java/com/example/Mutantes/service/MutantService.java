@@ -2,22 +2,41 @@ package com.example.Mutantes.service;
 
 import com.example.Mutantes.entity.DnaRecord;
 import com.example.Mutantes.repository.DnaRecordRepository;
+import com.example.Mutantes.validator.DnaFingerprint;
+import com.example.Mutantes.validator.PreparedDna;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Servicio principal para el análisis de ADN y detección de mutantes.
  *
  * Implementa la lógica de negocio del Nivel 3 con sistema de caché:
- * - Genera un hash único para cada secuencia de ADN
- * - Consulta primero la base de datos para evitar análisis duplicados
- * - Si no existe, analiza el ADN y guarda el resultado
+ * - Usa la huella única calculada al preparar el ADN ({@link PreparedDna})
+ * - Consulta primero la caché L1 en memoria ({@link DnaResultCache})
+ * - Con {@code mutant.fingerprint.canonical=true} usa la huella canónica, que
+ *   comparte un único registro entre las matrices rotadas, reflejadas o con
+ *   las bases reetiquetadas (siempre que el perfil de reglas lo permita)
+ * - Si no está, consulta la base de datos para evitar análisis duplicados,
+ *   salvo que el filtro de Bloom ({@link KnownFingerprints}) asegure que la
+ *   huella nunca se guardó
+ * - Si no existe, analiza el ADN y guarda el resultado con un único MERGE
+ *   (insert-if-absent), sin carrera entre la consulta y el INSERT, o en
+ *   segundo plano con el write-behind ({@link DnaRecordWriter})
+ * - Las peticiones concurrentes del mismo ADN comparten un único análisis
+ *   e INSERT (single-flight por huella)
+ * - Las cargas masivas ({@link #saveAllResults(List)}) se insertan en lotes
+ *   JDBC y actualizan los contadores de /stats y el filtro de Bloom
  *
  * Esta estrategia mejora significativamente el rendimiento al evitar
  * análisis repetidos de la misma secuencia de ADN.
@@ -26,115 +45,233 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MutantService {
 
+    private static final Logger log = LoggerFactory.getLogger(MutantService.class);
+
     private final MutantDetector mutantDetector;
     private final DnaRecordRepository dnaRecordRepository;
+    private final DnaResultCache resultCache;
+    private final KnownFingerprints knownFingerprints;
+    private final DnaRecordWriter recordWriter;
+    private final DnaCounters dnaCounters;
+
+    /**
+     * Análisis en curso por huella: las peticiones concurrentes del mismo ADN
+     * esperan el mismo resultado en lugar de competir por el INSERT.
+     */
+    private final ConcurrentMap<DnaFingerprint, CompletableFuture<Boolean>> inFlightCalls = new ConcurrentHashMap<>();
+
+    /**
+     * Usar la huella canónica como clave de caché. Se inyecta por campo para
+     * conservar el constructor de Lombok; sin Spring (tests unitarios) queda
+     * deshabilitada.
+     */
+    @Value("${mutant.fingerprint.canonical:true}")
+    private boolean canonicalFingerprint;
 
     /**
      * Analiza una secuencia de ADN y determina si pertenece a un mutante.
      *
-     * Implementa un sistema de caché basado en hash para optimizar el rendimiento:
-     *
-     * FLUJO DE EJECUCIÓN:
-     * 1. Genera un hash SHA-256 único del ADN
-     * 2. Consulta la base de datos por el hash
-     * 3. Si existe: Retorna el resultado cacheado (evita reprocesar)
-     * 4. Si no existe:
-     *    a. Ejecuta el algoritmo de detección
-     *    b. Persiste el resultado en la BD
-     *    c. Retorna el resultado
+     * Prepara el ADN en una sola pasada ({@link PreparedDna}), validando
+     * contra el alfabeto del perfil de reglas del detector, y delega en
+     * {@link #analyzeDna(PreparedDna)}.
      *
      * @param dna Array de Strings representando la secuencia de ADN (NxN)
      * @return true si es mutante, false si es humano
-     * @throws IllegalArgumentException si el ADN es inválido (propagado desde MutantDetector)
+     * @throws IllegalArgumentException si el ADN es inválido
      */
     public boolean analyzeDna(String[] dna) {
-        // PASO 1: Generar hash único del ADN
-        String dnaHash = calculateHash(dna);
+        return analyzeDna(PreparedDna.prepare(dna, mutantDetector.getRules()));
+    }
 
-        // PASO 2: Consultar caché (base de datos)
-        Optional<DnaRecord> existingRecord = dnaRecordRepository.findByDnaHash(dnaHash);
+    /**
+     * Analiza un ADN ya preparado y determina si pertenece a un mutante.
+     *
+     * Implementa un sistema de caché basado en huellas para optimizar el rendimiento:
+     *
+     * FLUJO DE EJECUCIÓN:
+     * 1. Toma la huella de 128 bits calculada al preparar el ADN (o la
+     *    canónica, compartida por las variantes equivalentes)
+     * 2. Consulta la caché L1 en memoria: si está, retorna sin ir a la BD
+     * 3. Si otro hilo ya está resolviendo la misma huella, espera su
+     *    resultado en lugar de repetir la consulta, la detección y el INSERT
+     * 4. Consulta la base de datos por la huella (sólo si el filtro de Bloom
+     *    no descarta que exista)
+     * 5. Si existe: lo guarda en la caché L1 y retorna el resultado (evita reprocesar)
+     * 6. Si no existe:
+     *    a. Ejecuta el algoritmo de detección sobre las celdas ya codificadas
+     *    b. Lo encola para escribirlo en segundo plano ({@link DnaRecordWriter})
+     *       o, si el write-behind no lo acepta, lo persiste con un
+     *       insert-if-absent atómico (MERGE); si la huella ya estaba guardada,
+     *       usa el resultado del registro existente
+     *    c. Lo guarda en la caché L1 y lo retorna
+     *
+     * @param dna ADN validado, codificado y con su huella
+     * @return true si es mutante, false si es humano
+     */
+    public boolean analyzeDna(PreparedDna dna) {
+        // PASO 1: Huella del ADN (canónica si las variantes equivalentes tienen el mismo resultado)
+        DnaFingerprint fingerprint = fingerprintOf(dna);
 
-        // PASO 3: Si existe en caché, retornar resultado sin procesar
-        if (existingRecord.isPresent()) {
-            return existingRecord.get().isMutant();
+        // PASO 2: Consultar caché L1 (memoria): sin ida y vuelta a la BD
+        Boolean cached = resultCache.get(fingerprint);
+        if (cached != null) {
+            return cached;
         }
 
-        // PASO 4: No existe en caché - Analizar el ADN
-        boolean isMutant = mutantDetector.isMutant(dna);
+        // PASO 3: SINGLE-FLIGHT - un solo hilo por huella resuelve; el resto espera su resultado
+        CompletableFuture<Boolean> call = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = inFlightCalls.putIfAbsent(fingerprint, call);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            boolean isMutant = lookupOrDetect(dna, fingerprint);
+            call.complete(isMutant);
+            return isMutant;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            // El resultado ya está en la caché L1: los que lleguen después no pasan por aquí
+            inFlightCalls.remove(fingerprint, call);
+        }
+    }
+
+    /**
+     * Consulta la base de datos y, si la huella no existe, detecta y persiste.
+     */
+    private boolean lookupOrDetect(PreparedDna dna, DnaFingerprint fingerprint) {
+        // PASO 4: Consultar caché (base de datos), salvo que el filtro de Bloom
+        // asegure que la huella nunca se guardó (el caso más común: ADN nuevo)
+        if (knownFingerprints.mightContain(fingerprint)) {
+            Optional<DnaRecord> existingRecord = dnaRecordRepository.findByFingerprint(fingerprint);
+
+            // PASO 5: Si existe en caché, retornar resultado sin procesar
+            if (existingRecord.isPresent()) {
+                boolean isMutant = existingRecord.get().isMutant();
+                resultCache.put(fingerprint, isMutant);
+                return isMutant;
+            }
+        }
 
-        // PASO 5: Persistir el resultado para futuros análisis
-        DnaRecord newRecord = DnaRecord.builder()
-                .dnaHash(dnaHash)
-                .isMutant(isMutant)
-                .build();
+        // PASO 6: No existe en caché - Analizar el ADN
+        boolean isMutant = mutantDetector.isMutant(dna);
 
-        dnaRecordRepository.save(newRecord);
+        // PASO 7: Persistir el resultado: en segundo plano si el write-behind lo acepta
+        // (la caché L1 lo hace visible de inmediato); si no, con un insert-if-absent
+        // atómico (MERGE) y, si la huella ya estaba (otra instancia la insertó), manda el registro guardado
+        if (!recordWriter.enqueue(fingerprint, isMutant)) {
+            if (insertIfAbsent(fingerprint, isMutant)) {
+                dnaCounters.recordInserted(isMutant);
+            } else {
+                Optional<DnaRecord> storedRecord = dnaRecordRepository.findByFingerprint(fingerprint);
+                if (storedRecord.isPresent()) {
+                    isMutant = storedRecord.get().isMutant();
+                }
+                log.debug("Huella {} ya guardada; se reutiliza el registro existente", fingerprint);
+            }
+        }
+        knownFingerprints.add(fingerprint);
+        resultCache.put(fingerprint, isMutant);
 
-        // PASO 6: Retornar el resultado
+        // PASO 8: Retornar el resultado
         return isMutant;
     }
 
     /**
-     * Calcula un hash SHA-256 único para una secuencia de ADN.
+     * Guarda en lotes resultados ya calculados (importaciones, reprocesos).
      *
-     * ESTRATEGIA:
-     * - Ordena el array para normalizar (evita duplicados por orden diferente)
-     * - Concatena todos los strings del array
-     * - Aplica SHA-256 para generar un hash de 64 caracteres hexadecimales
+     * Inserta con {@link DnaRecordRepository#saveAllInBatches(Iterable)} en una
+     * sola transacción y, una vez confirmada, suma los registros a los
+     * contadores de /stats y registra sus huellas en el filtro de Bloom, igual
+     * que el INSERT de cada análisis. Si la transacción falla no se cuenta
+     * nada. La caché L1 no se llena: la carga no indica qué ADN se va a pedir.
      *
-     * VENTAJAS DE SHA-256:
-     * - Longitud fija de 256 bits (64 caracteres hex)
-     * - Extremadamente baja probabilidad de colisiones
-     * - Rendimiento aceptable para strings de ADN típicos
+     * @param records Registros nuevos (huellas que todavía no están guardadas)
+     * @return Cantidad de registros insertados
+     * @throws org.springframework.dao.DataIntegrityViolationException si alguna huella ya existía
+     */
+    public int saveAllResults(List<DnaRecord> records) {
+        int saved = dnaRecordRepository.saveAllInBatches(records);
+
+        long mutants = 0;
+        for (DnaRecord record : records) {
+            if (record.isMutant()) {
+                mutants++;
+            }
+            knownFingerprints.add(record.getFingerprint());
+        }
+        dnaCounters.recordInserted(mutants, records.size() - mutants);
+        return saved;
+    }
+
+    /**
+     * Inserta el resultado si la huella no existe.
      *
-     * @param dna Array de Strings representando el ADN
-     * @return String hexadecimal de 64 caracteres representando el hash SHA-256
-     * @throws RuntimeException si el algoritmo SHA-256 no está disponible (muy raro)
+     * El MERGE resuelve en la base de datos la carrera contra otra instancia
+     * que ya insertó la huella. Si ambas la insertan a la vez, H2 (a
+     * diferencia de ON CONFLICT en PostgreSQL) puede rechazar la segunda por
+     * la restricción única: se trata igual que "ya existía" siempre que el
+     * registro esté efectivamente guardado.
+     *
+     * @return true si se insertó, false si la huella ya estaba guardada
      */
-    private String calculateHash(String[] dna) {
+    private boolean insertIfAbsent(DnaFingerprint fingerprint, boolean isMutant) {
         try {
-            // Normalizar: ordenar el array para que el mismo ADN siempre genere el mismo hash
-            // independientemente del orden de entrada
-            String[] sortedDna = Arrays.copyOf(dna, dna.length);
-            Arrays.sort(sortedDna);
-
-            // Concatenar todas las secuencias en un solo string
-            String concatenated = String.join("", sortedDna);
-
-            // Obtener instancia del algoritmo SHA-256
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-
-            // Calcular el hash
-            byte[] hashBytes = digest.digest(concatenated.getBytes(StandardCharsets.UTF_8));
-
-            // Convertir bytes a representación hexadecimal
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+            return dnaRecordRepository.insertIfAbsent(fingerprint, isMutant);
+        } catch (DataIntegrityViolationException e) {
+            if (dnaRecordRepository.findByFingerprint(fingerprint).isEmpty()) {
+                throw e;
             }
+            return false;
+        }
+    }
 
-            return hexString.toString();
-
-        } catch (NoSuchAlgorithmException e) {
-            // Esto nunca debería ocurrir ya que SHA-256 es un algoritmo estándar
-            // pero es necesario manejarlo por el contrato de MessageDigest.getInstance()
-            throw new RuntimeException("Error al calcular hash SHA-256: Algoritmo no disponible", e);
+    /**
+     * Espera el resultado de otro hilo; si falló, relanza la misma excepción.
+     */
+    private static boolean await(CompletableFuture<Boolean> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
         }
     }
 
     /**
-     * Método auxiliar para obtener el hash de un ADN sin procesarlo.
+     * Método auxiliar para obtener la huella de un ADN sin procesarlo.
      * Útil para testing y debugging.
      *
+     * Es la misma clave que usa la caché: la huella canónica si está habilitada
+     * (ver {@link PreparedDna#getCanonicalFingerprint()}), o la huella que
+     * conserva el orden de las filas. En ambos casos dos matrices con las
+     * mismas filas en distinto orden son ADN distintos y pueden tener
+     * resultados distintos.
+     *
      * @param dna Array de Strings representando el ADN
-     * @return Hash SHA-256 del ADN
+     * @return Huella de 128 bits del ADN
+     * @throws IllegalArgumentException si el ADN es inválido
      */
-    public String getDnaHash(String[] dna) {
-        return calculateHash(dna);
+    public DnaFingerprint getDnaFingerprint(String[] dna) {
+        return fingerprintOf(PreparedDna.prepare(dna, mutantDetector.getRules()));
     }
-}
 
+    /**
+     * Clave de caché del ADN: la huella canónica sólo si está habilitada y el
+     * detector da el mismo resultado para todas las variantes equivalentes.
+     */
+    private DnaFingerprint fingerprintOf(PreparedDna dna) {
+        if (canonicalFingerprint && mutantDetector.isSymmetryInvariant()) {
+            return dna.getCanonicalFingerprint();
+        }
+        return dna.getFingerprint();
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.validator.DnaFingerprint;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom escalable (Almeida et al., 2007) de huellas de ADN.
+ *
+ * Un filtro de Bloom nunca da falsos negativos: si responde "ausente", la
+ * huella no se agregó. Un filtro de tamaño fijo degrada su tasa de falsos
+ * positivos al superar la capacidad para la que se dimensionó; éste agrega
+ * segmentos a medida que crece:
+ * - el segmento i tiene capacidad {@code initialCapacity * 2^i}
+ * - y una tasa objetivo {@code fpp * (1 - r) * r^i} con r = 1/2
+ * así que la tasa de falsos positivos total (la suma de las de cada
+ * segmento) queda acotada por {@code fpp} sin importar cuántas huellas se
+ * agreguen, y la memoria crece linealmente con ellas.
+ *
+ * Las huellas ya son MurmurHash3 de 128 bits, uniformes: los k índices de
+ * cada segmento salen de sus dos mitades por doble hashing
+ * ({@code lo + i * hi}, Kirsch y Mitzenmacher) sin volver a hashear.
+ *
+ * Seguro para uso concurrente: los bits se encienden con CAS y sólo el
+ * crecimiento (una vez por duplicación de capacidad) toma un lock.
+ */
+public class ScalableBloomFilter {
+
+    /**
+     * Razón de ajuste de la tasa de falsos positivos entre segmentos.
+     */
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    /**
+     * Factor de crecimiento de la capacidad entre segmentos.
+     */
+    private static final int GROWTH_FACTOR = 2;
+
+    private final double fpp;
+    private final long initialCapacity;
+
+    /**
+     * Segmentos en orden de creación; sólo se agregan en el último.
+     * Se reemplaza el arreglo completo al crecer (copy-on-write).
+     */
+    private volatile Segment[] segments;
+
+    /**
+     * Crea un filtro vacío.
+     *
+     * @param initialCapacity Huellas que admite el primer segmento
+     * @param fpp Tasa de falsos positivos máxima, en (0, 1)
+     * @throws IllegalArgumentException si la capacidad no es positiva o la tasa está fuera de (0, 1)
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("La capacidad inicial debe ser positiva: " + initialCapacity);
+        }
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar en (0, 1): " + fpp);
+        }
+        this.fpp = fpp;
+        this.initialCapacity = initialCapacity;
+        this.segments = new Segment[] {new Segment(initialCapacity, fpp * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * Indica si la huella pudo haberse agregado.
+     *
+     * @param fingerprint Huella a consultar
+     * @return false si seguro no se agregó; true si se agregó o es un falso positivo
+     */
+    public boolean mightContain(DnaFingerprint fingerprint) {
+        long h1 = fingerprint.getLo();
+        long h2 = fingerprint.getHi() | 1;
+        for (Segment segment : segments) {
+            if (segment.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Agrega una huella. Las que el filtro ya reporta como presentes no se
+     * vuelven a agregar, para no consumir capacidad con duplicados.
+     *
+     * @param fingerprint Huella a agregar
+     */
+    public void add(DnaFingerprint fingerprint) {
+        if (mightContain(fingerprint)) {
+            return;
+        }
+        long h1 = fingerprint.getLo();
+        long h2 = fingerprint.getHi() | 1;
+        Segment[] current = segments;
+        Segment last = current[current.length - 1];
+        if (last.count.get() >= last.capacity) {
+            last = grow(last);
+        }
+        last.add(h1, h2);
+    }
+
+    /**
+     * Agrega un segmento si {@code full} sigue siendo el último.
+     */
+    private synchronized Segment grow(Segment full) {
+        Segment[] current = segments;
+        Segment last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        int index = current.length;
+        Segment next = new Segment(
+            full.capacity * GROWTH_FACTOR,
+            fpp * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, index)
+        );
+        Segment[] grown = new Segment[index + 1];
+        System.arraycopy(current, 0, grown, 0, index);
+        grown[index] = next;
+        segments = grown;
+        return next;
+    }
+
+    /**
+     * Huellas agregadas (sin contar las descartadas por parecer duplicadas).
+     *
+     * @return Cantidad de elementos en todos los segmentos
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count.get();
+        }
+        return size;
+    }
+
+    /**
+     * Memoria ocupada por los arreglos de bits.
+     *
+     * @return Bytes de todos los segmentos
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.words.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Tasa de falsos positivos estimada con la ocupación actual: la suma de
+     * (1 - e^(-k * n / m))^k de cada segmento.
+     *
+     * @return Probabilidad estimada de que una huella nueva parezca presente
+     */
+    public double expectedFpp() {
+        double total = 0;
+        for (Segment segment : segments) {
+            double fill = 1 - Math.exp(-(double) segment.hashes * segment.count.get() / segment.bits);
+            total += Math.pow(fill, segment.hashes);
+        }
+        return Math.min(total, 1.0);
+    }
+
+    /**
+     * Cantidad de segmentos creados.
+     *
+     * @return 1 + duplicaciones de capacidad
+     */
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Tasa de falsos positivos máxima configurada.
+     *
+     * @return Cota de la tasa total
+     */
+    public double getFpp() {
+        return fpp;
+    }
+
+    /**
+     * Capacidad del primer segmento.
+     *
+     * @return Huellas admitidas antes del primer crecimiento
+     */
+    public long getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    /**
+     * Filtro de Bloom de tamaño fijo dimensionado para {@code capacity}
+     * elementos con tasa {@code p}: k = ceil(-log2 p) funciones y los bits m
+     * que dan exactamente p con ese k entero, m = -k n / ln(1 - p^(1/k))
+     * (la fórmula habitual -n ln p / (ln 2)^2 supone k real y con k
+     * redondeado queda apenas por encima de p).
+     */
+    static final class Segment {
+        final long capacity;
+        final long bits;
+        final int hashes;
+        final AtomicLongArray words;
+        final AtomicLong count = new AtomicLong();
+
+        Segment(long capacity, double p) {
+            int k = Math.max(1, (int) Math.ceil(-Math.log(p) / Math.log(2)));
+            long m = (long) Math.ceil(-k * (double) capacity / Math.log(1 - Math.pow(p, 1.0 / k)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+            this.capacity = capacity;
+            this.bits = (long) wordCount << 6;
+            this.hashes = k;
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        void add(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0) {
+                    words.getAndAccumulate(word, mask, (current, set) -> current | set);
+                }
+                combined += h2;
+            }
+            count.incrementAndGet();
+        }
+    }
+}
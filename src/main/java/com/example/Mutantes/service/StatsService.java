@@ -1,10 +1,19 @@
 package com.example.Mutantes.service;
 
 import com.example.Mutantes.dto.StatsResponse;
-import com.example.Mutantes.repository.DnaRecordRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Servicio para la gestión y cálculo de estadísticas del sistema de detección de mutantes.
  *
@@ -14,12 +23,61 @@ import org.springframework.stereotype.Service;
  * - Ratio (proporción) de mutantes respecto a humanos
  *
  * Este servicio es fundamental para el endpoint /stats del Nivel 3 del examen.
+ *
+ * Los conteos salen de {@link DnaCounters}, que se mantienen en memoria en
+ * cada INSERT: leerlos es O(1), sin COUNT(*) sobre dna_records, así que el
+ * costo de /stats no crece con la tabla.
+ *
+ * La última respuesta se reutiliza durante {@code mutant.stats.max-age}: el
+ * cuerpo (y su ETag, ver MutantController) no cambia en ese lapso aunque
+ * lleguen INSERT, así que los clientes que consultan con If-None-Match
+ * reciben 304.
+ *
+ * Vencida, durante {@code mutant.stats.stale-while-revalidate} se sigue
+ * sirviendo la respuesta anterior y se recalcula en segundo plano, con un
+ * único hilo de refresco: las peticiones no esperan ni recalculan en
+ * paralelo. Pasada esa ventana (o con ella en 0) se recalcula en la misma
+ * petición.
  */
 @Service
 @RequiredArgsConstructor
 public class StatsService {
 
-    private final DnaRecordRepository dnaRecordRepository;
+    private static final Logger log = LoggerFactory.getLogger(StatsService.class);
+
+    private final DnaCounters dnaCounters;
+
+    /**
+     * Tiempo durante el que se reutiliza la última respuesta (0 = recalcular siempre).
+     */
+    @Value("${mutant.stats.max-age:0s}")
+    private Duration maxAge = Duration.ZERO;
+
+    /**
+     * Tiempo después de max-age durante el que se sirve la respuesta vencida
+     * mientras se recalcula en segundo plano (0 = recalcular en la petición).
+     */
+    @Value("${mutant.stats.stale-while-revalidate:0s}")
+    private Duration staleWhileRevalidate = Duration.ZERO;
+
+    /**
+     * Última respuesta calculada, o null si todavía no hay ninguna.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * true mientras hay un recálculo en segundo plano pendiente.
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * Hilo único de recálculo en segundo plano (el hilo se crea al primer uso).
+     */
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stats-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Obtiene las estadísticas actuales del sistema.
@@ -44,11 +102,69 @@ public class StatsService {
      * @return StatsResponse con las estadísticas actuales del sistema
      */
     public StatsResponse getStats() {
-        // Consultar cantidad de mutantes
-        long mutantCount = dnaRecordRepository.countByIsMutant(true);
+        // OPTIMIZACIÓN: reutilizar la respuesta mientras no venza max-age
+        Snapshot current = snapshot;
+        long now = System.nanoTime();
+        if (current != null) {
+            long age = now - current.takenAt();
+            if (age < maxAge.toNanos()) {
+                return current.response();
+            }
+            // OPTIMIZACIÓN: stale-while-revalidate - servir la vencida y recalcular en segundo plano
+            if (age < maxAge.toNanos() + staleWhileRevalidate.toNanos()) {
+                refreshAsync();
+                return current.response();
+            }
+        }
 
-        // Consultar cantidad de humanos
-        long humanCount = dnaRecordRepository.countByIsMutant(false);
+        StatsResponse response = computeStats();
+        if (!maxAge.isZero()) {
+            snapshot = new Snapshot(response, now);
+        }
+        return response;
+    }
+
+    /**
+     * Detiene el hilo de recálculo.
+     */
+    @PreDestroy
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Encola el recálculo de la respuesta, salvo que ya haya uno pendiente.
+     */
+    private void refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    long takenAt = System.nanoTime();
+                    snapshot = new Snapshot(computeStats(), takenAt);
+                } catch (RuntimeException e) {
+                    log.warn("No se pudieron recalcular las estadísticas", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Cerrándose: la próxima petición fuera de la ventana recalcula en línea
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Calcula las estadísticas a partir de los contadores.
+     */
+    private StatsResponse computeStats() {
+        // Leer cantidad de mutantes (contador en memoria, sin consultar la BD)
+        long mutantCount = dnaCounters.getMutantCount();
+
+        // Leer cantidad de humanos
+        long humanCount = dnaCounters.getHumanCount();
 
         // Calcular ratio con manejo de división por cero
         double ratio = calculateRatio(mutantCount, humanCount);
@@ -98,7 +214,7 @@ public class StatsService {
      * @return Cantidad total de mutantes detectados
      */
     public long getMutantCount() {
-        return dnaRecordRepository.countByIsMutant(true);
+        return dnaCounters.getMutantCount();
     }
 
     /**
@@ -108,7 +224,7 @@ public class StatsService {
      * @return Cantidad total de humanos detectados
      */
     public long getHumanCount() {
-        return dnaRecordRepository.countByIsMutant(false);
+        return dnaCounters.getHumanCount();
     }
 
     /**
@@ -118,7 +234,12 @@ public class StatsService {
      * @return Cantidad total de análisis de ADN realizados (mutantes + humanos)
      */
     public long getTotalAnalysisCount() {
-        return dnaRecordRepository.count();
+        return dnaCounters.getTotalCount();
     }
-}
 
+    /**
+     * Respuesta calculada y el instante ({@link System#nanoTime()}) en que se calculó.
+     */
+    private record Snapshot(StatsResponse response, long takenAt) {
+    }
+}
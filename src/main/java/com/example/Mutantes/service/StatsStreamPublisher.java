@@ -0,0 +1,375 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.dto.StatsResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publica las estadísticas por Server-Sent Events a los suscriptores de
+ * GET /stats/stream.
+ *
+ * Cada {@code mutant.stats.stream.interval} se leen las estadísticas una
+ * sola vez y, sólo si cambió algún conteo, se serializan a JSON una sola vez
+ * y el mismo evento se envía a todas las conexiones: el costo de calcular
+ * las estadísticas no depende de la cantidad de suscriptores, y los INSERT
+ * que llegan dentro de un intervalo se agrupan en un único evento.
+ *
+ * Las conexiones son {@link SseEmitter} (procesamiento asíncrono del
+ * servlet): mientras esperan el próximo evento no ocupan ningún hilo, así
+ * que miles de suscriptores inactivos sólo cuestan su socket y una entrada
+ * en {@link #subscribers}.
+ *
+ * La publicación corre en un hilo propio ("stats-stream-publisher") y no
+ * escribe en los sockets: reparte los envíos en un pool acotado de
+ * {@code mutant.stats.stream.send-threads} hilos. Un cliente lento sólo
+ * demora su propio envío; si tarda más de {@code mutant.stats.stream.send-timeout}
+ * se da de baja y EventSource se reconecta. Mientras un envío sigue en curso
+ * los eventos nuevos de esa conexión se reemplazan por el último, así que
+ * cada conexión tiene a lo sumo un envío en cola.
+ *
+ * Métricas: {@code mutant.stats.stream.subscribers} (conexiones abiertas),
+ * {@code mutant.stats.stream.events} (eventos publicados) y
+ * {@code mutant.stats.stream.dropped} (conexiones dadas de baja por lentas).
+ */
+@Component
+public class StatsStreamPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsStreamPublisher.class);
+
+    /**
+     * Nombre de los eventos SSE (campo "event:").
+     */
+    public static final String EVENT_NAME = "stats";
+
+    private final StatsService statsService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final Duration interval;
+    private final long sendTimeoutNanos;
+    private final Counter publishedEvents;
+    private final Counter droppedSubscribers;
+
+    /**
+     * Conexiones abiertas. Se recorre en cada publicación mientras se agregan
+     * y quitan suscriptores, sin copiar el mapa.
+     */
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Hilos que escriben los eventos en las conexiones. La cola no necesita
+     * límite propio: cada conexión encola a lo sumo un envío.
+     */
+    private final ThreadPoolExecutor sendExecutor;
+
+    /**
+     * Conexiones con un envío en cola o en curso; si es 0 no hace falta
+     * buscar envíos vencidos.
+     */
+    private final AtomicInteger pendingSends = new AtomicInteger();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Últimas estadísticas publicadas (sólo las usa el hilo del publicador).
+     */
+    private StatsResponse lastPublished;
+
+    /**
+     * Último evento publicado, ya serializado; se envía a cada suscriptor nuevo.
+     */
+    private volatile Set<DataWithMediaType> lastEvent;
+
+    /**
+     * Crea el publicador (detenido hasta {@link #start()}) y registra sus métricas.
+     *
+     * @param timeout Duración máxima de cada conexión (0 = sin límite); al
+     *                vencer se cierra y EventSource se reconecta solo
+     * @param interval Espera entre publicaciones
+     * @param sendThreads Hilos que escriben los eventos en las conexiones
+     * @param sendTimeout Espera máxima de un envío antes de dar de baja la conexión
+     * @param statsService Servicio de estadísticas
+     * @param objectMapper Serializador JSON de la aplicación
+     * @param meterRegistry Registro de métricas de la aplicación
+     */
+    public StatsStreamPublisher(@Value("${mutant.stats.stream.timeout:30m}") Duration timeout,
+                                @Value("${mutant.stats.stream.interval:1s}") Duration interval,
+                                @Value("${mutant.stats.stream.send-threads:4}") int sendThreads,
+                                @Value("${mutant.stats.stream.send-timeout:5s}") Duration sendTimeout,
+                                StatsService statsService,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("El timeout de /stats/stream no puede ser negativo: " + timeout);
+        }
+        if (interval.isNegative() || interval.isZero() || sendTimeout.isNegative() || sendTimeout.isZero()) {
+            throw new IllegalArgumentException(
+                    "El intervalo y el timeout de envío de /stats/stream deben ser positivos: " + interval + ", " + sendTimeout);
+        }
+        if (sendThreads < 1) {
+            throw new IllegalArgumentException("Los hilos de envío de /stats/stream deben ser positivos: " + sendThreads);
+        }
+        this.timeoutMillis = timeout.toMillis();
+        this.interval = interval;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.statsService = statsService;
+        this.objectMapper = objectMapper;
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("stats-stream-send-"));
+        this.publishedEvents = Counter.builder("mutant.stats.stream.events")
+                .description("Eventos de estadísticas publicados en /stats/stream")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("mutant.stats.stream.dropped")
+                .description("Conexiones de /stats/stream dadas de baja por no recibir un evento a tiempo")
+                .register(meterRegistry);
+        Gauge.builder("mutant.stats.stream.subscribers", subscribers, Map::size)
+                .description("Conexiones abiertas en /stats/stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arranca el hilo que publica cada {@code mutant.stats.stream.interval}.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("stats-stream-publisher"));
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                publish();
+            } catch (RuntimeException e) {
+                // Una excepción cancelaría las ejecuciones siguientes
+                log.error("Falló la publicación de /stats/stream", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene la publicación y los envíos pendientes.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Abre una suscripción y le envía el último evento publicado, para que
+     * el cliente no espere al próximo cambio para mostrar las estadísticas.
+     *
+     * @return Emisor que Spring MVC mantiene abierto sin ocupar un hilo
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter);
+        return emitter;
+    }
+
+    /**
+     * Agrega una conexión a los suscriptores y le encola el último evento.
+     */
+    void register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.put(emitter, subscriber);
+
+        Set<DataWithMediaType> event = lastEvent;
+        if (event != null) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Publica las estadísticas si cambiaron desde la última publicación.
+     *
+     * Se ejecuta cada {@code mutant.stats.stream.interval} aunque no haya
+     * suscriptores (leer los contadores es O(1)), para que {@link #lastEvent}
+     * esté al día cuando llegue uno. Antes da de baja las conexiones cuyo
+     * envío lleva más de {@code mutant.stats.stream.send-timeout}.
+     */
+    public void publish() {
+        dropStalledSubscribers();
+
+        StatsResponse stats = statsService.getStats();
+        if (lastPublished != null
+                && lastPublished.getCount_mutant_dna() == stats.getCount_mutant_dna()
+                && lastPublished.getCount_human_dna() == stats.getCount_human_dna()) {
+            return;
+        }
+
+        // PASO 1: serializar una sola vez para todos los suscriptores
+        Set<DataWithMediaType> event;
+        try {
+            event = SseEmitter.event()
+                    .id(stats.getCount_mutant_dna() + "-" + stats.getCount_human_dna())
+                    .name(EVENT_NAME)
+                    .data(objectMapper.writeValueAsString(stats), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("No se pudieron serializar las estadísticas para /stats/stream", e);
+            return;
+        }
+        lastPublished = stats;
+        lastEvent = event;
+        publishedEvents.increment();
+
+        // PASO 2: encolar el mismo evento para cada conexión (los envíos
+        // corren en sendExecutor, este hilo no escribe en ningún socket)
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Da de baja las conexiones cuyo envío en curso venció.
+     *
+     * No se completa el emisor desde este hilo: complete() espera a que
+     * termine el send() bloqueado. Lo completa el hilo de envío cuando el
+     * contenedor le devuelve el control.
+     */
+    private void dropStalledSubscribers() {
+        if (pendingSends.get() == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            long started = subscriber.sendStartedNanos;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                subscriber.dropped = true;
+                if (subscribers.remove(subscriber.emitter) != null) {
+                    droppedSubscribers.increment();
+                    log.debug("Conexión de /stats/stream dada de baja: el envío lleva {} ms",
+                            TimeUnit.NANOSECONDS.toMillis(now - started));
+                }
+            }
+        }
+    }
+
+    /**
+     * Cantidad de conexiones abiertas.
+     *
+     * @return Suscriptores actuales
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name.endsWith("-") ? name + count.incrementAndGet() : name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Conexión abierta con su envío pendiente.
+     *
+     * {@link #offer} reemplaza el evento pendiente y sólo encola un envío si
+     * no hay uno en cola o en curso; el envío en curso, al terminar, manda el
+     * último evento que haya quedado pendiente.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicReference<Set<DataWithMediaType>> pending = new AtomicReference<>();
+
+        /**
+         * Eventos ofrecidos que el envío todavía no atendió; el que lo pasa
+         * de 0 a 1 encola el envío.
+         */
+        private final AtomicInteger offered = new AtomicInteger();
+
+        /**
+         * System.nanoTime() al empezar el envío en curso, 0 si no hay ninguno.
+         */
+        private volatile long sendStartedNanos;
+
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            pending.set(event);
+            if (offered.getAndIncrement() == 0) {
+                pendingSends.incrementAndGet();
+                try {
+                    sendExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Cerrando la aplicación
+                    pendingSends.decrementAndGet();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                int missed = 1;
+                do {
+                    Set<DataWithMediaType> event = pending.getAndSet(null);
+                    if (event != null && !dropped) {
+                        send(event);
+                    }
+                    missed = offered.addAndGet(-missed);
+                } while (missed != 0);
+            } finally {
+                pendingSends.decrementAndGet();
+            }
+        }
+
+        /**
+         * Envía un evento; si la conexión ya se cerró, la quita de los
+         * suscriptores. Si se dio de baja mientras enviaba, la cierra.
+         */
+        private void send(Set<DataWithMediaType> event) {
+            sendStartedNanos = System.nanoTime();
+            try {
+                emitter.send(event);
+            } catch (IOException | RuntimeException e) {
+                // Cliente desconectado o emisor ya completado
+                subscribers.remove(emitter);
+                return;
+            } finally {
+                sendStartedNanos = 0;
+            }
+            if (dropped) {
+                emitter.complete();
+            }
+        }
+    }
+}
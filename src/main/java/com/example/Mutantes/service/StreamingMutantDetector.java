@@ -0,0 +1,242 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+
+/**
+ * Detector incremental de mutantes que procesa el ADN fila por fila, para
+ * cualquier perfil de reglas ({@link DetectionRules}).
+ *
+ * No guarda la matriz: mantiene la fila anterior y, por columna, la longitud
+ * de la racha de bases iguales que termina en ella en cada dirección
+ * (↓, ↘, ↙), el mismo barrido por longitud de racha que
+ * {@code RunLengthDetectionEngine}. La memoria es O(N) sin importar la
+ * longitud de secuencia K, por lo que puede empezar a analizar antes de
+ * recibir la matriz completa y responder "mutante" en cuanto aparece la
+ * secuencia número T.
+ *
+ * Al recibir la fila k cada celda cuenta una secuencia por cada dirección
+ * habilitada en la que su racha alcanza K: la secuencia que TERMINA en esa
+ * celda. Así cada secuencia se cuenta una única vez, en la fila en que se
+ * completa, y el total coincide con
+ * {@link MutantDetector#countMutantSequences(String[])}.
+ *
+ * Las instancias no son thread-safe: se crea una por análisis con
+ * {@link MutantDetector#openStream(int)}.
+ */
+public class StreamingMutantDetector {
+
+    private final int n;
+    private final DetectionRules rules;
+    private final int sequenceLength;
+    private final int mutantThreshold;
+    private final boolean horizontal;
+    private final boolean vertical;
+    private final boolean diagonal;
+    private final boolean antiDiagonal;
+
+    /**
+     * Fila anterior, fila actual y la fila que se está copiando; rotan en
+     * cada feedRow, así una fila inválida no pisa las anteriores.
+     */
+    private byte[] previous;
+    private byte[] current;
+    private byte[] incoming;
+
+    /**
+     * Longitud de la racha que termina en cada columna de la última fila, por dirección.
+     */
+    private final int[] verticalRuns;
+    private final int[] diagonalRuns;
+    private final int[] antiDiagonalRuns;
+
+    private int rowsRead;
+    private int sequenceCount;
+
+    /**
+     * Crea un detector incremental para una matriz NxN con el perfil por defecto.
+     *
+     * @param n Tamaño esperado de la matriz (cantidad de filas y de columnas)
+     * @throws IllegalArgumentException si n no es positivo
+     */
+    public StreamingMutantDetector(int n) {
+        this(n, DetectionRules.DEFAULT);
+    }
+
+    /**
+     * Crea un detector incremental para una matriz NxN.
+     *
+     * @param n Tamaño esperado de la matriz (cantidad de filas y de columnas)
+     * @param rules Perfil de reglas (longitud, umbral, alfabeto y direcciones)
+     * @throws IllegalArgumentException si n no es positivo
+     */
+    public StreamingMutantDetector(int n, DetectionRules rules) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("El tamaño de la matriz de ADN debe ser positivo: " + n);
+        }
+        this.n = n;
+        this.rules = rules;
+        this.sequenceLength = rules.getSequenceLength();
+        this.mutantThreshold = rules.getMutantThreshold();
+        this.horizontal = rules.isEnabled(Direction.HORIZONTAL);
+        this.vertical = rules.isEnabled(Direction.VERTICAL);
+        this.diagonal = rules.isEnabled(Direction.DIAGONAL);
+        this.antiDiagonal = rules.isEnabled(Direction.ANTI_DIAGONAL);
+        this.previous = new byte[n];
+        this.current = new byte[n];
+        this.incoming = new byte[n];
+        this.verticalRuns = new int[n];
+        this.diagonalRuns = new int[n];
+        this.antiDiagonalRuns = new int[n];
+    }
+
+    /**
+     * Agrega la siguiente fila de la matriz.
+     *
+     * Una vez detectado el mutante las filas restantes se ignoran (no se validan),
+     * ya que el resultado no puede cambiar.
+     *
+     * @param row Siguiente fila del ADN (longitud N, solo bases del alfabeto del perfil)
+     * @return true si con las filas recibidas hasta ahora ya es mutante
+     * @throws IllegalArgumentException si la fila es inválida o se excede N filas
+     */
+    public boolean feedRow(String row) {
+        if (isMutantDetected()) {
+            return true;
+        }
+        if (rowsRead >= n) {
+            throw new IllegalArgumentException(
+                "La matriz de ADN debe ser cuadrada (NxN). Se recibieron más de " + n + " filas"
+            );
+        }
+        if (row == null || row.length() != n) {
+            throw new IllegalArgumentException(
+                "La matriz de ADN debe ser cuadrada (NxN). Tamaño esperado: " + n + "x" + n
+            );
+        }
+
+        // PASO 1: validar y copiar la fila (sin modificar el estado si es inválida)
+        int k = rowsRead;
+        byte[] next = incoming;
+        for (int j = 0; j < n; j++) {
+            char base = row.charAt(j);
+            if (!rules.isValid(base)) {
+                throw new IllegalArgumentException(
+                    "Carácter inválido encontrado en posición [" + k + "][" + j + "]: '" + base +
+                    "'. Solo se permiten: " + rules.describeAlphabet()
+                );
+            }
+            next[j] = (byte) base;
+        }
+        incoming = previous;
+        previous = current;
+        current = next;
+        rowsRead++;
+
+        // PASO 2: contar las secuencias que terminan en esta fila
+        sequenceCount += countEndingAt(k > 0);
+        return isMutantDetected();
+    }
+
+    /**
+     * Resultado del análisis.
+     *
+     * @return true si es mutante, false si se recibieron las N filas sin llegar al umbral
+     * @throws IllegalStateException si aún no se puede decidir (faltan filas)
+     */
+    public boolean result() {
+        if (isMutantDetected()) {
+            return true;
+        }
+        if (rowsRead < n) {
+            throw new IllegalStateException(
+                "Resultado no disponible: se recibieron " + rowsRead + " de " + n + " filas"
+            );
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el resultado ya está decidido (mutante detectado o matriz completa).
+     *
+     * @return true si {@link #result()} puede invocarse
+     */
+    public boolean isComplete() {
+        return isMutantDetected() || rowsRead == n;
+    }
+
+    /**
+     * Cantidad de filas procesadas hasta el momento.
+     *
+     * @return Filas leídas
+     */
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Secuencias encontradas en las filas procesadas.
+     *
+     * @return Conteo parcial de secuencias
+     */
+    public int getSequenceCount() {
+        return sequenceCount;
+    }
+
+    private boolean isMutantDetected() {
+        return sequenceCount >= mutantThreshold;
+    }
+
+    /**
+     * Actualiza las rachas con la fila actual y cuenta las secuencias que
+     * terminan en ella.
+     */
+    private int countEndingAt(boolean hasPrevious) {
+        byte[] row = current;
+        byte[] above = previous;
+        int count = 0;
+        int rowRun = 0;
+        // Racha ↘ de la columna j - 1 en la fila anterior (ya sobrescrita en diagonalRuns)
+        int previousDiagonal = 0;
+
+        for (int j = 0; j < n; j++) {
+            byte base = row[j];
+
+            rowRun = (j > 0 && base == row[j - 1]) ? rowRun + 1 : 1;
+
+            int verticalRun = 1;
+            int diagonalRun = 1;
+            int antiDiagonalRun = 1;
+            if (hasPrevious) {
+                if (base == above[j]) {
+                    verticalRun = verticalRuns[j] + 1;
+                }
+                if (j > 0 && base == above[j - 1]) {
+                    diagonalRun = previousDiagonal + 1;
+                }
+                if (j < n - 1 && base == above[j + 1]) {
+                    antiDiagonalRun = antiDiagonalRuns[j + 1] + 1;
+                }
+            }
+
+            previousDiagonal = diagonalRuns[j];
+            verticalRuns[j] = verticalRun;
+            diagonalRuns[j] = diagonalRun;
+            antiDiagonalRuns[j] = antiDiagonalRun;
+
+            if (horizontal && rowRun >= sequenceLength) {
+                count++;
+            }
+            if (vertical && verticalRun >= sequenceLength) {
+                count++;
+            }
+            if (diagonal && diagonalRun >= sequenceLength) {
+                count++;
+            }
+            if (antiDiagonal && antiDiagonalRun >= sequenceLength) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
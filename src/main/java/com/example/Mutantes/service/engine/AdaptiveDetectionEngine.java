@@ -0,0 +1,101 @@
+package com.example.Mutantes.service.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor que despacha cada matriz al motor más rápido para su tamaño en esta
+ * máquina, según los puntos de cruce medidos por {@link EngineCalibrator} al
+ * iniciar la aplicación.
+ *
+ * Los rangos se guardan como arreglos paralelos ordenados por tamaño inicial;
+ * como son pocos (uno por cada cambio de ganador) la búsqueda es lineal.
+ */
+public class AdaptiveDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = "adaptive";
+
+    /**
+     * rangeStarts[r] = primer N resuelto por engines[r]; rangeStarts[0] = 1.
+     */
+    private final int[] rangeStarts;
+    private final DetectionEngine[] engines;
+
+    private final List<EngineCalibrator.Sample> samples;
+    private final long calibrationMillis;
+
+    /**
+     * Crea el motor a partir de una calibración.
+     *
+     * @param rangeStarts Primer tamaño de cada rango, en orden creciente (el primero debe ser 1)
+     * @param engines Motor de cada rango
+     * @param samples Mediciones que originaron los rangos
+     * @param calibrationMillis Duración de la calibración
+     */
+    public AdaptiveDetectionEngine(int[] rangeStarts, DetectionEngine[] engines,
+                                   List<EngineCalibrator.Sample> samples, long calibrationMillis) {
+        if (rangeStarts.length == 0 || rangeStarts.length != engines.length || rangeStarts[0] != 1) {
+            throw new IllegalArgumentException("Los rangos deben empezar en N=1 y tener un motor cada uno");
+        }
+        this.rangeStarts = rangeStarts.clone();
+        this.engines = engines.clone();
+        this.samples = samples;
+        this.calibrationMillis = calibrationMillis;
+    }
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        return engineFor(n).countSequences(data, offset, n, stride, limit);
+    }
+
+    /**
+     * Motor elegido para el tamaño indicado.
+     *
+     * @param n Tamaño de la matriz
+     * @return Motor del rango que contiene a N
+     */
+    public DetectionEngine engineFor(int n) {
+        int r = rangeStarts.length - 1;
+        while (r > 0 && n < rangeStarts[r]) {
+            r--;
+        }
+        return engines[r];
+    }
+
+    /**
+     * Rangos de tamaño y el motor elegido para cada uno.
+     *
+     * @return Rangos contiguos desde N=1 hasta el infinito
+     */
+    public List<EngineRange> getRanges() {
+        List<EngineRange> ranges = new ArrayList<>(engines.length);
+        for (int r = 0; r < engines.length; r++) {
+            int to = r + 1 < engines.length ? rangeStarts[r + 1] - 1 : Integer.MAX_VALUE;
+            ranges.add(new EngineRange(rangeStarts[r], to, engines[r].name()));
+        }
+        return ranges;
+    }
+
+    /**
+     * Mediciones de la calibración (nanosegundos por recorrido completo).
+     *
+     * @return Una muestra por tamaño y motor candidato
+     */
+    public List<EngineCalibrator.Sample> getSamples() {
+        return samples;
+    }
+
+    /**
+     * Duración de la calibración al iniciar.
+     *
+     * @return Milisegundos empleados en medir todos los candidatos
+     */
+    public long getCalibrationMillis() {
+        return calibrationMillis;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.Mutantes.service.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import static com.example.Mutantes.service.MutantDetector.SEQUENCE_LENGTH;
+
+/**
+ * Conteo de secuencias de muchas matrices del mismo tamaño a la vez, sobre
+ * una disposición structure-of-arrays.
+ *
+ * La celda (i, j) de la matriz b está en {@code cells[(i * n + j) * lanes + b]}.
+ * Los límites (qué direcciones caben desde cada celda inicial) dependen sólo
+ * de (i, j), así que se resuelven una vez por celda para todo el lote, y el
+ * ciclo interno recorre la dimensión del lote sin saltos.
+ *
+ * El ciclo interno es SWAR: cada long leído del buffer contiene la misma
+ * celda de 8 matrices, y una secuencia se verifica para las 8 a la vez con
+ * XOR entre las 4 celdas y una detección de bytes en cero. Los aciertos se
+ * acumulan en un contador de 8 bits por matriz dentro de un long y se
+ * vuelcan a los conteos enteros antes de que puedan desbordar.
+ *
+ * La terminación anticipada se evalúa entre filas de celdas iniciales: el
+ * recorrido se detiene cuando todas las matrices alcanzaron el límite.
+ */
+public final class BatchDetectionKernel {
+
+    /**
+     * Matrices por palabra SWAR: {@code lanes} debe ser múltiplo de este valor.
+     */
+    public static final int LANES_PER_WORD = Long.BYTES;
+
+    private static final VarHandle WORDS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * Celdas iniciales entre dos volcados: 63 celdas x 4 direcciones = 252
+     * aciertos como máximo, que caben en el contador de 8 bits de cada matriz.
+     */
+    private static final int MAX_PENDING_CELLS = 63;
+
+    private BatchDetectionKernel() {
+    }
+
+    /**
+     * Palabras de acumulación necesarias para un lote.
+     *
+     * @param size Cantidad de matrices
+     * @return Longitud mínima del arreglo {@code pending} de {@link #countSequences}
+     */
+    public static int words(int size) {
+        return (size + LANES_PER_WORD - 1) / LANES_PER_WORD;
+    }
+
+    /**
+     * Cuenta las secuencias de las primeras {@code size} matrices del lote.
+     *
+     * Como en {@link DetectionEngine#countSequences}, cada conteo es exacto si
+     * es menor que {@code limit} y cualquier valor >= limit en otro caso. Las
+     * bases deben ser US-ASCII (ya validadas contra el alfabeto).
+     *
+     * @param cells Buffer structure-of-arrays
+     * @param n Tamaño de las matrices (NxN)
+     * @param lanes Distancia entre dos celdas consecutivas de una matriz (múltiplo de 8)
+     * @param size Cantidad de matrices a analizar (<= lanes)
+     * @param limit Cantidad de secuencias a partir de la cual se puede detener
+     * @param counts Conteo por matriz, sobrescrito (longitud >= size)
+     * @param pending Acumuladores de trabajo (longitud >= words(size))
+     */
+    public static void countSequences(byte[] cells, int n, int lanes, int size, int limit,
+                                      int[] counts, long[] pending) {
+        if (lanes % LANES_PER_WORD != 0) {
+            throw new IllegalArgumentException("La distancia entre celdas debe ser múltiplo de 8: " + lanes);
+        }
+        int words = words(size);
+        for (int b = 0; b < size; b++) {
+            counts[b] = 0;
+        }
+        for (int w = 0; w < words; w++) {
+            pending[w] = 0;
+        }
+        if (n < SEQUENCE_LENGTH) {
+            return;
+        }
+
+        int right = lanes;
+        int down = n * lanes;
+        int diagonal = down + lanes;
+        int antiDiagonal = down - lanes;
+        int pendingCells = 0;
+
+        for (int i = 0; i < n; i++) {
+            boolean downward = i <= n - SEQUENCE_LENGTH;
+            for (int j = 0; j < n; j++) {
+                int at = (i * n + j) * lanes;
+                boolean forward = j <= n - SEQUENCE_LENGTH;
+
+                // HORIZONTAL (→)
+                if (forward) {
+                    addMatches(cells, at, right, words, pending);
+                }
+                if (downward) {
+                    // VERTICAL (↓)
+                    addMatches(cells, at, down, words, pending);
+                    // DIAGONAL PRINCIPAL (↘)
+                    if (forward) {
+                        addMatches(cells, at, diagonal, words, pending);
+                    }
+                    // DIAGONAL INVERTIDA (↙)
+                    if (j >= SEQUENCE_LENGTH - 1) {
+                        addMatches(cells, at, antiDiagonal, words, pending);
+                    }
+                }
+
+                if (++pendingCells == MAX_PENDING_CELLS) {
+                    flush(pending, words, size, counts);
+                    pendingCells = 0;
+                }
+            }
+
+            // EARLY TERMINATION entre filas: todo el lote ya alcanzó el límite
+            flush(pending, words, size, counts);
+            pendingCells = 0;
+            if (allReached(counts, size, limit)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Suma 1 al contador de cada matriz cuya secuencia desde {@code at} con
+     * paso {@code step} es de 4 bases iguales, 8 matrices por iteración.
+     */
+    private static void addMatches(byte[] cells, int at, int step, int words, long[] pending) {
+        for (int w = 0; w < words; w++) {
+            int p0 = at + w * LANES_PER_WORD;
+            long base = (long) WORDS.get(cells, p0);
+            long diff = (base ^ (long) WORDS.get(cells, p0 + step))
+                | (base ^ (long) WORDS.get(cells, p0 + 2 * step))
+                | (base ^ (long) WORDS.get(cells, p0 + 3 * step));
+            pending[w] += zeroBytes(diff);
+        }
+    }
+
+    /**
+     * 0x01 en cada byte de x que vale 0 y 0x00 en el resto (exacto, sin
+     * acarreo entre bytes).
+     */
+    private static long zeroBytes(long x) {
+        long nonZero = ((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x;
+        return (~nonZero >>> 7) & 0x0101010101010101L;
+    }
+
+    /**
+     * Vuelca los contadores de 8 bits a los conteos enteros.
+     */
+    private static void flush(long[] pending, int words, int size, int[] counts) {
+        for (int w = 0; w < words; w++) {
+            long word = pending[w];
+            if (word == 0) {
+                continue;
+            }
+            pending[w] = 0;
+            int first = w * LANES_PER_WORD;
+            int end = Math.min(LANES_PER_WORD, size - first);
+            for (int k = 0; k < end; k++) {
+                counts[first + k] += (int) (word >>> (8 * k)) & 0xFF;
+            }
+        }
+    }
+
+    private static boolean allReached(int[] counts, int size, int limit) {
+        for (int b = 0; b < size; b++) {
+            if (counts[b] < limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.validator.DnaBases;
+
+import java.util.Arrays;
+
+/**
+ * Motor basado en bitboards: un long[] por base nitrogenada (A, T, C, G).
+ *
+ * Cada fila de la matriz se representa con W = ceil(N / 64) palabras de 64 bits
+ * por base, donde el bit j de la fila i vale 1 si la celda (i, j) es esa base.
+ * Una secuencia de 4 se detecta con operaciones shift-AND sobre palabras
+ * completas (b & b>>1 & b>>2 & b>>3), procesando 64 celdas por instrucción:
+ *
+ * - Horizontal (→):  r[i] & r[i]>>1 & r[i]>>2 & r[i]>>3
+ * - Vertical (↓):    r[i] & r[i+1] & r[i+2] & r[i+3]
+ * - Diagonal (↘):    r[i] & r[i+1]>>1 & r[i+2]>>2 & r[i+3]>>3
+ * - Diagonal (↙):    r[i] & r[i+1]<<1 & r[i+2]<<2 & r[i+3]<<3
+ *
+ * Cada bit activo del resultado es una celda inicial de secuencia, por lo que
+ * Long.bitCount produce exactamente el mismo conteo que el motor escalar.
+ * Los bits fuera de la matriz (j >= N) siempre son 0, así que los
+ * desplazamientos nunca generan secuencias falsas en los bordes.
+ */
+public class BitboardDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = "bitboard";
+
+    private static final int BASES = 4;
+
+    /**
+     * Bitboards reutilizados por hilo: evita asignar 4 * N * W longs por petición.
+     */
+    private final ThreadLocalScratch scratch = new ThreadLocalScratch();
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        int words = (n + 63) >>> 6;
+        int plane = n * words;
+        long[] board = buildBoards(data, offset, n, stride, words, plane);
+
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            boolean hasRowsBelow = i + 3 < n;
+
+            for (int b = 0; b < BASES; b++) {
+                int row = b * plane + i * words;
+
+                for (int w = 0; w < words; w++) {
+                    long r0 = board[row + w];
+                    if (r0 == 0) {
+                        continue;
+                    }
+
+                    // HORIZONTAL (→)
+                    count += Long.bitCount(r0
+                            & shiftRight(board, row, words, w, 1)
+                            & shiftRight(board, row, words, w, 2)
+                            & shiftRight(board, row, words, w, 3));
+
+                    if (hasRowsBelow) {
+                        int row1 = row + words;
+                        int row2 = row1 + words;
+                        int row3 = row2 + words;
+
+                        // VERTICAL (↓)
+                        count += Long.bitCount(r0 & board[row1 + w] & board[row2 + w] & board[row3 + w]);
+
+                        // DIAGONAL PRINCIPAL (↘)
+                        count += Long.bitCount(r0
+                                & shiftRight(board, row1, words, w, 1)
+                                & shiftRight(board, row2, words, w, 2)
+                                & shiftRight(board, row3, words, w, 3));
+
+                        // DIAGONAL INVERTIDA (↙)
+                        count += Long.bitCount(r0
+                                & shiftLeft(board, row1, words, w, 1)
+                                & shiftLeft(board, row2, words, w, 2)
+                                & shiftLeft(board, row3, words, w, 3));
+                    }
+                }
+            }
+
+            // EARLY TERMINATION: se evalúa por fila para no penalizar el bucle interno
+            if (count >= limit) {
+                return count;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Construye los bitboards de la matriz en un único arreglo plano:
+     * board[base * plane + fila * words + palabra].
+     */
+    private long[] buildBoards(byte[] data, int offset, int n, int stride, int words, int plane) {
+        long[] board = scratch.longs(BASES * plane);
+        Arrays.fill(board, 0, BASES * plane, 0L);
+        for (int i = 0; i < n; i++) {
+            int rowStart = offset + i * stride;
+            int row = i * words;
+            for (int j = 0; j < n; j++) {
+                board[DnaBases.code(data[rowStart + j]) * plane + row + (j >>> 6)] |= 1L << j;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Palabra w de la fila desplazada s columnas hacia la izquierda de la matriz:
+     * el bit j del resultado es el bit j + s de la fila original.
+     */
+    private static long shiftRight(long[] board, int row, int words, int w, int s) {
+        long value = board[row + w] >>> s;
+        if (w + 1 < words) {
+            value |= board[row + w + 1] << (64 - s);
+        }
+        return value;
+    }
+
+    /**
+     * Palabra w de la fila desplazada s columnas hacia la derecha de la matriz:
+     * el bit j del resultado es el bit j - s de la fila original.
+     */
+    private static long shiftLeft(long[] board, int row, int words, int w, int s) {
+        long value = board[row + w] << s;
+        if (w > 0) {
+            value |= board[row + w - 1] >>> (64 - s);
+        }
+        return value;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Mutantes.service.engine;
+
+/**
+ * Estrategia de búsqueda de secuencias mutantes sobre una matriz de ADN ya validada.
+ *
+ * MutantDetector se encarga de validar la entrada; cada implementación sólo
+ * decide CÓMO recorrer la matriz. La matriz llega como bytes US-ASCII en un
+ * único buffer plano: la celda (i, j) está en {@code data[offset + i * stride + j]}.
+ *
+ * Todas las implementaciones deben contar exactamente las mismas secuencias que
+ * el recorrido escalar original: una secuencia por cada celda inicial y dirección
+ * (→, ↓, ↘, ↙) desde la que hay 4 bases idénticas consecutivas.
+ */
+public interface DetectionEngine {
+
+    /**
+     * Cuenta las secuencias mutantes de la matriz con Early Termination.
+     *
+     * Si el total es menor que {@code limit} se retorna el conteo exacto;
+     * en caso contrario se retorna algún valor mayor o igual a {@code limit}
+     * (la implementación puede detenerse en cuanto lo alcanza).
+     *
+     * @param data Buffer con las bases en US-ASCII (solo A, T, C, G)
+     * @param offset Posición de la celda (0, 0) dentro del buffer
+     * @param n Tamaño de la matriz (NxN)
+     * @param stride Distancia en bytes entre el inicio de dos filas consecutivas (>= n)
+     * @param limit Conteo a partir del cual se puede detener la búsqueda
+     * @return Número de secuencias encontradas (acotado inferiormente por limit)
+     */
+    int countSequences(byte[] data, int offset, int n, int stride, int limit);
+
+    /**
+     * Nombre corto del motor, usado en configuración y diagnóstico.
+     *
+     * @return Nombre del motor (ej: "scalar", "bitboard")
+     */
+    String name();
+}
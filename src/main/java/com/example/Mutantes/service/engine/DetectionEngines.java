@@ -0,0 +1,154 @@
+package com.example.Mutantes.service.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * Fábrica de motores de detección a partir de su nombre de configuración
+ * (propiedad {@code mutant.detector.engine}).
+ */
+public final class DetectionEngines {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionEngines.class);
+
+    /**
+     * Nombre del motor SIMD. Su clase (VectorDetectionEngine) se compila
+     * aparte, en src/vector/java, porque es la única que necesita
+     * --add-modules jdk.incubator.vector; este código sólo la carga por
+     * reflexión.
+     */
+    public static final String VECTOR_ENGINE_NAME = "vector";
+
+    /**
+     * Módulo incubador que requiere el motor SIMD.
+     */
+    public static final String VECTOR_MODULE_NAME = "jdk.incubator.vector";
+
+    private DetectionEngines() {
+    }
+
+    /**
+     * Crea el motor correspondiente al nombre indicado.
+     *
+     * @param name Nombre del motor (no distingue mayúsculas/minúsculas)
+     * @return Nueva instancia del motor
+     * @throws IllegalArgumentException si el nombre no corresponde a ningún motor
+     */
+    public static DetectionEngine forName(String name) {
+        return forName(name, TiledDetectionEngine.DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Crea el motor correspondiente al nombre indicado.
+     *
+     * @param name Nombre del motor (no distingue mayúsculas/minúsculas)
+     * @param tileSize Lado de bloque para el motor tiled (propiedad {@code mutant.detector.tile-size})
+     * @return Nueva instancia del motor
+     * @throws IllegalArgumentException si el nombre no corresponde a ningún motor
+     */
+    public static DetectionEngine forName(String name, int tileSize) {
+        String key = name == null ? ScalarDetectionEngine.NAME : name.trim().toLowerCase(Locale.ROOT);
+        switch (key) {
+            case ScalarDetectionEngine.NAME:
+                return new ScalarDetectionEngine();
+            case BitboardDetectionEngine.NAME:
+                return new BitboardDetectionEngine();
+            case RunLengthDetectionEngine.NAME:
+                return new RunLengthDetectionEngine();
+            case UnrolledDetectionEngine.NAME:
+                return new UnrolledDetectionEngine();
+            case LookupTableDetectionEngine.NAME:
+                return new LookupTableDetectionEngine();
+            case TiledDetectionEngine.NAME:
+                return new TiledDetectionEngine(tileSize);
+            case AdaptiveDetectionEngine.NAME:
+                return calibrated(tileSize);
+            case VECTOR_ENGINE_NAME:
+                return vectorOrScalar();
+            default:
+                throw new IllegalArgumentException("Motor de detección desconocido: " + name);
+        }
+    }
+
+    /**
+     * Crea el motor para un perfil de reglas: el perfil por defecto usa el motor
+     * indicado por nombre (especializado en constantes); cualquier otro perfil
+     * usa el detector generado para su K y sus direcciones
+     * ({@link ProfileDetectors}) y, si K está fuera del rango generado, el
+     * motor genérico {@link RuleProfileEngine}.
+     *
+     * @param rules Perfil de reglas de detección
+     * @param name Nombre del motor para el perfil por defecto
+     * @return Nueva instancia del motor
+     */
+    public static DetectionEngine forRules(DetectionRules rules, String name) {
+        return forRules(rules, name, TiledDetectionEngine.DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Crea el motor para un perfil de reglas, con el lado de bloque del motor tiled.
+     *
+     * @param rules Perfil de reglas de detección
+     * @param name Nombre del motor para el perfil por defecto
+     * @param tileSize Lado de bloque para el motor tiled
+     * @return Nueva instancia del motor
+     */
+    public static DetectionEngine forRules(DetectionRules rules, String name, int tileSize) {
+        if (rules.isDefault()) {
+            return forName(name, tileSize);
+        }
+        if (name != null && !ScalarDetectionEngine.NAME.equalsIgnoreCase(name.trim())) {
+            log.warn("El motor {} sólo soporta el perfil por defecto; se usa un motor de perfil para {}", name, rules);
+        }
+        if (ProfileDetectors.supports(rules)) {
+            return ProfileDetectors.forRules(rules);
+        }
+        log.info("Sin detector especializado para K = {}; se usa el motor genérico de perfiles",
+                rules.getSequenceLength());
+        return new RuleProfileEngine(rules);
+    }
+
+    /**
+     * Indica si el módulo incubador de la Vector API está disponible en esta JVM.
+     *
+     * @return true si la JVM se inició con --add-modules jdk.incubator.vector
+     */
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE_NAME).isPresent();
+    }
+
+    /**
+     * Mide los motores candidatos en esta máquina y arma el motor adaptativo.
+     */
+    private static DetectionEngine calibrated(int tileSize) {
+        AdaptiveDetectionEngine engine = new EngineCalibrator(
+            EngineCalibrator.defaultCandidates(tileSize),
+            EngineCalibrator.DEFAULT_SIZES,
+            EngineCalibrator.DEFAULT_BUDGET_MILLIS
+        ).calibrate();
+        log.info("Calibración de motores completada en {} ms: {}", engine.getCalibrationMillis(), engine.getRanges());
+        return engine;
+    }
+
+    /**
+     * Instancia el motor vectorial por reflexión: su clase se compila en un
+     * source set propio y no se carga (referencia jdk.incubator.vector)
+     * cuando el módulo no está presente.
+     */
+    private static DetectionEngine vectorOrScalar() {
+        if (isVectorApiAvailable()) {
+            try {
+                return (DetectionEngine) Class.forName(DetectionEngines.class.getPackageName() + ".VectorDetectionEngine")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("No se pudo inicializar el motor vectorial, se usa el escalar: {}", e.toString());
+                return new ScalarDetectionEngine();
+            }
+        }
+        log.warn("Módulo {} no disponible, se usa el motor escalar", VECTOR_MODULE_NAME);
+        return new ScalarDetectionEngine();
+    }
+}
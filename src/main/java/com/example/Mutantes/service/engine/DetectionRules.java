@@ -0,0 +1,252 @@
+package com.example.Mutantes.service.engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static com.example.Mutantes.service.MutantDetector.MUTANT_THRESHOLD;
+import static com.example.Mutantes.service.MutantDetector.SEQUENCE_LENGTH;
+
+/**
+ * Perfil de reglas de detección: longitud de secuencia (K), umbral de mutante (T),
+ * alfabeto de bases válidas y direcciones habilitadas.
+ *
+ * El perfil por defecto (4 / 2 / ATCG / todas las direcciones) se resuelve con
+ * los motores especializados en constantes; cualquier otro perfil usa el
+ * detector generado para su K y sus direcciones ({@link ProfileDetectors})
+ * o, con K fuera del rango generado, el motor genérico {@link RuleProfileEngine}.
+ *
+ * Las instancias son inmutables.
+ */
+public final class DetectionRules {
+
+    /**
+     * Direcciones en las que se buscan secuencias.
+     */
+    public enum Direction {
+        /** Horizontal (→) */
+        HORIZONTAL,
+        /** Vertical (↓) */
+        VERTICAL,
+        /** Diagonal principal (↘) */
+        DIAGONAL,
+        /** Diagonal invertida (↙) */
+        ANTI_DIAGONAL
+    }
+
+    /**
+     * Alfabeto por defecto: las cuatro bases nitrogenadas del ADN.
+     */
+    public static final String DEFAULT_ALPHABET = "ATCG";
+
+    /**
+     * Perfil original del examen: 4 bases iguales, más de una secuencia, ATCG, 4 direcciones.
+     */
+    public static final DetectionRules DEFAULT = new DetectionRules(
+        SEQUENCE_LENGTH, MUTANT_THRESHOLD, DEFAULT_ALPHABET, EnumSet.allOf(Direction.class)
+    );
+
+    private final int sequenceLength;
+    private final int mutantThreshold;
+    private final String alphabet;
+    private final Set<Direction> directions;
+
+    /**
+     * Tabla de 256 entradas con los bytes US-ASCII válidos del alfabeto.
+     */
+    private final boolean[] validBases = new boolean[256];
+
+    /**
+     * true si todas las bases del alfabeto son A, T, C o G, y por lo tanto
+     * tienen código de 2 bits.
+     */
+    private final boolean twoBitEncodable;
+
+    /**
+     * Crea un perfil de reglas.
+     *
+     * @param sequenceLength Longitud K de las secuencias (>= 2)
+     * @param mutantThreshold Cantidad T de secuencias para clasificar como mutante (>= 1)
+     * @param alphabet Caracteres válidos (US-ASCII, sin repetir)
+     * @param directions Direcciones habilitadas (al menos una)
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public DetectionRules(int sequenceLength, int mutantThreshold, String alphabet, Set<Direction> directions) {
+        if (sequenceLength < 2) {
+            throw new IllegalArgumentException("La longitud de secuencia debe ser al menos 2: " + sequenceLength);
+        }
+        if (mutantThreshold < 1) {
+            throw new IllegalArgumentException("El umbral de mutante debe ser al menos 1: " + mutantThreshold);
+        }
+        if (alphabet == null || alphabet.isEmpty()) {
+            throw new IllegalArgumentException("El alfabeto no puede estar vacío");
+        }
+        if (directions == null || directions.isEmpty()) {
+            throw new IllegalArgumentException("Debe haber al menos una dirección habilitada");
+        }
+        for (int i = 0; i < alphabet.length(); i++) {
+            char c = alphabet.charAt(i);
+            if (c >= 128 || validBases[c]) {
+                throw new IllegalArgumentException("Alfabeto inválido (solo US-ASCII sin repetir): " + alphabet);
+            }
+            validBases[c] = true;
+        }
+
+        this.sequenceLength = sequenceLength;
+        this.mutantThreshold = mutantThreshold;
+        this.alphabet = alphabet;
+        this.directions = Collections.unmodifiableSet(EnumSet.copyOf(directions));
+        this.twoBitEncodable = alphabet.chars().allMatch(base -> DEFAULT_ALPHABET.indexOf(base) >= 0);
+    }
+
+    public int getSequenceLength() {
+        return sequenceLength;
+    }
+
+    public int getMutantThreshold() {
+        return mutantThreshold;
+    }
+
+    public String getAlphabet() {
+        return alphabet;
+    }
+
+    public Set<Direction> getDirections() {
+        return directions;
+    }
+
+    /**
+     * Indica si la dirección está habilitada.
+     *
+     * @param direction Dirección a consultar
+     * @return true si se buscan secuencias en esa dirección
+     */
+    public boolean isEnabled(Direction direction) {
+        return directions.contains(direction);
+    }
+
+    /**
+     * Indica si el carácter pertenece al alfabeto.
+     *
+     * @param c Carácter a validar
+     * @return true si es una base válida para este perfil
+     */
+    public boolean isValid(char c) {
+        return c < 256 && validBases[c];
+    }
+
+    /**
+     * Indica si el byte US-ASCII pertenece al alfabeto.
+     *
+     * @param b Byte a validar
+     * @return true si es una base válida para este perfil
+     */
+    public boolean isValid(byte b) {
+        return validBases[b & 0xFF];
+    }
+
+    /**
+     * Indica si todas las bases válidas de otro perfil lo son también en éste,
+     * de modo que un ADN validado con aquél no necesita volver a validarse.
+     *
+     * @param other Perfil con el que se validó el ADN
+     * @return true si el alfabeto de {@code other} está contenido en el de este perfil
+     */
+    public boolean acceptsAlphabetOf(DetectionRules other) {
+        if (other == this) {
+            return true;
+        }
+        for (int i = 0; i < other.alphabet.length(); i++) {
+            if (!validBases[other.alphabet.charAt(i)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si todas las bases del alfabeto son A, T, C o G: sólo entonces el
+     * ADN puede empaquetarse a 2 bits por base (ver {@code PreparedDna}).
+     *
+     * @return true si el alfabeto está contenido en {@link #DEFAULT_ALPHABET}
+     */
+    public boolean isTwoBitEncodable() {
+        return twoBitEncodable;
+    }
+
+    /**
+     * Indica si el alfabeto es exactamente A, T, C, G (en cualquier orden).
+     *
+     * @return true si el alfabeto coincide como conjunto con {@link #DEFAULT_ALPHABET}
+     */
+    public boolean hasDefaultAlphabet() {
+        return twoBitEncodable && alphabet.length() == DEFAULT_ALPHABET.length();
+    }
+
+    /**
+     * Indica si este perfil es equivalente al perfil por defecto (el alfabeto
+     * se compara como conjunto), en cuyo caso pueden usarse los motores
+     * especializados en constantes.
+     *
+     * @return true si equivale a {@link #DEFAULT}
+     */
+    public boolean isDefault() {
+        return this == DEFAULT || equals(DEFAULT);
+    }
+
+    /**
+     * Indica si el conteo no cambia al rotar, reflejar o transponer la matriz.
+     *
+     * Transponer intercambia filas y columnas y reflejar intercambia las dos
+     * diagonales, así que basta con que cada par esté habilitado o
+     * deshabilitado a la vez.
+     *
+     * @return true si HORIZONTAL y VERTICAL, y DIAGONAL y ANTI_DIAGONAL, tienen el mismo estado
+     */
+    public boolean isSymmetric() {
+        return isEnabled(Direction.HORIZONTAL) == isEnabled(Direction.VERTICAL)
+            && isEnabled(Direction.DIAGONAL) == isEnabled(Direction.ANTI_DIAGONAL);
+    }
+
+    /**
+     * Alfabeto formateado para mensajes de error (ej: "A, T, C, G").
+     *
+     * @return Caracteres del alfabeto separados por coma
+     */
+    public String describeAlphabet() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < alphabet.length(); i++) {
+            joiner.add(String.valueOf(alphabet.charAt(i)));
+        }
+        return joiner.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DetectionRules)) {
+            return false;
+        }
+        DetectionRules other = (DetectionRules) o;
+        return sequenceLength == other.sequenceLength
+            && mutantThreshold == other.mutantThreshold
+            && directions.equals(other.directions)
+            && Arrays.equals(validBases, other.validBases);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * sequenceLength + mutantThreshold) + directions.hashCode())
+            + Arrays.hashCode(validBases);
+    }
+
+    @Override
+    public String toString() {
+        return "DetectionRules{K=" + sequenceLength + ", T=" + mutantThreshold
+            + ", alfabeto=" + alphabet + ", direcciones=" + directions + "}";
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.Mutantes.service.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calibración de motores en la máquina actual.
+ *
+ * Para cada tamaño de muestra mide el tiempo de un recorrido completo (sin
+ * terminación anticipada: el peor caso, una matriz humana) de cada motor
+ * candidato que soporta ese tamaño, y elige el más rápido. Los tamaños con el
+ * mismo ganador se agrupan en rangos, cuyos bordes son los puntos de cruce
+ * entre motores en este CPU.
+ *
+ * Cada medición usa la mitad de su presupuesto para calentar el motor (JIT)
+ * y la otra mitad para medir lotes de llamadas; se toma el mejor lote, que es
+ * el menos afectado por GC y por otros hilos.
+ */
+public final class EngineCalibrator {
+
+    /**
+     * Tamaños medidos por defecto: densos en el rango del tráfico habitual
+     * (6x6 a 16x16) y en potencias de 2 hasta 1024.
+     */
+    public static final int[] DEFAULT_SIZES = {4, 6, 8, 12, 16, 24, 32, 64, 128, 256, 512, 1024};
+
+    /**
+     * Presupuesto por defecto de cada medición (tamaño x motor).
+     */
+    public static final long DEFAULT_BUDGET_MILLIS = 10;
+
+    /**
+     * Matrices distintas por tamaño, para que la predicción de saltos no
+     * memorice una única entrada.
+     */
+    private static final int MATRICES_PER_SIZE = 8;
+
+    /**
+     * Duración mínima de un lote medido: por debajo, el costo de System.nanoTime domina.
+     */
+    private static final long MIN_BATCH_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private final List<Candidate> candidates;
+    private final int[] sizes;
+    private final long budgetNanos;
+
+    /**
+     * Evita que el JIT elimine las llamadas medidas.
+     */
+    private long sink;
+
+    /**
+     * Crea un calibrador.
+     *
+     * @param candidates Motores candidatos y el rango de tamaños que soporta cada uno
+     * @param sizes Tamaños de muestra, en orden creciente
+     * @param budgetMillis Presupuesto de cada medición (tamaño x motor) en milisegundos
+     */
+    public EngineCalibrator(List<Candidate> candidates, int[] sizes, long budgetMillis) {
+        if (candidates.isEmpty() || sizes.length == 0) {
+            throw new IllegalArgumentException("La calibración requiere al menos un motor y un tamaño");
+        }
+        this.candidates = List.copyOf(candidates);
+        this.sizes = sizes.clone();
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    /**
+     * Candidatos por defecto: todos los motores para el perfil por defecto, con
+     * los desenrollados y las tablas restringidos a los tamaños que resuelven.
+     *
+     * @param tileSize Lado de bloque del motor tiled
+     * @return Lista de candidatos
+     */
+    public static List<Candidate> defaultCandidates(int tileSize) {
+        List<Candidate> candidates = new ArrayList<>();
+        candidates.add(new Candidate(new ScalarDetectionEngine()));
+        candidates.add(new Candidate(new UnrolledDetectionEngine(),
+            UnrolledDetectionEngine.MIN_SIZE, UnrolledDetectionEngine.MAX_SIZE));
+        candidates.add(new Candidate(new LookupTableDetectionEngine(), 1, LookupTableDetectionEngine.MAX_SIZE));
+        candidates.add(new Candidate(new BitboardDetectionEngine()));
+        candidates.add(new Candidate(new RunLengthDetectionEngine()));
+        candidates.add(new Candidate(new TiledDetectionEngine(tileSize)));
+        candidates.add(new Candidate(new ParallelDetectionEngine()));
+        if (DetectionEngines.isVectorApiAvailable()) {
+            candidates.add(new Candidate(DetectionEngines.forName(DetectionEngines.VECTOR_ENGINE_NAME)));
+        }
+        return candidates;
+    }
+
+    /**
+     * Mide todos los candidatos y construye el motor adaptativo.
+     *
+     * La muestra de tamaño N decide el rango [N, siguiente muestra - 1] (la
+     * primera cubre también desde 1 y la última hasta el infinito). Si el más
+     * rápido no soporta todo el rango (desenrollados, tablas), lo que queda lo
+     * resuelve el siguiente más rápido que sí lo soporta.
+     *
+     * @return Motor que despacha por N según los puntos de cruce medidos
+     */
+    public AdaptiveDetectionEngine calibrate() {
+        long started = System.nanoTime();
+        List<Sample> samples = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<DetectionEngine> engines = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int s = 0; s < sizes.length; s++) {
+            int n = sizes[s];
+            byte[][] matrices = randomMatrices(random, n);
+
+            // Candidatos medidos en este tamaño, del más rápido al más lento
+            List<Candidate> ranked = new ArrayList<>();
+            List<Double> times = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                if (!candidate.supports(n)) {
+                    continue;
+                }
+                double nanos = measure(candidate.getEngine(), matrices, n);
+                samples.add(new Sample(n, candidate.getEngine().name(), nanos));
+                int position = 0;
+                while (position < times.size() && times.get(position) <= nanos) {
+                    position++;
+                }
+                ranked.add(position, candidate);
+                times.add(position, nanos);
+            }
+
+            int from = s == 0 ? 1 : n;
+            int to = s + 1 < sizes.length ? sizes[s + 1] - 1 : Integer.MAX_VALUE;
+            int cursor = from;
+            while (cursor <= to) {
+                Candidate chosen = fastestSupporting(ranked, cursor);
+                addRange(starts, engines, cursor, chosen.getEngine());
+                if (chosen.getMaxSize() >= to) {
+                    break;
+                }
+                cursor = chosen.getMaxSize() + 1;
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        return new AdaptiveDetectionEngine(
+            starts.stream().mapToInt(Integer::intValue).toArray(),
+            engines.toArray(new DetectionEngine[0]),
+            Collections.unmodifiableList(samples),
+            TimeUnit.NANOSECONDS.toMillis(elapsed)
+        );
+    }
+
+    /**
+     * El más rápido de los medidos que soporta el tamaño; si ninguno lo soporta
+     * (tamaños menores a la primera muestra), el primer candidato que sí lo haga.
+     */
+    private Candidate fastestSupporting(List<Candidate> ranked, int n) {
+        for (Candidate candidate : ranked) {
+            if (candidate.supports(n)) {
+                return candidate;
+            }
+        }
+        for (Candidate candidate : candidates) {
+            if (candidate.supports(n)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Ningún motor candidato soporta N=" + n);
+    }
+
+    /**
+     * Agrega un rango que empieza en {@code from}, o extiende el anterior si es del mismo motor.
+     */
+    private static void addRange(List<Integer> starts, List<DetectionEngine> engines, int from, DetectionEngine engine) {
+        int last = engines.size() - 1;
+        if (last >= 0 && engines.get(last) == engine) {
+            return;
+        }
+        starts.add(from);
+        engines.add(engine);
+    }
+
+    /**
+     * Nanosegundos por llamada del mejor lote medido dentro del presupuesto.
+     */
+    private double measure(DetectionEngine engine, byte[][] matrices, int n) {
+        // Calentamiento: la mitad del presupuesto, al menos una llamada por matriz
+        long warmupEnd = System.nanoTime() + budgetNanos / 2;
+        int calls = 0;
+        do {
+            sink += engine.countSequences(matrices[calls % MATRICES_PER_SIZE], 0, n, n, Integer.MAX_VALUE);
+            calls++;
+        } while (calls < MATRICES_PER_SIZE || System.nanoTime() < warmupEnd);
+
+        // Tamaño de lote: suficientes llamadas para que un lote dure al menos MIN_BATCH_NANOS
+        int batch = 1;
+        long batchNanos = runBatch(engine, matrices, n, batch);
+        while (batchNanos < MIN_BATCH_NANOS) {
+            batch *= 2;
+            batchNanos = runBatch(engine, matrices, n, batch);
+        }
+
+        long measureEnd = System.nanoTime() + budgetNanos / 2;
+        long best = batchNanos;
+        int batches = 1;
+        while (batches < 2 || System.nanoTime() < measureEnd) {
+            best = Math.min(best, runBatch(engine, matrices, n, batch));
+            batches++;
+        }
+        return (double) best / batch;
+    }
+
+    private long runBatch(DetectionEngine engine, byte[][] matrices, int n, int batch) {
+        long start = System.nanoTime();
+        for (int k = 0; k < batch; k++) {
+            sink += engine.countSequences(matrices[k % MATRICES_PER_SIZE], 0, n, n, Integer.MAX_VALUE);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static byte[][] randomMatrices(Random random, int n) {
+        byte[] bases = {'A', 'T', 'C', 'G'};
+        byte[][] matrices = new byte[MATRICES_PER_SIZE][n * n];
+        for (byte[] matrix : matrices) {
+            for (int i = 0; i < matrix.length; i++) {
+                matrix[i] = bases[random.nextInt(4)];
+            }
+        }
+        return matrices;
+    }
+
+    /**
+     * Motor candidato y el rango de tamaños en el que puede elegirse.
+     */
+    public static final class Candidate {
+        private final DetectionEngine engine;
+        private final int minSize;
+        private final int maxSize;
+
+        /**
+         * Candidato para cualquier tamaño.
+         *
+         * @param engine Motor candidato
+         */
+        public Candidate(DetectionEngine engine) {
+            this(engine, 1, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Candidato restringido a [minSize, maxSize].
+         *
+         * @param engine Motor candidato
+         * @param minSize Tamaño mínimo soportado
+         * @param maxSize Tamaño máximo soportado
+         */
+        public Candidate(DetectionEngine engine, int minSize, int maxSize) {
+            this.engine = engine;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+        }
+
+        public DetectionEngine getEngine() {
+            return engine;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        boolean supports(int n) {
+            return n >= minSize && n <= maxSize;
+        }
+    }
+
+    /**
+     * Resultado de una medición: nanosegundos por recorrido completo.
+     */
+    public static final class Sample {
+        private final int size;
+        private final String engine;
+        private final double nanosPerCall;
+
+        Sample(int size, String engine, double nanosPerCall) {
+            this.size = size;
+            this.engine = engine;
+            this.nanosPerCall = nanosPerCall;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public double getNanosPerCall() {
+            return nanosPerCall;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.Mutantes.service.engine;
+
+/**
+ * Rango de tamaños de matriz [fromSize, toSize] resuelto por un motor.
+ *
+ * Las instancias son inmutables; toSize = Integer.MAX_VALUE indica un rango abierto.
+ */
+public final class EngineRange {
+
+    private final int fromSize;
+    private final int toSize;
+    private final String engine;
+
+    /**
+     * Crea un rango.
+     *
+     * @param fromSize Primer tamaño N del rango (inclusive)
+     * @param toSize Último tamaño N del rango (inclusive)
+     * @param engine Nombre del motor que resuelve el rango
+     */
+    public EngineRange(int fromSize, int toSize, String engine) {
+        this.fromSize = fromSize;
+        this.toSize = toSize;
+        this.engine = engine;
+    }
+
+    public int getFromSize() {
+        return fromSize;
+    }
+
+    public int getToSize() {
+        return toSize;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + fromSize + ", " + (toSize == Integer.MAX_VALUE ? "∞" : String.valueOf(toSize)) + "] -> " + engine;
+    }
+}
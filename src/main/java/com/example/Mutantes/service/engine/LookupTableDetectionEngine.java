@@ -0,0 +1,142 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.validator.DnaBases;
+
+import static com.example.Mutantes.service.MutantDetector.SEQUENCE_LENGTH;
+
+/**
+ * Motor por tablas precalculadas para matrices angostas (N <= 8).
+ *
+ * Con 2 bits por base ({@link DnaBases#code(byte)}) una línea de hasta 8
+ * celdas cabe en 16 bits. Para cada longitud L de 4 a 8 se precalcula una
+ * tabla de 4^L entradas con la cantidad de secuencias que contiene la línea
+ * empaquetada, así que cada línea cuesta L lecturas para empaquetarla y una
+ * sola lectura de tabla, en lugar de sondear 3 vecinos desde cada celda.
+ *
+ * La misma tabla responde filas, columnas (empaquetado transpuesto) y
+ * diagonales de cualquier longitud, porque la cantidad de ventanas de 4 bases
+ * iguales no depende del sentido en que se recorre la línea.
+ *
+ * Para N > 8 delega en el motor escalar.
+ */
+public class LookupTableDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = "lookup";
+
+    /**
+     * Tamaño máximo de matriz resuelto por tablas (16 bits por línea).
+     */
+    public static final int MAX_SIZE = 8;
+
+    /**
+     * RUNS[L][línea empaquetada] = secuencias en una línea de L bases (L de 4 a 8).
+     * En total ~87 KB, compartidos por todas las instancias.
+     */
+    private static final byte[][] RUNS = new byte[MAX_SIZE + 1][];
+
+    static {
+        for (int length = SEQUENCE_LENGTH; length <= MAX_SIZE; length++) {
+            byte[] table = new byte[1 << (2 * length)];
+            for (int packed = 0; packed < table.length; packed++) {
+                table[packed] = (byte) countWindows(packed, length);
+            }
+            RUNS[length] = table;
+        }
+    }
+
+    private final DetectionEngine fallback = new ScalarDetectionEngine();
+
+    /**
+     * Indica si el tamaño se resuelve por tablas.
+     *
+     * @param n Tamaño de la matriz
+     * @return true si N <= MAX_SIZE
+     */
+    public static boolean supports(int n) {
+        return n <= MAX_SIZE;
+    }
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        if (n < SEQUENCE_LENGTH) {
+            return 0;
+        }
+        if (n > MAX_SIZE) {
+            return fallback.countSequences(data, offset, n, stride, limit);
+        }
+
+        byte[] full = RUNS[n];
+        int count = 0;
+
+        // HORIZONTAL (→): una lectura de tabla por fila
+        for (int i = 0; i < n; i++) {
+            count += full[pack(data, offset + i * stride, 1, n)];
+            if (count >= limit) {
+                return count;
+            }
+        }
+
+        // VERTICAL (↓): empaquetado transpuesto, una lectura por columna
+        for (int j = 0; j < n; j++) {
+            count += full[pack(data, offset + j, stride, n)];
+            if (count >= limit) {
+                return count;
+            }
+        }
+
+        // DIAGONALES (↘ y ↙) de longitud >= 4: las que empiezan en la fila 0 y,
+        // salvo la central, las que empiezan en la primera / última columna
+        for (int start = 0; start <= n - SEQUENCE_LENGTH; start++) {
+            int length = n - start;
+            byte[] table = RUNS[length];
+            count += table[pack(data, offset + start, stride + 1, length)];
+            count += table[pack(data, offset + length - 1, stride - 1, length)];
+            if (start > 0) {
+                int row = offset + start * stride;
+                count += table[pack(data, row, stride + 1, length)];
+                count += table[pack(data, row + n - 1, stride - 1, length)];
+            }
+            if (count >= limit) {
+                return count;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Empaqueta una línea de {@code length} bases (2 bits cada una) recorriendo
+     * el buffer desde {@code index} con el paso indicado.
+     */
+    private static int pack(byte[] data, int index, int step, int length) {
+        int packed = 0;
+        for (int p = 0; p < length; p++) {
+            packed |= (DnaBases.code(data[index]) & 3) << (2 * p);
+            index += step;
+        }
+        return packed;
+    }
+
+    /**
+     * Cuenta las ventanas de 4 bases iguales en una línea empaquetada.
+     */
+    private static int countWindows(int packed, int length) {
+        int windows = 0;
+        for (int p = 0; p <= length - SEQUENCE_LENGTH; p++) {
+            int base = (packed >>> (2 * p)) & 3;
+            boolean equal = true;
+            for (int k = 1; k < SEQUENCE_LENGTH && equal; k++) {
+                equal = ((packed >>> (2 * (p + k))) & 3) == base;
+            }
+            if (equal) {
+                windows++;
+            }
+        }
+        return windows;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
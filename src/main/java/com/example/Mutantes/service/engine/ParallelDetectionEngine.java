@@ -0,0 +1,169 @@
+package com.example.Mutantes.service.engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Motor paralelo fork/join para matrices muy grandes (N en los miles).
+ *
+ * Divide la matriz en franjas horizontales de filas iniciales disjuntas; cada
+ * franja lee además las 3 filas siguientes (solapamiento) para completar las
+ * secuencias verticales y diagonales que cruzan el borde. Como cada secuencia
+ * se cuenta sólo desde su celda inicial, las secuencias que cruzan el límite
+ * entre franjas nunca se cuentan dos veces.
+ *
+ * - Con límite finito (isMutant): las franjas comparten un AtomicInteger y
+ *   todas se detienen en cuanto el conteo global alcanza el límite
+ *   (terminación cooperativa, revisada antes de cada fila).
+ * - Sin límite (countMutantSequences): cada franja acumula en un LongAdder
+ *   (contadores striped), evitando contención sobre una única variable.
+ */
+public class ParallelDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = "parallel";
+
+    /**
+     * Filas iniciales mínimas por franja: por debajo de esto el costo de
+     * crear tareas supera al de recorrer las filas.
+     */
+    private static final int MIN_STRIP_ROWS = 64;
+
+    private final ScalarDetectionEngine rowScanner = new ScalarDetectionEngine();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea el motor usando el pool común de fork/join.
+     */
+    public ParallelDetectionEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea el motor sobre un pool específico.
+     *
+     * @param pool Pool de fork/join donde se ejecutan las franjas
+     */
+    public ParallelDetectionEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        Matrix matrix = new Matrix(data, offset, n, stride);
+        int stripRows = Math.max(MIN_STRIP_ROWS, n / (pool.getParallelism() * 4));
+
+        if (limit == Integer.MAX_VALUE) {
+            LongAdder total = new LongAdder();
+            pool.invoke(new CountStrip(matrix, 0, n, stripRows, total));
+            return (int) Math.min(total.sum(), Integer.MAX_VALUE);
+        }
+
+        AtomicInteger shared = new AtomicInteger();
+        pool.invoke(new SearchStrip(matrix, 0, n, stripRows, limit, shared));
+        return shared.get();
+    }
+
+    /**
+     * Parámetros de la matriz compartidos por todas las franjas.
+     */
+    private static final class Matrix {
+        private final byte[] data;
+        private final int offset;
+        private final int n;
+        private final int stride;
+
+        Matrix(byte[] data, int offset, int n, int stride) {
+            this.data = data;
+            this.offset = offset;
+            this.n = n;
+            this.stride = stride;
+        }
+    }
+
+    /**
+     * Cuenta todas las secuencias de las filas [from, to) sin terminación anticipada.
+     */
+    private final class CountStrip extends RecursiveAction {
+        private final Matrix matrix;
+        private final int from;
+        private final int to;
+        private final int stripRows;
+        private final LongAdder total;
+
+        CountStrip(Matrix matrix, int from, int to, int stripRows, LongAdder total) {
+            this.matrix = matrix;
+            this.from = from;
+            this.to = to;
+            this.stripRows = stripRows;
+            this.total = total;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > stripRows) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CountStrip(matrix, from, mid, stripRows, total),
+                          new CountStrip(matrix, mid, to, stripRows, total));
+                return;
+            }
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                count += rowScanner.countRowSequences(matrix.data, matrix.offset, matrix.n, matrix.stride, i);
+            }
+            total.add(count);
+        }
+    }
+
+    /**
+     * Busca secuencias en las filas [from, to) hasta que el conteo compartido
+     * alcance el límite.
+     */
+    private final class SearchStrip extends RecursiveAction {
+        private final Matrix matrix;
+        private final int from;
+        private final int to;
+        private final int stripRows;
+        private final int limit;
+        private final AtomicInteger shared;
+
+        SearchStrip(Matrix matrix, int from, int to, int stripRows, int limit, AtomicInteger shared) {
+            this.matrix = matrix;
+            this.from = from;
+            this.to = to;
+            this.stripRows = stripRows;
+            this.limit = limit;
+            this.shared = shared;
+        }
+
+        @Override
+        protected void compute() {
+            if (shared.get() >= limit) {
+                return;
+            }
+            if (to - from > stripRows) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SearchStrip(matrix, from, mid, stripRows, limit, shared),
+                          new SearchStrip(matrix, mid, to, stripRows, limit, shared));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                // TERMINACIÓN COOPERATIVA: otra franja pudo haber alcanzado el límite
+                if (shared.get() >= limit) {
+                    return;
+                }
+                int found = rowScanner.countRowSequences(matrix.data, matrix.offset, matrix.n, matrix.stride, i);
+                if (found > 0 && shared.addAndGet(found) >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+
+/**
+ * Motor genérico para los perfiles de reglas ({@link DetectionRules})
+ * distintos del perfil por defecto cuya longitud de secuencia queda fuera
+ * de los detectores generados ({@link ProfileDetectors}, K de
+ * {@link ProfileDetectors#MIN_SEQUENCE_LENGTH} a
+ * {@link ProfileDetectors#MAX_SEQUENCE_LENGTH}). También sirve de referencia
+ * para verificarlos.
+ *
+ * Usa el mismo barrido por longitud de racha que {@link RunLengthDetectionEngine},
+ * leyendo la longitud de secuencia y las direcciones habilitadas de campos de
+ * la instancia. NO es un motor especializado: el JIT no trata los campos
+ * final de instancia como constantes, así que el ciclo conserva las
+ * comparaciones de cada dirección aunque esté deshabilitada. Es el costo de
+ * admitir cualquier longitud de secuencia con un único motor.
+ *
+ * El perfil por defecto NO pasa por aquí: sigue usando los motores
+ * especializados en las constantes SEQUENCE_LENGTH y MUTANT_THRESHOLD.
+ */
+public class RuleProfileEngine implements DetectionEngine {
+
+    public static final String NAME = "profile";
+
+    private final int sequenceLength;
+    private final boolean horizontal;
+    private final boolean vertical;
+    private final boolean diagonal;
+    private final boolean antiDiagonal;
+
+    /**
+     * Contadores de racha reutilizados por hilo (3 * N enteros).
+     */
+    private final ThreadLocalScratch scratch = new ThreadLocalScratch();
+
+    /**
+     * Crea el motor para un perfil.
+     *
+     * @param rules Perfil de reglas (longitud de secuencia y direcciones)
+     */
+    public RuleProfileEngine(DetectionRules rules) {
+        this.sequenceLength = rules.getSequenceLength();
+        this.horizontal = rules.isEnabled(Direction.HORIZONTAL);
+        this.vertical = rules.isEnabled(Direction.VERTICAL);
+        this.diagonal = rules.isEnabled(Direction.DIAGONAL);
+        this.antiDiagonal = rules.isEnabled(Direction.ANTI_DIAGONAL);
+    }
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        if (n < sequenceLength) {
+            return 0;
+        }
+
+        int[] runs = scratch.ints(3 * n);
+        int columnAt = 0;
+        int diagonalAt = n;
+        int antiDiagonalAt = 2 * n;
+
+        int count = 0;
+
+        for (int i = 0; i < n; i++) {
+            int row = offset + i * stride;
+            int previous = row - stride;
+            boolean hasPrevious = i > 0;
+            int rowRun = 0;
+            int previousDiagonal = 0;
+
+            for (int j = 0; j < n; j++) {
+                byte base = data[row + j];
+
+                rowRun = (j > 0 && base == data[row + j - 1]) ? rowRun + 1 : 1;
+
+                int verticalRun = 1;
+                int diagonalRun = 1;
+                int antiDiagonalRun = 1;
+                if (hasPrevious) {
+                    if (base == data[previous + j]) {
+                        verticalRun = runs[columnAt + j] + 1;
+                    }
+                    if (j > 0 && base == data[previous + j - 1]) {
+                        diagonalRun = previousDiagonal + 1;
+                    }
+                    if (j < n - 1 && base == data[previous + j + 1]) {
+                        antiDiagonalRun = runs[antiDiagonalAt + j + 1] + 1;
+                    }
+                }
+
+                previousDiagonal = runs[diagonalAt + j];
+                runs[columnAt + j] = verticalRun;
+                runs[diagonalAt + j] = diagonalRun;
+                runs[antiDiagonalAt + j] = antiDiagonalRun;
+
+                // Solo se cuentan las direcciones habilitadas por el perfil
+                if (horizontal && rowRun >= sequenceLength) {
+                    count++;
+                }
+                if (vertical && verticalRun >= sequenceLength) {
+                    count++;
+                }
+                if (diagonal && diagonalRun >= sequenceLength) {
+                    count++;
+                }
+                if (antiDiagonal && antiDiagonalRun >= sequenceLength) {
+                    count++;
+                }
+
+                // EARLY TERMINATION
+                if (count >= limit) {
+                    return count;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
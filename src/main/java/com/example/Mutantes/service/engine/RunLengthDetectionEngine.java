@@ -0,0 +1,110 @@
+package com.example.Mutantes.service.engine;
+
+import static com.example.Mutantes.service.MutantDetector.SEQUENCE_LENGTH;
+
+/**
+ * Motor de barrido por longitud de racha (run-length sweep).
+ *
+ * En lugar de sondear 3 vecinos en cada una de las 4 direcciones desde cada
+ * celda (hasta 16 lecturas por celda), mantiene un contador de racha por cada
+ * fila, columna, diagonal y diagonal invertida. Cada celda se compara una sola
+ * vez con su predecesora en cada dirección (como máximo 4 lecturas) y se
+ * reporta una secuencia cada vez que una racha alcanza SEQUENCE_LENGTH.
+ *
+ * Una racha de longitud L >= 4 genera L - 3 secuencias, exactamente las mismas
+ * celdas iniciales que cuenta el motor escalar (secuencias solapadas incluidas).
+ *
+ * El recorrido es row-major: las rachas verticales y diagonales se arrastran
+ * de una fila a la siguiente en 3 bloques de N contadores, por lo que cada
+ * línea se barre exactamente una vez sin saltos entre filas.
+ */
+public class RunLengthDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = "runlength";
+
+    /**
+     * Contadores de racha reutilizados por hilo (3 * N enteros).
+     */
+    private final ThreadLocalScratch scratch = new ThreadLocalScratch();
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        if (n < SEQUENCE_LENGTH) {
+            return 0;
+        }
+
+        // Racha actual de cada columna (↓), diagonal (↘) y diagonal invertida (↙)
+        // que termina en la fila anterior, indexada por columna. No requieren
+        // limpieza: la fila 0 escribe todas las posiciones antes de leerlas.
+        int[] runs = scratch.ints(3 * n);
+        int columnAt = 0;
+        int diagonalAt = n;
+        int antiDiagonalAt = 2 * n;
+
+        int count = 0;
+
+        for (int i = 0; i < n; i++) {
+            int row = offset + i * stride;
+            int previous = row - stride;
+            boolean hasPrevious = i > 0;
+            int rowRun = 0;
+            // Racha diagonal en j - 1 correspondiente a la fila anterior
+            int previousDiagonal = 0;
+
+            for (int j = 0; j < n; j++) {
+                byte base = data[row + j];
+
+                // HORIZONTAL (→)
+                rowRun = (j > 0 && base == data[row + j - 1]) ? rowRun + 1 : 1;
+
+                int vertical = 1;
+                int diagonal = 1;
+                int antiDiagonal = 1;
+                if (hasPrevious) {
+                    // VERTICAL (↓)
+                    if (base == data[previous + j]) {
+                        vertical = runs[columnAt + j] + 1;
+                    }
+                    // DIAGONAL PRINCIPAL (↘)
+                    if (j > 0 && base == data[previous + j - 1]) {
+                        diagonal = previousDiagonal + 1;
+                    }
+                    // DIAGONAL INVERTIDA (↙): la racha en j + 1 aún es de la fila anterior
+                    if (j < n - 1 && base == data[previous + j + 1]) {
+                        antiDiagonal = runs[antiDiagonalAt + j + 1] + 1;
+                    }
+                }
+
+                previousDiagonal = runs[diagonalAt + j];
+                runs[columnAt + j] = vertical;
+                runs[diagonalAt + j] = diagonal;
+                runs[antiDiagonalAt + j] = antiDiagonal;
+
+                if (rowRun >= SEQUENCE_LENGTH) {
+                    count++;
+                }
+                if (vertical >= SEQUENCE_LENGTH) {
+                    count++;
+                }
+                if (diagonal >= SEQUENCE_LENGTH) {
+                    count++;
+                }
+                if (antiDiagonal >= SEQUENCE_LENGTH) {
+                    count++;
+                }
+
+                // EARLY TERMINATION
+                if (count >= limit) {
+                    return count;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.Mutantes.service.engine;
+
+import static com.example.Mutantes.service.MutantDetector.SEQUENCE_LENGTH;
+
+/**
+ * Motor escalar original: recorre la matriz celda por celda y verifica las
+ * 4 direcciones posibles desde cada una con boundary checking.
+ *
+ * Es el motor por defecto y la referencia de exactitud para el resto.
+ */
+public class ScalarDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = "scalar";
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        // OPTIMIZACIÓN: Contador para Early Termination
+        // En cuanto count alcanza el límite, retornamos inmediatamente
+        int count = 0;
+
+        // Desplazamientos en el buffer plano para cada dirección
+        int down = stride;
+        int diagonal = stride + 1;
+        int antiDiagonal = stride - 1;
+
+        // OPTIMIZACIÓN: Single Pass Algorithm
+        // Recorremos la matriz una sola vez, verificando todas las direcciones posibles
+        // desde cada celda con boundary checking
+        for (int i = 0; i < n; i++) {
+            int rowStart = offset + i * stride;
+            for (int j = 0; j < n; j++) {
+                int index = rowStart + j;
+                byte currentBase = data[index];
+
+                // DIRECCIÓN 1: HORIZONTAL (→)
+                // Boundary Check: Solo buscar si quedan al menos 4 columnas
+                if (j <= n - SEQUENCE_LENGTH) {
+                    if (checkSequence(data, index, 1, currentBase)) {
+                        // EARLY TERMINATION: Retornar inmediatamente al alcanzar el límite
+                        if (++count >= limit) {
+                            return count;
+                        }
+                    }
+                }
+
+                // DIRECCIÓN 2: VERTICAL (↓)
+                // Boundary Check: Solo buscar si quedan al menos 4 filas
+                if (i <= n - SEQUENCE_LENGTH) {
+                    if (checkSequence(data, index, down, currentBase)) {
+                        if (++count >= limit) {
+                            return count;
+                        }
+                    }
+                }
+
+                // DIRECCIÓN 3: DIAGONAL PRINCIPAL (↘)
+                // Boundary Check: Solo buscar si quedan al menos 4 filas Y 4 columnas
+                if (i <= n - SEQUENCE_LENGTH && j <= n - SEQUENCE_LENGTH) {
+                    if (checkSequence(data, index, diagonal, currentBase)) {
+                        if (++count >= limit) {
+                            return count;
+                        }
+                    }
+                }
+
+                // DIRECCIÓN 4: DIAGONAL INVERTIDA (↙)
+                // Boundary Check: Solo buscar si quedan al menos 4 filas Y hay al menos 3 columnas previas
+                if (i <= n - SEQUENCE_LENGTH && j >= SEQUENCE_LENGTH - 1) {
+                    if (checkSequence(data, index, antiDiagonal, currentBase)) {
+                        if (++count >= limit) {
+                            return count;
+                        }
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Cuenta las secuencias que EMPIEZAN en la fila indicada (las 4 direcciones).
+     *
+     * Cada secuencia tiene una única celda inicial, por lo que sumar este valor
+     * sobre rangos de filas disjuntos nunca cuenta dos veces la misma secuencia,
+     * aunque las filas leídas (hasta i + 3) se solapen entre rangos.
+     *
+     * @param data Buffer con las bases en US-ASCII
+     * @param offset Posición de la celda (0, 0)
+     * @param n Tamaño de la matriz
+     * @param stride Distancia entre filas
+     * @param i Fila inicial de las secuencias a contar
+     * @return Número de secuencias con celda inicial en la fila i
+     */
+    int countRowSequences(byte[] data, int offset, int n, int stride, int i) {
+        boolean hasRowsBelow = i <= n - SEQUENCE_LENGTH;
+        int rowStart = offset + i * stride;
+        int count = 0;
+
+        for (int j = 0; j < n; j++) {
+            int index = rowStart + j;
+            byte currentBase = data[index];
+
+            if (j <= n - SEQUENCE_LENGTH && checkSequence(data, index, 1, currentBase)) {
+                count++;
+            }
+            if (hasRowsBelow) {
+                if (checkSequence(data, index, stride, currentBase)) {
+                    count++;
+                }
+                if (j <= n - SEQUENCE_LENGTH && checkSequence(data, index, stride + 1, currentBase)) {
+                    count++;
+                }
+                if (j >= SEQUENCE_LENGTH - 1 && checkSequence(data, index, stride - 1, currentBase)) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Verifica si existe una secuencia de 4 bases idénticas en una dirección específica.
+     *
+     * OPTIMIZACIÓN: Método inline-friendly con complejidad O(1) ya que siempre verifica
+     * exactamente 4 posiciones. No usa bucles dinámicos para mejor performance.
+     *
+     * @param data Buffer plano con las bases
+     * @param start Índice de la celda inicial
+     * @param step Desplazamiento en el buffer entre celdas consecutivas de la dirección
+     * @param expectedBase Base esperada en la secuencia
+     * @return true si se encuentra una secuencia válida de 4 bases idénticas
+     */
+    private boolean checkSequence(byte[] data, int start, int step, byte expectedBase) {
+        // OPTIMIZACIÓN: Desenrollado de bucle (loop unrolling) para mejor performance
+        // Verificamos exactamente 4 posiciones sin overhead de iteración
+
+        // Posición 1 ya verificada (es expectedBase por definición)
+        // Posición 2
+        if (data[start + step] != expectedBase) {
+            return false;
+        }
+        // Posición 3
+        if (data[start + 2 * step] != expectedBase) {
+            return false;
+        }
+        // Posición 4
+        if (data[start + 3 * step] != expectedBase) {
+            return false;
+        }
+
+        // Si todas las 4 posiciones tienen la misma base, es una secuencia válida
+        return true;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
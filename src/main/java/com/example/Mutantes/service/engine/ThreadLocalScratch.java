@@ -0,0 +1,96 @@
+package com.example.Mutantes.service.engine;
+
+/**
+ * Buffers de trabajo reutilizables por hilo para el camino caliente de detección.
+ *
+ * Cada hilo conserva un único arreglo por tipo, que crece hasta el tamaño más
+ * grande solicitado. Las solicitudes que superan {@code maxElements} reciben un
+ * arreglo nuevo que NO se retiene, para no mantener buffers enormes en memoria
+ * indefinidamente por una petición aislada.
+ *
+ * Los arreglos retornados pueden contener datos de usos anteriores y pueden ser
+ * más grandes que lo solicitado: quien los usa debe inicializar lo que lee.
+ */
+public final class ThreadLocalScratch {
+
+    /**
+     * Elementos máximos retenidos por hilo y por tipo (1M: una matriz de 1024x1024).
+     */
+    public static final int DEFAULT_MAX_ELEMENTS = 1 << 20;
+
+    private final int maxElements;
+
+    private final ThreadLocal<byte[]> bytes = new ThreadLocal<>();
+    private final ThreadLocal<int[]> ints = new ThreadLocal<>();
+    private final ThreadLocal<long[]> longs = new ThreadLocal<>();
+
+    /**
+     * Crea un conjunto de buffers con el tope por defecto.
+     */
+    public ThreadLocalScratch() {
+        this(DEFAULT_MAX_ELEMENTS);
+    }
+
+    /**
+     * Crea un conjunto de buffers con un tope específico.
+     *
+     * @param maxElements Tamaño máximo (en elementos) que se retiene por hilo
+     */
+    public ThreadLocalScratch(int maxElements) {
+        this.maxElements = maxElements;
+    }
+
+    /**
+     * Retorna un byte[] de al menos {@code size} elementos.
+     *
+     * @param size Tamaño mínimo requerido
+     * @return Buffer del hilo actual, o uno nuevo si supera el tope
+     */
+    public byte[] bytes(int size) {
+        byte[] buffer = bytes.get();
+        if (buffer != null && buffer.length >= size) {
+            return buffer;
+        }
+        buffer = new byte[size];
+        if (size <= maxElements) {
+            bytes.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Retorna un int[] de al menos {@code size} elementos.
+     *
+     * @param size Tamaño mínimo requerido
+     * @return Buffer del hilo actual, o uno nuevo si supera el tope
+     */
+    public int[] ints(int size) {
+        int[] buffer = ints.get();
+        if (buffer != null && buffer.length >= size) {
+            return buffer;
+        }
+        buffer = new int[size];
+        if (size <= maxElements) {
+            ints.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Retorna un long[] de al menos {@code size} elementos.
+     *
+     * @param size Tamaño mínimo requerido
+     * @return Buffer del hilo actual, o uno nuevo si supera el tope
+     */
+    public long[] longs(int size) {
+        long[] buffer = longs.get();
+        if (buffer != null && buffer.length >= size) {
+            return buffer;
+        }
+        buffer = new long[size];
+        if (size <= maxElements) {
+            longs.set(buffer);
+        }
+        return buffer;
+    }
+}
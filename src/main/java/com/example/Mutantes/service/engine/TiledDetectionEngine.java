@@ -0,0 +1,141 @@
+package com.example.Mutantes.service.engine;
+
+import static com.example.Mutantes.service.MutantDetector.SEQUENCE_LENGTH;
+
+/**
+ * Motor con recorrido por bloques (tiling) para matrices grandes.
+ *
+ * El recorrido row-major del motor escalar vuelve a leer cada fila en las 3
+ * iteraciones siguientes (sondeos ↓, ↘ y ↙), con una distancia de reuso de
+ * ~4 * N bytes: para N en los miles esas filas ya salieron de L1 cuando se
+ * vuelven a necesitar.
+ *
+ * Aquí las celdas iniciales se recorren en bloques de B x B; un bloque lee
+ * además un halo de 3 filas debajo y 3 columnas a cada lado para completar
+ * las secuencias que salen del bloque. El conjunto de trabajo es de
+ * ~(B + 3) x (B + 6) bytes (unos 5 KB con B = 64), que queda residente en
+ * L1/L2 mientras se verifican las 4 direcciones de todas sus celdas.
+ *
+ * Cada secuencia se cuenta sólo desde su celda inicial, que pertenece a un
+ * único bloque, así que el halo nunca duplica secuencias.
+ */
+public class TiledDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = "tiled";
+
+    /**
+     * Lado del bloque por defecto (propiedad {@code mutant.detector.tile-size}).
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private final int tileSize;
+
+    /**
+     * Crea el motor con el lado de bloque por defecto.
+     */
+    public TiledDetectionEngine() {
+        this(DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Crea el motor con un lado de bloque específico.
+     *
+     * @param tileSize Lado B de los bloques de celdas iniciales (>= 1)
+     * @throws IllegalArgumentException si tileSize no es positivo
+     */
+    public TiledDetectionEngine(int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + tileSize);
+        }
+        this.tileSize = tileSize;
+    }
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        if (n < SEQUENCE_LENGTH) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int blockRow = 0; blockRow < n; blockRow += tileSize) {
+            int rowEnd = Math.min(blockRow + tileSize, n);
+            for (int blockColumn = 0; blockColumn < n; blockColumn += tileSize) {
+                int columnEnd = Math.min(blockColumn + tileSize, n);
+                count += countBlock(data, offset, n, stride, blockRow, rowEnd, blockColumn, columnEnd);
+
+                // EARLY TERMINATION entre bloques
+                if (count >= limit) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cuenta las secuencias que empiezan en las celdas [rowStart, rowEnd) x [columnStart, columnEnd).
+     */
+    private static int countBlock(byte[] data, int offset, int n, int stride,
+                                  int rowStart, int rowEnd, int columnStart, int columnEnd) {
+        int down = stride;
+        int diagonal = stride + 1;
+        int antiDiagonal = stride - 1;
+
+        // Boundary checking resuelto por bloque: columnas desde las que caben 4 celdas
+        // hacia la derecha (→, ↘) y hacia la izquierda (↙)
+        int forwardEnd = Math.min(columnEnd, n - SEQUENCE_LENGTH + 1);
+        int backwardStart = Math.max(columnStart, SEQUENCE_LENGTH - 1);
+        int downwardEnd = Math.min(rowEnd, n - SEQUENCE_LENGTH + 1);
+
+        int count = 0;
+        for (int i = rowStart; i < rowEnd; i++) {
+            int rowOffset = offset + i * stride;
+            boolean downward = i < downwardEnd;
+
+            for (int j = columnStart; j < columnEnd; j++) {
+                int index = rowOffset + j;
+                byte base = data[index];
+
+                // HORIZONTAL (→)
+                if (j < forwardEnd && checkSequence(data, index, 1, base)) {
+                    count++;
+                }
+                if (downward) {
+                    // VERTICAL (↓)
+                    if (checkSequence(data, index, down, base)) {
+                        count++;
+                    }
+                    // DIAGONAL PRINCIPAL (↘)
+                    if (j < forwardEnd && checkSequence(data, index, diagonal, base)) {
+                        count++;
+                    }
+                    // DIAGONAL INVERTIDA (↙)
+                    if (j >= backwardStart && checkSequence(data, index, antiDiagonal, base)) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean checkSequence(byte[] data, int index, int step, byte base) {
+        return data[index + step] == base
+            && data[index + 2 * step] == base
+            && data[index + 3 * step] == base;
+    }
+
+    /**
+     * Lado de los bloques de celdas iniciales.
+     *
+     * @return Tamaño de bloque B
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
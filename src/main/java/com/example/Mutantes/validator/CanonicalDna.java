@@ -0,0 +1,137 @@
+package com.example.Mutantes.validator;
+
+import java.util.Arrays;
+
+/**
+ * Forma canónica de una matriz de ADN bajo simetrías y reetiquetado de bases.
+ *
+ * El resultado de la detección (con las 4 direcciones habilitadas) no cambia
+ * al aplicar cualquiera de las 8 transformaciones del cuadrado (rotaciones de
+ * 0°, 90°, 180° y 270°, reflejos horizontal y vertical, transposición y
+ * antitransposición) ni al renombrar las 4 bases entre sí (24 permutaciones):
+ * una secuencia de 4 bases iguales sigue siéndolo. Las 192 variantes de una
+ * matriz son por lo tanto equivalentes y comparten una única forma canónica:
+ * la menor lexicográficamente.
+ *
+ * No se materializan las 192 variantes:
+ * - Para un orden de recorrido fijo, el menor reetiquetado es el que numera
+ *   las bases en orden de primera aparición (0, 1, 2, 3), así que cada
+ *   transformación aporta un solo candidato y no 24.
+ * - Los 8 candidatos se recorren en paralelo celda por celda, descartando en
+ *   cuanto uno resulta mayor que otro. En matrices no simétricas suelen quedar
+ *   uno o dos tras las primeras celdas, y el resto de la matriz se recorre con
+ *   un solo candidato.
+ *
+ * La forma canónica se empaqueta a 2 bits por celda igual que en
+ * {@link PreparedDna} y se resume con MurmurHash3 con N como semilla.
+ */
+public final class CanonicalDna {
+
+    /**
+     * Transformaciones del cuadrado.
+     */
+    private static final int TRANSFORMS = 8;
+
+    private static final int UNLABELED = -1;
+
+    private CanonicalDna() {
+    }
+
+    /**
+     * Huella de la forma canónica de una matriz NxN ya validada.
+     *
+     * @param cells Buffer plano US-ASCII (celda (i, j) en {@code cells[i * n + j]})
+     * @param n Tamaño de la matriz
+     * @return Huella compartida por las 192 variantes equivalentes
+     */
+    public static DnaFingerprint fingerprint(byte[] cells, int n) {
+        byte[] packed = pack(cells, n);
+        return Murmur3.hash128(packed, 0, packed.length, n);
+    }
+
+    /**
+     * Forma canónica empaquetada a 2 bits por celda, en orden row-major.
+     *
+     * @param cells Buffer plano US-ASCII de la matriz
+     * @param n Tamaño de la matriz
+     * @return Etiquetas canónicas: la celda c ocupa los bits 2*(c % 4) del byte c / 4
+     */
+    static byte[] pack(byte[] cells, int n) {
+        byte[] packed = new byte[(n * n + 3) / 4];
+
+        // Celda (r, c) de la matriz transformada t = cells[start[t] + r * rowStep[t] + c * columnStep[t]]
+        int last = n - 1;
+        int[] start = {0, last, last * n, n * n - 1, 0, last, last * n, n * n - 1};
+        int[] rowStep = {n, n, -n, -n, 1, -1, 1, -1};
+        int[] columnStep = {1, -1, 1, -1, n, n, -n, -n};
+
+        // labels[t * 4 + código] = etiqueta asignada en el candidato t (por primera aparición)
+        int[] labels = new int[TRANSFORMS * 4];
+        Arrays.fill(labels, UNLABELED);
+        int[] nextLabel = new int[TRANSFORMS];
+        int[] candidate = new int[TRANSFORMS];
+
+        // Bit t encendido = la transformación t sigue empatada con la menor
+        int alive = (1 << TRANSFORMS) - 1;
+        int total = n * n;
+        int cell = 0;
+        for (; cell < total && (alive & (alive - 1)) != 0; cell++) {
+            int r = cell / n;
+            int c = cell - r * n;
+
+            // PASO 1: etiqueta de la celda en cada candidato vivo y la menor de ellas
+            int best = Integer.MAX_VALUE;
+            for (int remaining = alive; remaining != 0; remaining &= remaining - 1) {
+                int t = Integer.numberOfTrailingZeros(remaining);
+                int code = DnaBases.code(cells[start[t] + r * rowStep[t] + c * columnStep[t]]) & 3;
+                int label = labels[t * 4 + code];
+                if (label == UNLABELED) {
+                    label = nextLabel[t]++;
+                    labels[t * 4 + code] = label;
+                }
+                candidate[t] = label;
+                best = Math.min(best, label);
+            }
+
+            // PASO 2: descartar los candidatos que quedaron por encima
+            for (int remaining = alive; remaining != 0; remaining &= remaining - 1) {
+                int t = Integer.numberOfTrailingZeros(remaining);
+                if (candidate[t] != best) {
+                    alive &= ~(1 << t);
+                }
+            }
+            packed[cell >>> 2] |= (byte) (best << ((cell & 3) << 1));
+        }
+
+        // PASO 3: queda un solo candidato; el resto se recorre sólo con su orden y
+        // sus etiquetas, con el mapa código -> etiqueta en registros (2 bits por código)
+        if (cell < total) {
+            int t = Integer.numberOfTrailingZeros(alive);
+            int assigned = 0;
+            int map = 0;
+            for (int code = 0; code < 4; code++) {
+                int label = labels[t * 4 + code];
+                if (label != UNLABELED) {
+                    assigned |= 1 << code;
+                    map |= label << (code << 1);
+                }
+            }
+            int nextFree = nextLabel[t];
+            int step = columnStep[t];
+            int r = cell / n;
+            int c = cell - r * n;
+            for (int rowIndex = start[t] + r * rowStep[t]; r < n; r++, c = 0, rowIndex += rowStep[t]) {
+                for (int index = rowIndex + c * step; c < n; c++, cell++, index += step) {
+                    int code = DnaBases.code(cells[index]) & 3;
+                    if ((assigned & (1 << code)) == 0) {
+                        assigned |= 1 << code;
+                        map |= nextFree++ << (code << 1);
+                    }
+                    packed[cell >>> 2] |= (byte) (((map >>> (code << 1)) & 3) << ((cell & 3) << 1));
+                }
+            }
+        }
+        // Los candidatos que llegan empatados al final producen la misma forma canónica
+        return packed;
+    }
+}
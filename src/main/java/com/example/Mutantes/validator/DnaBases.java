@@ -0,0 +1,59 @@
+package com.example.Mutantes.validator;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de búsqueda de 256 entradas para las bases nitrogenadas (A, T, C, G).
+ *
+ * Reemplaza a Set&lt;Character&gt;.contains (que hace boxing por celda) y a la
+ * expresión regular por fila: validar un carácter es una sola lectura de arreglo.
+ * Cada base válida tiene además un código de 2 bits (A=0, T=1, C=2, G=3).
+ */
+public final class DnaBases {
+
+    /**
+     * Código de 2 bits por byte US-ASCII; -1 para caracteres no válidos.
+     */
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = 0;
+        CODES['T'] = 1;
+        CODES['C'] = 2;
+        CODES['G'] = 3;
+    }
+
+    private DnaBases() {
+    }
+
+    /**
+     * Indica si el carácter es una base válida.
+     *
+     * @param c Carácter a validar
+     * @return true si es A, T, C o G (solo mayúsculas)
+     */
+    public static boolean isValid(char c) {
+        return c < 256 && CODES[c] >= 0;
+    }
+
+    /**
+     * Indica si el byte US-ASCII es una base válida.
+     *
+     * @param b Byte a validar
+     * @return true si es A, T, C o G (solo mayúsculas)
+     */
+    public static boolean isValid(byte b) {
+        return CODES[b & 0xFF] >= 0;
+    }
+
+    /**
+     * Código de 2 bits de una base válida.
+     *
+     * @param b Byte US-ASCII de la base
+     * @return 0 (A), 1 (T), 2 (C), 3 (G) o -1 si no es una base válida
+     */
+    public static int code(byte b) {
+        return CODES[b & 0xFF];
+    }
+}
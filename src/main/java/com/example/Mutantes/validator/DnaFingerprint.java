@@ -0,0 +1,59 @@
+package com.example.Mutantes.validator;
+
+/**
+ * Huella de 128 bits de una matriz de ADN (MurmurHash3 x64 128 sobre las
+ * bases empaquetadas a 2 bits, ver {@link PreparedDna}).
+ *
+ * Se guarda en dos columnas BIGINT (fp_hi, fp_lo) con índice único: 16 bytes
+ * por registro en lugar de los 64 caracteres del hash hexadecimal anterior.
+ */
+public final class DnaFingerprint {
+
+    private final long hi;
+    private final long lo;
+
+    /**
+     * Crea una huella a partir de sus dos mitades.
+     *
+     * @param hi 64 bits altos
+     * @param lo 64 bits bajos
+     */
+    public DnaFingerprint(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    public long getHi() {
+        return hi;
+    }
+
+    public long getLo() {
+        return lo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DnaFingerprint)) {
+            return false;
+        }
+        DnaFingerprint other = (DnaFingerprint) o;
+        return hi == other.hi && lo == other.lo;
+    }
+
+    @Override
+    public int hashCode() {
+        // Los bits ya están bien distribuidos: basta con combinar ambas mitades
+        return Long.hashCode(hi ^ lo);
+    }
+
+    /**
+     * Representación hexadecimal de 32 caracteres (hi seguido de lo).
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hi, lo);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.Mutantes.validator;
+
+import com.example.Mutantes.dto.DnaRequest;
+import com.example.Mutantes.service.engine.DetectionRules;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Valida el ADN de una petición preparándolo ({@link PreparedDna}) y deja el
+ * resultado en el DTO, para que el servicio y el detector lo reutilicen sin
+ * volver a validar, copiar ni hashear la matriz.
+ *
+ * Las bases se validan contra el alfabeto del perfil de reglas activo
+ * ({@code mutant.detector.rules.alphabet}), que Spring inyecta al crear el
+ * validador; sin Spring (o sin el bean) se usa el perfil por defecto.
+ *
+ * Los errores se reportan sobre el campo "dna", igual que la validación por
+ * campo. Un ADN nulo o vacío se deja a @NotNull / @NotEmpty.
+ */
+public class DnaRequestValidator implements ConstraintValidator<ValidDnaSequence, DnaRequest> {
+
+    private final DetectionRules rules;
+
+    public DnaRequestValidator() {
+        this.rules = DetectionRules.DEFAULT;
+    }
+
+    @Autowired
+    public DnaRequestValidator(ObjectProvider<DetectionRules> rules) {
+        this.rules = rules.getIfAvailable(() -> DetectionRules.DEFAULT);
+    }
+
+    @Override
+    public void initialize(ValidDnaSequence constraintAnnotation) {
+        // no initialization needed
+    }
+
+    @Override
+    public boolean isValid(DnaRequest request, ConstraintValidatorContext context) {
+        if (request == null || request.getDna() == null || request.getDna().length == 0) {
+            return true;
+        }
+
+        PreparedDna prepared = PreparedDna.tryPrepare(request.getDna(), rules);
+        if (prepared == null) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+                .addPropertyNode("dna")
+                .addConstraintViolation();
+            return false;
+        }
+
+        request.setPrepared(prepared);
+        return true;
+    }
+}
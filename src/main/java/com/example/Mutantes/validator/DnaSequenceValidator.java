@@ -1,13 +1,30 @@
 package com.example.Mutantes.validator;
 
+import com.example.Mutantes.service.engine.DetectionRules;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Valida que un String[] sea una matriz NxN con bases del alfabeto del perfil
+ * de reglas activo ({@code mutant.detector.rules.alphabet}).
+ *
+ * Spring crea el validador inyectando el perfil; sin Spring (o sin el bean)
+ * se usa el perfil por defecto, A, T, C, G.
+ */
+public class DnaSequenceValidator implements ConstraintValidator<ValidDnaSequence, String[]> {
 
-import java.util.regex.Pattern;
+    private final DetectionRules rules;
 
-public class DnaSequenceValidator implements ConstraintValidator<ValidDnaSequence, String[]> {
+    public DnaSequenceValidator() {
+        this.rules = DetectionRules.DEFAULT;
+    }
 
-    private static final Pattern VALID_PATTERN = Pattern.compile("^[ATCG]+$");
+    @Autowired
+    public DnaSequenceValidator(ObjectProvider<DetectionRules> rules) {
+        this.rules = rules.getIfAvailable(() -> DetectionRules.DEFAULT);
+    }
 
     @Override
     public void initialize(ValidDnaSequence constraintAnnotation) {
@@ -32,12 +49,13 @@ public class DnaSequenceValidator implements ConstraintValidator<ValidDnaSequenc
             if (row.length() != n) {
                 return false;
             }
-            // Verificar que solo contenga A, T, C, G
-            if (!VALID_PATTERN.matcher(row).matches()) {
-                return false;
+            // Verificar que solo contenga bases del alfabeto (tabla de 256 entradas, sin regex)
+            for (int j = 0; j < n; j++) {
+                if (!rules.isValid(row.charAt(j))) {
+                    return false;
+                }
             }
         }
         return true;
     }
 }
-
@@ -0,0 +1,234 @@
+package com.example.Mutantes.validator;
+
+import com.example.Mutantes.service.engine.DetectionRules;
+
+/**
+ * ADN validado, codificado y con su huella, preparado en una sola pasada.
+ *
+ * Antes cada petición recorría la entrada varias veces: la validación del
+ * DTO, la validación y copia del detector, el ordenamiento y concatenación
+ * del hash del servicio y finalmente la detección. Aquí cada fila se recorre
+ * una vez: cada carácter se valida con la tabla de 256 entradas del alfabeto
+ * del perfil de reglas ({@link DetectionRules}, A, T, C, G por defecto), se
+ * escribe en el buffer plano US-ASCII que consumen los motores y se empaqueta
+ * a 2 bits (4 bases por byte). La huella de 128 bits ({@link DnaFingerprint})
+ * es MurmurHash3 sobre las bases empaquetadas, con N como semilla para
+ * distinguir tamaños.
+ *
+ * Si el alfabeto tiene bases fuera de A, T, C, G (ej: ATCGN o ACGU) no hay
+ * código de 2 bits para todas: no se empaqueta, la huella se calcula sobre
+ * los bytes US-ASCII y la huella canónica no está disponible.
+ *
+ * El validador del DTO, el servicio y el detector comparten la misma
+ * instancia, así que ninguno vuelve a validar ni a copiar la matriz.
+ *
+ * La huella canónica ({@link #getCanonicalFingerprint()}), compartida por
+ * las variantes rotadas, reflejadas o con las bases reetiquetadas, se calcula
+ * sólo si se pide.
+ *
+ * Las instancias son inmutables desde fuera: {@link #cells()} expone el
+ * buffer interno (sin copia) y no debe modificarse.
+ */
+public final class PreparedDna {
+
+    private final int n;
+    private final byte[] cells;
+    private final DnaFingerprint fingerprint;
+    private final DetectionRules rules;
+
+    /**
+     * Huella canónica calculada a demanda. Si dos hilos la piden a la vez
+     * ambos la calculan con el mismo resultado; {@link DnaFingerprint} es
+     * inmutable, así que publicarla sin sincronizar es seguro.
+     */
+    private DnaFingerprint canonicalFingerprint;
+
+    private PreparedDna(int n, byte[] cells, DnaFingerprint fingerprint, DetectionRules rules) {
+        this.n = n;
+        this.cells = cells;
+        this.fingerprint = fingerprint;
+        this.rules = rules;
+    }
+
+    /**
+     * Prepara un ADN con el perfil por defecto (A, T, C, G), fallando con el motivo si es inválido.
+     *
+     * @param dna Array de Strings representando cada fila del ADN (NxN)
+     * @return ADN preparado
+     * @throws IllegalArgumentException si la matriz está vacía, no es NxN o tiene caracteres inválidos
+     */
+    public static PreparedDna prepare(String[] dna) {
+        return prepare(dna, DetectionRules.DEFAULT);
+    }
+
+    /**
+     * Prepara un ADN validando contra el alfabeto de un perfil de reglas,
+     * fallando con el motivo si es inválido.
+     *
+     * @param dna Array de Strings representando cada fila del ADN (NxN)
+     * @param rules Perfil de reglas activo
+     * @return ADN preparado
+     * @throws IllegalArgumentException si la matriz está vacía, no es NxN o tiene caracteres fuera del alfabeto
+     */
+    public static PreparedDna prepare(String[] dna, DetectionRules rules) {
+        PreparedDna prepared = tryPrepare(dna, rules);
+        if (prepared == null) {
+            // Camino poco frecuente: se vuelve a recorrer sólo para describir el error
+            throw invalid(dna, rules);
+        }
+        return prepared;
+    }
+
+    /**
+     * Prepara un ADN con el perfil por defecto (A, T, C, G) sin lanzar excepciones.
+     *
+     * @param dna Array de Strings representando cada fila del ADN (NxN)
+     * @return ADN preparado, o null si la matriz está vacía, no es NxN o tiene caracteres inválidos
+     */
+    public static PreparedDna tryPrepare(String[] dna) {
+        return tryPrepare(dna, DetectionRules.DEFAULT);
+    }
+
+    /**
+     * Prepara un ADN validando contra el alfabeto de un perfil de reglas, sin
+     * lanzar excepciones (para el validador del DTO).
+     *
+     * @param dna Array de Strings representando cada fila del ADN (NxN)
+     * @param rules Perfil de reglas activo
+     * @return ADN preparado, o null si la matriz está vacía, no es NxN o tiene caracteres fuera del alfabeto
+     */
+    public static PreparedDna tryPrepare(String[] dna, DetectionRules rules) {
+        // VALIDACIÓN 1: Fail Fast - null o vacío
+        if (dna == null || dna.length == 0) {
+            return null;
+        }
+
+        int n = dna.length;
+        byte[] cells = new byte[n * n];
+        // 2 bits por base, en orden row-major: la celda c ocupa los bits 2*(c % 4) del byte c / 4
+        // (sólo si todas las bases del alfabeto tienen código de 2 bits)
+        boolean twoBit = rules.isTwoBitEncodable();
+        byte[] packed = twoBit ? new byte[(n * n + 3) / 4] : null;
+
+        for (int i = 0; i < n; i++) {
+            String row = dna[i];
+
+            // VALIDACIÓN 2: Matriz NxN
+            if (row == null || row.length() != n) {
+                return null;
+            }
+
+            // VALIDACIÓN 3 + CODIFICACIÓN: tabla de 256 entradas, sin saltos por celda;
+            // la fila se descarta completa si algún carácter no pertenece al alfabeto
+            int rowStart = i * n;
+            boolean valid = true;
+            for (int j = 0; j < n; j++) {
+                char base = row.charAt(j);
+                valid &= rules.isValid(base);
+                int cell = rowStart + j;
+                cells[cell] = (byte) base;
+                if (twoBit) {
+                    packed[cell >>> 2] |= (byte) ((DnaBases.code((byte) base) & 3) << ((cell & 3) << 1));
+                }
+            }
+            if (!valid) {
+                return null;
+            }
+        }
+
+        // HUELLA: 128 bits sobre las bases (empaquetadas si se puede), conservando el orden de las filas
+        DnaFingerprint fingerprint = twoBit
+            ? Murmur3.hash128(packed, 0, packed.length, n)
+            : Murmur3.hash128(cells, 0, cells.length, n);
+        return new PreparedDna(n, cells, fingerprint, rules);
+    }
+
+    private static IllegalArgumentException invalid(String[] dna, DetectionRules rules) {
+        if (dna == null || dna.length == 0) {
+            return new IllegalArgumentException("La matriz de ADN no puede ser nula ni vacía");
+        }
+        int n = dna.length;
+        for (int i = 0; i < n; i++) {
+            String row = dna[i];
+            if (row == null || row.length() != n) {
+                return new IllegalArgumentException(
+                    "La matriz de ADN debe ser cuadrada (NxN). Tamaño esperado: " + n + "x" + n
+                );
+            }
+            for (int j = 0; j < n; j++) {
+                char base = row.charAt(j);
+                if (!rules.isValid(base)) {
+                    return new IllegalArgumentException(
+                        "Carácter inválido encontrado en posición [" + i + "][" + j + "]: '" + base +
+                        "'. Solo se permiten: " + rules.describeAlphabet()
+                    );
+                }
+            }
+        }
+        return new IllegalArgumentException("ADN inválido");
+    }
+
+    /**
+     * Tamaño de la matriz (NxN).
+     *
+     * @return N
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Perfil de reglas contra cuyo alfabeto se validó el ADN.
+     *
+     * @return Perfil usado al preparar
+     */
+    public DetectionRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Buffer plano US-ASCII: la celda (i, j) está en {@code cells()[i * N + j]}.
+     *
+     * Se expone sin copia para que los motores lo lean directamente; no debe modificarse.
+     *
+     * @return Buffer interno de N x N bytes
+     */
+    public byte[] cells() {
+        return cells;
+    }
+
+    /**
+     * Huella de 128 bits de las bases en orden row-major: dos matrices con
+     * las mismas filas en distinto orden tienen huellas distintas.
+     *
+     * @return Huella del ADN
+     */
+    public DnaFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Huella de la forma canónica ({@link CanonicalDna}): la misma para las 8
+     * rotaciones y reflejos de la matriz y los 24 reetiquetados de sus bases.
+     *
+     * Sólo es una clave de caché válida si el resultado de la detección no
+     * depende de la orientación ni de los nombres de las bases (ver
+     * {@code MutantDetector#isSymmetryInvariant()}).
+     *
+     * @return Huella canónica del ADN
+     * @throws IllegalStateException si el alfabeto tiene bases fuera de A, T, C, G
+     */
+    public DnaFingerprint getCanonicalFingerprint() {
+        if (!rules.isTwoBitEncodable()) {
+            throw new IllegalStateException(
+                "La huella canónica sólo está disponible para alfabetos dentro de A, T, C, G: " + rules.getAlphabet()
+            );
+        }
+        DnaFingerprint canonical = canonicalFingerprint;
+        if (canonical == null) {
+            canonical = CanonicalDna.fingerprint(cells, n);
+            canonicalFingerprint = canonical;
+        }
+        return canonical;
+    }
+}
@@ -9,12 +9,12 @@ import java.lang.annotation.Target;
 import static java.lang.annotation.ElementType.*;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
-@Target({ FIELD, PARAMETER, METHOD, ANNOTATION_TYPE })
+@Target({ TYPE, FIELD, PARAMETER, METHOD, ANNOTATION_TYPE })
 @Retention(RUNTIME)
-@Constraint(validatedBy = DnaSequenceValidator.class)
+@Constraint(validatedBy = { DnaSequenceValidator.class, DnaRequestValidator.class })
 @Documented
 public @interface ValidDnaSequence {
-    String message() default "DNA sequence must be a non-empty NxN array containing only characters A,T,C,G";
+    String message() default "DNA sequence must be a non-empty NxN array containing only the configured bases (A,T,C,G by default)";
     Class<?>[] groups() default {};
     Class<? extends Payload>[] payload() default {};
 }
@@ -0,0 +1,69 @@
+package com.example.Mutantes;
+
+import java.util.Random;
+
+/**
+ * Matrices de ADN aleatorias para los tests.
+ *
+ * Todas toman el {@link Random} del test, así cada test fija su semilla y
+ * las matrices son reproducibles. Con alfabetos reducidos (1 a 3 bases)
+ * aparecen secuencias en todas las direcciones.
+ */
+public final class RandomDna {
+
+    /**
+     * Bases del perfil por defecto, en el orden en que se recortan los alfabetos.
+     */
+    public static final String BASES = "ATCG";
+
+    private RandomDna() {
+    }
+
+    /**
+     * Matriz NxN con las primeras {@code bases} bases de {@link #BASES}.
+     *
+     * @param random Generador del test
+     * @param n Tamaño de la matriz
+     * @param bases Cantidad de bases distintas (1 a 4)
+     * @return Filas de la matriz
+     */
+    public static String[] matrix(Random random, int n, int bases) {
+        return matrix(random, n, BASES.substring(0, bases));
+    }
+
+    /**
+     * Matriz NxN con bases de un alfabeto arbitrario.
+     *
+     * @param random Generador del test
+     * @param n Tamaño de la matriz
+     * @param alphabet Bases posibles
+     * @return Filas de la matriz
+     */
+    public static String[] matrix(Random random, int n, String alphabet) {
+        String[] dna = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int j = 0; j < n; j++) {
+                row.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Matriz NxN plana (fila por fila, stride N), como la reciben los motores.
+     *
+     * @param random Generador del test
+     * @param n Tamaño de la matriz
+     * @param bases Cantidad de bases distintas (1 a 4)
+     * @return Celdas de la matriz en bytes US-ASCII
+     */
+    public static byte[] flat(Random random, int n, int bases) {
+        byte[] matrix = new byte[n * n];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = (byte) BASES.charAt(random.nextInt(bases));
+        }
+        return matrix;
+    }
+}
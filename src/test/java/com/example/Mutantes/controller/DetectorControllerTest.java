@@ -0,0 +1,81 @@
+package com.example.Mutantes.controller;
+
+import com.example.Mutantes.service.MutantDetector;
+import com.example.Mutantes.service.engine.AdaptiveDetectionEngine;
+import com.example.Mutantes.service.engine.DetectionEngine;
+import com.example.Mutantes.service.engine.EngineRange;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import com.example.Mutantes.service.engine.UnrolledDetectionEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración para DetectorController.
+ *
+ * Verifica que GET /detector/engines exponga los rangos de tamaños y el motor
+ * de cada uno, y las mediciones de la calibración cuando el motor es adaptativo.
+ */
+@WebMvcTest(DetectorController.class)
+@DisplayName("DetectorController - Tests de Integración")
+class DetectorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MutantDetector mutantDetector;
+
+    @Test
+    @DisplayName("GET /detector/engines con motor fijo retorna sus rangos sin calibración")
+    void testFixedEngine() throws Exception {
+        when(mutantDetector.getEngine()).thenReturn(new ScalarDetectionEngine());
+        when(mutantDetector.getEngineRanges()).thenReturn(List.of(
+            new EngineRange(1, 3, "scalar"),
+            new EngineRange(4, 16, "unrolled"),
+            new EngineRange(17, Integer.MAX_VALUE, "scalar")
+        ));
+
+        mockMvc.perform(get("/detector/engines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.engine").value("scalar"))
+                .andExpect(jsonPath("$.ranges", hasSize(3)))
+                .andExpect(jsonPath("$.ranges[1].from_size").value(4))
+                .andExpect(jsonPath("$.ranges[1].to_size").value(16))
+                .andExpect(jsonPath("$.ranges[1].engine").value("unrolled"))
+                .andExpect(jsonPath("$.ranges[2].to_size").value(nullValue()))
+                .andExpect(jsonPath("$.calibration_millis").value(0))
+                .andExpect(jsonPath("$.calibration", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("GET /detector/engines con motor adaptativo incluye la calibración")
+    void testAdaptiveEngine() throws Exception {
+        AdaptiveDetectionEngine adaptive = new AdaptiveDetectionEngine(
+            new int[] {1, 17},
+            new DetectionEngine[] {new UnrolledDetectionEngine(), new ScalarDetectionEngine()},
+            List.of(),
+            25
+        );
+        when(mutantDetector.getEngine()).thenReturn(adaptive);
+        when(mutantDetector.getEngineRanges()).thenReturn(adaptive.getRanges());
+
+        mockMvc.perform(get("/detector/engines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.engine").value("adaptive"))
+                .andExpect(jsonPath("$.calibration_millis").value(25))
+                .andExpect(jsonPath("$.ranges", hasSize(2)))
+                .andExpect(jsonPath("$.ranges[0].engine").value("unrolled"))
+                .andExpect(jsonPath("$.ranges[1].from_size").value(17));
+    }
+}
@@ -3,14 +3,18 @@ package com.example.Mutantes.controller;
 import com.example.Mutantes.dto.StatsResponse;
 import com.example.Mutantes.service.MutantService;
 import com.example.Mutantes.service.StatsService;
+import com.example.Mutantes.service.StatsStreamPublisher;
+import com.example.Mutantes.validator.PreparedDna;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -32,6 +36,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * - POST /mutant retorna 403 si es humano
  * - POST /mutant retorna 400 si el JSON es inválido
  * - GET /stats retorna 200 con JSON correcto
+ * - GET /stats retorna 304 si el ETag de If-None-Match no cambió
+ * - GET /stats/stream abre un flujo de Server-Sent Events
  */
 @WebMvcTest(MutantController.class)
 @DisplayName("MutantController - Tests de Integración")
@@ -46,6 +52,9 @@ class MutantControllerTest {
     @MockBean
     private StatsService statsService;
 
+    @MockBean
+    private StatsStreamPublisher statsStreamPublisher;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -59,7 +68,7 @@ class MutantControllerTest {
             }
             """;
 
-        when(mutantService.analyzeDna(any(String[].class))).thenReturn(true);
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(post("/mutant")
@@ -68,7 +77,7 @@ class MutantControllerTest {
                 .andExpect(status().isOk());
 
         // Verificar que se llamó al servicio
-        verify(mutantService, times(1)).analyzeDna(any(String[].class));
+        verify(mutantService, times(1)).analyzeDna(any(PreparedDna.class));
     }
 
     @Test
@@ -81,7 +90,7 @@ class MutantControllerTest {
             }
             """;
 
-        when(mutantService.analyzeDna(any(String[].class))).thenReturn(false);
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(post("/mutant")
@@ -90,7 +99,7 @@ class MutantControllerTest {
                 .andExpect(status().isForbidden());
 
         // Verificar que se llamó al servicio
-        verify(mutantService, times(1)).analyzeDna(any(String[].class));
+        verify(mutantService, times(1)).analyzeDna(any(PreparedDna.class));
     }
 
     @Test
@@ -110,7 +119,7 @@ class MutantControllerTest {
                 .andExpect(status().isBadRequest());
 
         // Verificar que NO se llamó al servicio (falló en validación)
-        verify(mutantService, never()).analyzeDna(any(String[].class));
+        verify(mutantService, never()).analyzeDna(any(PreparedDna.class));
     }
 
     @Test
@@ -129,7 +138,7 @@ class MutantControllerTest {
                 .content(nullDnaJson))
                 .andExpect(status().isBadRequest());
 
-        verify(mutantService, never()).analyzeDna(any(String[].class));
+        verify(mutantService, never()).analyzeDna(any(PreparedDna.class));
     }
 
     @Test
@@ -148,7 +157,7 @@ class MutantControllerTest {
                 .content(emptyDnaJson))
                 .andExpect(status().isBadRequest());
 
-        verify(mutantService, never()).analyzeDna(any(String[].class));
+        verify(mutantService, never()).analyzeDna(any(PreparedDna.class));
     }
 
     @Test
@@ -256,7 +265,7 @@ class MutantControllerTest {
             }
             """;
 
-        when(mutantService.analyzeDna(any(String[].class))).thenReturn(true);
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(post("/mutant")
@@ -304,5 +313,57 @@ class MutantControllerTest {
                 .andExpect(jsonPath("$.count_human_dna").isNumber())
                 .andExpect(jsonPath("$.ratio").isNumber());
     }
-}
 
+    @Test
+    @DisplayName("GET /stats debe incluir ETag fuerte y Cache-Control configurado")
+    void testStatsETagAndCacheControl() throws Exception {
+        // Arrange
+        when(statsService.getStats()).thenReturn(new StatsResponse(40, 100, 0.4));
+
+        // Act & Assert - max-age y stale-while-revalidate de application.properties
+        mockMvc.perform(get("/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"40-100\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=1, stale-while-revalidate=5"));
+    }
+
+    @Test
+    @DisplayName("GET /stats con If-None-Match vigente debe retornar 304 sin cuerpo")
+    void testStatsNotModified() throws Exception {
+        // Arrange
+        when(statsService.getStats()).thenReturn(new StatsResponse(40, 100, 0.4));
+
+        // Act & Assert
+        mockMvc.perform(get("/stats").header(HttpHeaders.IF_NONE_MATCH, "\"40-100\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"40-100\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /stats con If-None-Match desactualizado debe retornar 200 con el nuevo ETag")
+    void testStatsModified() throws Exception {
+        // Arrange - hubo un INSERT desde el ETag del cliente
+        when(statsService.getStats()).thenReturn(new StatsResponse(41, 100, 0.41));
+
+        // Act & Assert
+        mockMvc.perform(get("/stats").header(HttpHeaders.IF_NONE_MATCH, "\"40-100\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"41-100\""))
+                .andExpect(jsonPath("$.count_mutant_dna").value(41));
+    }
+
+    @Test
+    @DisplayName("GET /stats/stream debe abrir un flujo de Server-Sent Events")
+    void testStatsStream() throws Exception {
+        // Arrange
+        when(statsStreamPublisher.subscribe()).thenReturn(new SseEmitter());
+
+        // Act & Assert - la petición queda abierta (asíncrona) sin ocupar el hilo
+        mockMvc.perform(get("/stats/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(statsStreamPublisher, times(1)).subscribe();
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.Mutantes.repository;
 
 import com.example.Mutantes.entity.DnaRecord;
+import com.example.Mutantes.validator.DnaFingerprint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,8 +27,12 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Una base de datos H2 en memoria
  * - Spring Data JPA
  * - Transaction management (cada test se rollback automáticamente)
+ *
+ * {@link DnaRecordIdAllocator} se importa a mano porque @DataJpaTest no
+ * registra los @Component.
  */
 @DataJpaTest
+@Import(DnaRecordIdAllocator.class)
 @ActiveProfiles("test")
 @DisplayName("DnaRecordRepository - Tests de Persistencia")
 class DnaRecordRepositoryTest {
@@ -43,13 +53,13 @@ class DnaRecordRepositoryTest {
 
         // Crear registros de prueba
         mutantRecord = DnaRecord.builder()
-                .dnaHash("hash_mutant_123")
+                .fingerprintHi(1L).fingerprintLo(123L)
                 .isMutant(true)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         humanRecord = DnaRecord.builder()
-                .dnaHash("hash_human_456")
+                .fingerprintHi(2L).fingerprintLo(456L)
                 .isMutant(false)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -63,32 +73,32 @@ class DnaRecordRepositoryTest {
 
         // Then
         assertNotNull(saved.getId());
-        assertEquals("hash_mutant_123", saved.getDnaHash());
+        assertEquals(new DnaFingerprint(1L, 123L), saved.getFingerprint());
         assertTrue(saved.isMutant());
         assertNotNull(saved.getCreatedAt());
     }
 
     @Test
-    @DisplayName("Debe encontrar un registro por su hash")
-    void testFindByDnaHash() {
+    @DisplayName("Debe encontrar un registro por su huella")
+    void testFindByFingerprint() {
         // Given
         repository.save(mutantRecord);
         entityManager.flush();
 
         // When
-        Optional<DnaRecord> found = repository.findByDnaHash("hash_mutant_123");
+        Optional<DnaRecord> found = repository.findByFingerprint(new DnaFingerprint(1L, 123L));
 
         // Then
         assertTrue(found.isPresent());
-        assertEquals("hash_mutant_123", found.get().getDnaHash());
+        assertEquals(new DnaFingerprint(1L, 123L), found.get().getFingerprint());
         assertTrue(found.get().isMutant());
     }
 
     @Test
-    @DisplayName("Debe retornar Optional.empty() cuando el hash no existe")
-    void testFindByDnaHashNotFound() {
+    @DisplayName("Debe retornar Optional.empty() cuando la huella no existe")
+    void testFindByFingerprintNotFound() {
         // When
-        Optional<DnaRecord> found = repository.findByDnaHash("hash_inexistente");
+        Optional<DnaRecord> found = repository.findByFingerprint(new DnaFingerprint(9L, 999L));
 
         // Then
         assertFalse(found.isPresent());
@@ -102,7 +112,7 @@ class DnaRecordRepositoryTest {
         repository.save(humanRecord);
 
         DnaRecord anotherMutant = DnaRecord.builder()
-                .dnaHash("hash_mutant_789")
+                .fingerprintHi(1L).fingerprintLo(789L)
                 .isMutant(true)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -125,7 +135,7 @@ class DnaRecordRepositoryTest {
         repository.save(humanRecord);
 
         DnaRecord anotherHuman = DnaRecord.builder()
-                .dnaHash("hash_human_789")
+                .fingerprintHi(2L).fingerprintLo(789L)
                 .isMutant(false)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -155,16 +165,16 @@ class DnaRecordRepositoryTest {
     }
 
     @Test
-    @DisplayName("Debe respetar la restricción de unicidad del hash")
-    void testUniqueConstraintOnDnaHash() {
+    @DisplayName("Debe respetar la restricción de unicidad de la huella")
+    void testUniqueConstraintOnFingerprint() {
         // Given
         repository.save(mutantRecord);
         entityManager.flush();
         entityManager.clear();
 
-        // When - intentar guardar otro registro con el mismo hash
+        // When - intentar guardar otro registro con la misma huella
         DnaRecord duplicate = DnaRecord.builder()
-                .dnaHash("hash_mutant_123") // Mismo hash
+                .fingerprintHi(1L).fingerprintLo(123L) // Misma huella
                 .isMutant(false) // Diferente resultado
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -176,11 +186,123 @@ class DnaRecordRepositoryTest {
         });
     }
 
+    @Test
+    @DisplayName("La unicidad es sobre la huella completa: basta que difiera una mitad")
+    void testUniqueConstraintIsComposite() {
+        // Given - misma mitad alta que mutantRecord, distinta mitad baja
+        repository.save(mutantRecord);
+        DnaRecord sameHi = DnaRecord.builder()
+                .fingerprintHi(1L).fingerprintLo(124L)
+                .isMutant(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        // When
+        repository.save(sameHi);
+        entityManager.flush();
+
+        // Then
+        assertEquals(2, repository.count());
+        assertFalse(repository.findByFingerprint(new DnaFingerprint(1L, 124L)).get().isMutant());
+        assertTrue(repository.findByFingerprint(new DnaFingerprint(1L, 123L)).get().isMutant());
+    }
+
+    @Test
+    @DisplayName("insertIfAbsent: inserta la huella nueva con createdAt")
+    void testInsertIfAbsentInsertsNewFingerprint() {
+        // When
+        boolean inserted = repository.insertIfAbsent(new DnaFingerprint(5L, 6L), true);
+
+        // Then
+        assertTrue(inserted);
+        Optional<DnaRecord> stored = repository.findByFingerprint(new DnaFingerprint(5L, 6L));
+        assertTrue(stored.isPresent());
+        assertTrue(stored.get().isMutant());
+        assertNotNull(stored.get().getCreatedAt());
+        assertNotNull(stored.get().getId());
+    }
+
+    @Test
+    @DisplayName("insertIfAbsent: no modifica ni duplica una huella existente")
+    void testInsertIfAbsentKeepsExistingRecord() {
+        // Given
+        repository.save(mutantRecord);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - misma huella con otro resultado
+        boolean inserted = repository.insertIfAbsent(new DnaFingerprint(1L, 123L), false);
+
+        // Then - sin excepción, sin fila nueva y con el resultado original
+        assertFalse(inserted);
+        assertEquals(1, repository.count());
+        assertTrue(repository.findByFingerprint(new DnaFingerprint(1L, 123L)).get().isMutant());
+    }
+
+    @Test
+    @DisplayName("saveAllInBatches: inserta en lotes registros con ids distintos")
+    void testSaveAllInBatches() {
+        // Given - más de un lote y de un bloque de ids de la secuencia
+        List<DnaRecord> records = new ArrayList<>();
+        for (long k = 0; k < 1234; k++) {
+            records.add(new DnaRecord(new DnaFingerprint(7L, k), k % 3 == 0));
+        }
+
+        // When
+        int saved = repository.saveAllInBatches(records);
+
+        // Then
+        assertEquals(1234, saved);
+        assertEquals(1234, repository.count());
+        assertEquals(412, repository.countByIsMutant(true));
+        assertEquals(1234, records.stream().map(DnaRecord::getId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Los ids del MERGE nativo y los de Hibernate no se pisan")
+    void testNativeAndJpaIdsDoNotCollide() {
+        // Given - se alternan ids de la secuencia pedidos por Hibernate y por el MERGE
+        repository.save(mutantRecord);
+        assertTrue(repository.insertIfAbsent(new DnaFingerprint(8L, 1L), true));
+        repository.save(humanRecord);
+        List<DnaRecord> records = new ArrayList<>();
+        for (long k = 0; k < 2L * DnaRecord.ID_ALLOCATION_SIZE; k++) {
+            records.add(new DnaRecord(new DnaFingerprint(9L, k), false));
+        }
+        repository.saveAllInBatches(records);
+        assertTrue(repository.insertIfAbsent(new DnaFingerprint(8L, 2L), false));
+
+        // Then - la clave primaria no se repite
+        List<DnaRecord> all = repository.findAll();
+        assertEquals(4 + 2 * DnaRecord.ID_ALLOCATION_SIZE, all.size());
+        assertEquals(all.size(), all.stream().map(DnaRecord::getId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Cada MERGE nativo consume un solo id, no un bloque de la secuencia")
+    void testNativeInsertsUseConsecutiveIds() {
+        // When - más inserciones nativas que ids en un bloque
+        int inserts = DnaRecord.ID_ALLOCATION_SIZE + 10;
+        for (long k = 0; k < inserts; k++) {
+            assertTrue(repository.insertIfAbsent(new DnaFingerprint(10L, k), false));
+        }
+        // Una huella repetida no inserta nada
+        assertFalse(repository.insertIfAbsent(new DnaFingerprint(10L, 0L), true));
+
+        // Then - la secuencia arranca en 1 y avanza de a un bloque, así que
+        // (id - 1) / ID_ALLOCATION_SIZE identifica el bloque de cada id: los ids
+        // ocupan a lo sumo el resto de un bloque anterior y dos más
+        List<DnaRecord> all = repository.findAll();
+        assertEquals(inserts, all.size());
+        long blocks = all.stream().map(r -> (r.getId() - 1) / DnaRecord.ID_ALLOCATION_SIZE).distinct().count();
+        assertTrue(blocks <= 3, "bloques de la secuencia usados: " + blocks);
+    }
+
     @Test
     @DisplayName("Debe inicializar createdAt automáticamente con @PrePersist")
     void testCreatedAtAutoInitialization() {
         // Given - crear registro sin createdAt
-        DnaRecord record = new DnaRecord("hash_test_auto", true);
+        DnaRecord record = new DnaRecord(new DnaFingerprint(3L, 1L), true);
         assertNull(record.getCreatedAt()); // Aún no tiene fecha
 
         // When
@@ -192,23 +314,23 @@ class DnaRecordRepositoryTest {
     }
 
     @Test
-    @DisplayName("Debe permitir múltiples registros con diferentes hashes")
-    void testMultipleRecordsWithDifferentHashes() {
+    @DisplayName("Debe permitir múltiples registros con diferentes huellas")
+    void testMultipleRecordsWithDifferentFingerprints() {
         // Given
         DnaRecord record1 = DnaRecord.builder()
-                .dnaHash("hash_1")
+                .fingerprintHi(4L).fingerprintLo(1L)
                 .isMutant(true)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         DnaRecord record2 = DnaRecord.builder()
-                .dnaHash("hash_2")
+                .fingerprintHi(4L).fingerprintLo(2L)
                 .isMutant(false)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         DnaRecord record3 = DnaRecord.builder()
-                .dnaHash("hash_3")
+                .fingerprintHi(4L).fingerprintLo(3L)
                 .isMutant(true)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -234,8 +356,8 @@ class DnaRecordRepositoryTest {
         entityManager.flush();
 
         // When
-        Optional<DnaRecord> foundMutant = repository.findByDnaHash("hash_mutant_123");
-        Optional<DnaRecord> foundHuman = repository.findByDnaHash("hash_human_456");
+        Optional<DnaRecord> foundMutant = repository.findByFingerprint(new DnaFingerprint(1L, 123L));
+        Optional<DnaRecord> foundHuman = repository.findByFingerprint(new DnaFingerprint(2L, 456L));
 
         // Then
         assertTrue(foundMutant.isPresent());
@@ -286,5 +408,24 @@ class DnaRecordRepositoryTest {
         Optional<DnaRecord> deleted = repository.findById(id);
         assertFalse(deleted.isPresent());
     }
-}
 
+    @Test
+    @DisplayName("Debe recorrer las huellas de todos los registros")
+    void testStreamAllFingerprints() {
+        // Given
+        repository.save(mutantRecord);
+        repository.save(humanRecord);
+        entityManager.flush();
+
+        // When
+        List<DnaFingerprint> fingerprints;
+        try (Stream<DnaFingerprint> stream = repository.streamAllFingerprints()) {
+            fingerprints = stream.collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(2, fingerprints.size());
+        assertTrue(fingerprints.contains(new DnaFingerprint(1L, 123L)));
+        assertTrue(fingerprints.contains(new DnaFingerprint(2L, 456L)));
+    }
+}
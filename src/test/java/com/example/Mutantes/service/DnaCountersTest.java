@@ -0,0 +1,82 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.repository.DnaRecordRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifica los contadores de /stats: carga inicial desde la tabla e
+ * incrementos sin consultar la base de datos.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DnaCounters - Contadores de /stats en memoria")
+class DnaCountersTest {
+
+    @Mock
+    private DnaRecordRepository dnaRecordRepository;
+
+    @InjectMocks
+    private DnaCounters dnaCounters;
+
+    @Test
+    @DisplayName("Carga los conteos de la tabla una sola vez")
+    void testLoadFromTable() {
+        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(40L);
+        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(100L);
+
+        dnaCounters.load();
+
+        assertEquals(40, dnaCounters.getMutantCount());
+        assertEquals(100, dnaCounters.getHumanCount());
+        assertEquals(140, dnaCounters.getTotalCount());
+        verify(dnaRecordRepository, times(1)).countByIsMutant(true);
+        verify(dnaRecordRepository, times(1)).countByIsMutant(false);
+    }
+
+    @Test
+    @DisplayName("Los INSERT confirmados se suman sin consultar la BD")
+    void testRecordInserted() {
+        dnaCounters.load();
+
+        dnaCounters.recordInserted(true);
+        dnaCounters.recordInserted(false);
+        dnaCounters.recordInserted(false);
+        dnaCounters.recordInserted(3, 4);
+
+        assertEquals(4, dnaCounters.getMutantCount());
+        assertEquals(6, dnaCounters.getHumanCount());
+        verify(dnaRecordRepository, times(2)).countByIsMutant(anyBoolean());
+        verifyNoMoreInteractions(dnaRecordRepository);
+    }
+
+    @Test
+    @DisplayName("Incrementos concurrentes no se pierden")
+    void testConcurrentIncrements() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            boolean isMutant = t % 2 == 0;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    dnaCounters.recordInserted(isMutant);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, dnaCounters.getMutantCount());
+        assertEquals(40_000, dnaCounters.getHumanCount());
+    }
+}
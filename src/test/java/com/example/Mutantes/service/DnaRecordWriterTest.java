@@ -0,0 +1,211 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.repository.DnaRecordIdAllocator;
+import com.example.Mutantes.repository.DnaRecordRepository;
+import com.example.Mutantes.validator.DnaFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifica el write-behind: lotes por tamaño, vaciado al cerrar, escritura
+ * sincrónica con la cola llena y reintento registro por registro.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DnaRecordWriter - Persistencia write-behind")
+class DnaRecordWriterTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DnaRecordIdAllocator idAllocator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DnaCounters dnaCounters;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private DnaRecordWriter writer;
+
+    private DnaRecordWriter writer(boolean enabled, int queueCapacity, int batchSize) {
+        writer = new DnaRecordWriter(enabled, queueCapacity, batchSize, Duration.ofMillis(20), Duration.ofSeconds(5),
+            jdbcTemplate, idAllocator, transactionManager, dnaCounters, registry);
+        writer.start();
+        return writer;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Deshabilitado: no acepta registros y el llamador escribe de forma sincrónica")
+    void testDisabled() {
+        DnaRecordWriter disabled = writer(false, 10, 10);
+
+        assertFalse(disabled.enqueue(new DnaFingerprint(1L, 2L), true));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Escribe todo en lotes de a lo sumo batch-size y vacía la cola al cerrar")
+    void testBatchesAndDrainOnClose() {
+        // El MERGE inserta todas las filas del lote
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<SqlParameterSource[]>getArgument(1).length];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        DnaRecordWriter batched = writer(true, 100, 4);
+
+        for (long k = 0; k < 10; k++) {
+            assertTrue(batched.enqueue(new DnaFingerprint(k, ~k), k % 2 == 0));
+        }
+        batched.close();
+
+        ArgumentCaptor<SqlParameterSource[]> batches = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, atLeast(3)).batchUpdate(eq(DnaRecordRepository.INSERT_IF_ABSENT_SQL), batches.capture());
+        int written = 0;
+        for (SqlParameterSource[] batch : batches.getAllValues()) {
+            assertTrue(batch.length <= 4, "Lote de " + batch.length + " registros");
+            written += batch.length;
+        }
+        assertEquals(10, written);
+        assertEquals(0, batched.pending());
+        assertFalse(batched.enqueue(new DnaFingerprint(11L, 12L), true), "Cerrado: no debe aceptar más registros");
+        assertTrue(registry.get("mutant.writer.flush").timer().count() >= 3);
+
+        // Los contadores de /stats suman 5 mutantes y 5 humanos, repartidos en los lotes
+        ArgumentCaptor<Long> mutants = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> humans = ArgumentCaptor.forClass(Long.class);
+        verify(dnaCounters, atLeast(3)).recordInserted(mutants.capture(), humans.capture());
+        assertEquals(5L, mutants.getAllValues().stream().mapToLong(Long::longValue).sum());
+        assertEquals(5L, humans.getAllValues().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Las huellas que el MERGE no insertó no se cuentan en /stats")
+    void testExistingFingerprintsAreNotCounted() {
+        // La huella (1, 1) ya existía: el MERGE no inserta su fila
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            int[] counts = new int[batch.length];
+            for (int i = 0; i < batch.length; i++) {
+                counts[i] = Long.valueOf(1L).equals(batch[i].getValue("hi")) ? 0 : 1;
+            }
+            return counts;
+        });
+        DnaRecordWriter counting = writer(true, 10, 2);
+
+        assertTrue(counting.enqueue(new DnaFingerprint(1L, 1L), true));
+        assertTrue(counting.enqueue(new DnaFingerprint(2L, 2L), false));
+        counting.close();
+
+        ArgumentCaptor<Long> mutants = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> humans = ArgumentCaptor.forClass(Long.class);
+        verify(dnaCounters, atLeastOnce()).recordInserted(mutants.capture(), humans.capture());
+        assertEquals(0L, mutants.getAllValues().stream().mapToLong(Long::longValue).sum());
+        assertEquals(1L, humans.getAllValues().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Cola llena: retorna false para que el llamador escriba de forma sincrónica")
+    void testQueueFullFallsBackToSync() throws InterruptedException {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            flushing.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return new int[] {1};
+        });
+        DnaRecordWriter blocked = writer(true, 1, 1);
+
+        // El primero queda en el lote que se está escribiendo; el segundo ocupa la cola
+        assertTrue(blocked.enqueue(new DnaFingerprint(1L, 1L), true));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        assertTrue(blocked.enqueue(new DnaFingerprint(2L, 2L), true));
+        assertFalse(blocked.enqueue(new DnaFingerprint(3L, 3L), true));
+
+        assertEquals(1.0, registry.get("mutant.writer.sync.fallbacks").counter().count());
+        assertEquals(1.0, registry.get("mutant.writer.queue.depth").gauge().value());
+        release.countDown();
+        blocked.close();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    @DisplayName("Si falla el lote, reintenta registro por registro y tolera huellas ya guardadas")
+    void testFailedBatchIsRetriedOneByOne() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+            .thenThrow(new DataIntegrityViolationException("uk_dna_records_fingerprint"));
+        when(jdbcTemplate.update(anyString(), any(SqlParameterSource.class)))
+            .thenReturn(1)
+            .thenThrow(new DataIntegrityViolationException("uk_dna_records_fingerprint"))
+            .thenReturn(1);
+        DnaRecordWriter retrying = writer(true, 10, 3);
+
+        for (long k = 0; k < 3; k++) {
+            assertTrue(retrying.enqueue(new DnaFingerprint(k, k), true));
+        }
+        retrying.close();
+
+        verify(jdbcTemplate, times(3)).update(eq(DnaRecordRepository.INSERT_IF_ABSENT_SQL), any(SqlParameterSource.class));
+        assertEquals(0.0, registry.get("mutant.writer.failed").counter().count());
+        verify(dnaCounters, times(2)).recordInserted(true);
+    }
+
+    @Test
+    @DisplayName("Un error no JDBC en el lote también reintenta uno por uno y cuenta los registros perdidos")
+    void testUnexpectedErrorCountsFailedRecords() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+            .thenThrow(new IllegalStateException("sin conexión"));
+        when(jdbcTemplate.update(anyString(), any(SqlParameterSource.class)))
+            .thenReturn(1)
+            .thenThrow(new IllegalStateException("sin conexión"))
+            .thenReturn(1);
+        DnaRecordWriter retrying = writer(true, 10, 3);
+
+        for (long k = 0; k < 3; k++) {
+            assertTrue(retrying.enqueue(new DnaFingerprint(k, k), false));
+        }
+        retrying.close();
+
+        verify(jdbcTemplate, times(3)).update(eq(DnaRecordRepository.INSERT_IF_ABSENT_SQL), any(SqlParameterSource.class));
+        assertEquals(1.0, registry.get("mutant.writer.failed").counter().count());
+        verify(dnaCounters, times(2)).recordInserted(false);
+    }
+
+    @Test
+    @DisplayName("Una configuración inválida debe lanzar excepción")
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new DnaRecordWriter(true, 0, 10,
+            Duration.ofMillis(20), Duration.ofSeconds(5), jdbcTemplate, idAllocator, transactionManager, dnaCounters, registry));
+        assertThrows(IllegalArgumentException.class, () -> new DnaRecordWriter(true, 10, 10,
+            Duration.ZERO, Duration.ofSeconds(5), jdbcTemplate, idAllocator, transactionManager, dnaCounters, registry));
+    }
+}
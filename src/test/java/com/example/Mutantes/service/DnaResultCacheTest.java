@@ -0,0 +1,75 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.validator.DnaFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la caché L1 de resultados: presupuesto en bytes, contadores de
+ * aciertos, fallos y desalojos, y su publicación en Micrometer.
+ */
+@DisplayName("DnaResultCache - Caché L1 acotada en bytes")
+class DnaResultCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Cuenta aciertos y fallos y los publica como métricas")
+    void testHitsAndMisses() {
+        DnaResultCache cache = new DnaResultCache(DataSize.ofKilobytes(64), registry);
+        DnaFingerprint key = new DnaFingerprint(1L, 2L);
+
+        assertNull(cache.get(key));
+        cache.put(key, true);
+        assertEquals(Boolean.TRUE, cache.get(key));
+        assertEquals(Boolean.TRUE, cache.get(new DnaFingerprint(1L, 2L)), "Huellas iguales, misma entrada");
+
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", DnaResultCache.NAME).tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", DnaResultCache.NAME).tag("result", "miss")
+            .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("El presupuesto en bytes acota las entradas y cuenta los desalojos")
+    void testByteBudget() {
+        DnaResultCache cache = new DnaResultCache(DataSize.ofBytes(10L * DnaResultCache.ENTRY_BYTES), registry);
+
+        for (long k = 0; k < 100; k++) {
+            cache.put(new DnaFingerprint(k, ~k), k % 2 == 0);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.weightedSize() <= cache.getMaxBytes(), "No debe superar el presupuesto");
+        assertEquals(90, cache.stats().evictionCount());
+        assertEquals(90.0, registry.get("cache.evictions").tag("cache", DnaResultCache.NAME)
+            .functionCounter().count());
+        assertEquals((double) cache.weightedSize(), registry.get("mutant.cache.bytes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Un presupuesto de 0 deshabilita la caché")
+    void testDisabled() {
+        DnaResultCache cache = new DnaResultCache(DataSize.ofBytes(0), registry);
+        DnaFingerprint key = new DnaFingerprint(3L, 4L);
+
+        cache.put(key, false);
+        cache.cleanUp();
+
+        assertNull(cache.get(key));
+        assertEquals(0, cache.weightedSize());
+    }
+
+    @Test
+    @DisplayName("Un presupuesto negativo debe lanzar excepción")
+    void testNegativeSize() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new DnaResultCache(DataSize.ofBytes(-1), registry));
+    }
+}
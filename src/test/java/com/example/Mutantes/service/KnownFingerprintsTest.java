@@ -0,0 +1,86 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.repository.DnaRecordRepository;
+import com.example.Mutantes.validator.DnaFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifica la caché negativa de huellas: carga inicial desde la tabla,
+ * actualización en cada INSERT y respuesta conservadora ("quizás") mientras
+ * no terminó de cargar.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KnownFingerprints - Filtro de Bloom de huellas guardadas")
+class KnownFingerprintsTest {
+
+    @Mock
+    private DnaRecordRepository dnaRecordRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final DnaFingerprint stored = new DnaFingerprint(11L, 12L);
+    private final DnaFingerprint unseen = new DnaFingerprint(21L, 22L);
+
+    private KnownFingerprints knownFingerprints(boolean enabled) {
+        return new KnownFingerprints(enabled, 0.001, 1_000, dnaRecordRepository, registry);
+    }
+
+    @Test
+    @DisplayName("Antes de cargar responde siempre \"quizás\" (nunca un falso negativo)")
+    void testBeforeLoad() {
+        KnownFingerprints known = knownFingerprints(true);
+
+        assertFalse(known.isLoaded());
+        assertTrue(known.mightContain(unseen));
+    }
+
+    @Test
+    @DisplayName("Después de cargar descarta las huellas que no están en la tabla")
+    void testLoadFromTable() {
+        when(dnaRecordRepository.streamAllFingerprints()).thenReturn(Stream.of(stored, new DnaFingerprint(13L, 14L)));
+        KnownFingerprints known = knownFingerprints(true);
+
+        known.load();
+
+        assertTrue(known.isLoaded());
+        assertTrue(known.mightContain(stored));
+        assertFalse(known.mightContain(unseen));
+        assertEquals(1.0, registry.get("mutant.bloom.skipped.lookups").counter().count());
+        assertEquals(2.0, registry.get("mutant.bloom.entries").gauge().value());
+        assertTrue(registry.get("mutant.bloom.bytes").gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Las huellas insertadas después de cargar se agregan al filtro")
+    void testAddAfterLoad() {
+        when(dnaRecordRepository.streamAllFingerprints()).thenReturn(Stream.empty());
+        KnownFingerprints known = knownFingerprints(true);
+        known.load();
+
+        assertFalse(known.mightContain(unseen));
+        known.add(unseen);
+        assertTrue(known.mightContain(unseen));
+    }
+
+    @Test
+    @DisplayName("Deshabilitado: siempre consulta la BD y no recorre la tabla")
+    void testDisabled() {
+        KnownFingerprints known = knownFingerprints(false);
+
+        known.load();
+        known.add(stored);
+
+        assertTrue(known.mightContain(unseen));
+        verifyNoInteractions(dnaRecordRepository);
+    }
+}
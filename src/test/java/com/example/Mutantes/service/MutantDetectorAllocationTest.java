@@ -0,0 +1,92 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.RandomDna;
+import com.example.Mutantes.service.engine.BitboardDetectionEngine;
+import com.example.Mutantes.service.engine.RunLengthDetectionEngine;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifica que el camino caliente de detección no asigne memoria en estado estable.
+ *
+ * Usa com.sun.management.ThreadMXBean#getThreadAllocatedBytes para medir los
+ * bytes asignados por el hilo actual durante miles de detecciones, después de
+ * una fase de calentamiento que dimensiona los buffers reutilizables.
+ */
+@DisplayName("MutantDetector - Asignación de memoria en estado estable")
+class MutantDetectorAllocationTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Test
+    @DisplayName("Motor escalar: cero bytes asignados por detección (matrices 6x6 a 64x64)")
+    void testScalarIsAllocationFree() {
+        assertAllocationFree(new MutantDetector(new ScalarDetectionEngine()));
+    }
+
+    @Test
+    @DisplayName("Motor run-length: cero bytes asignados por detección")
+    void testRunLengthIsAllocationFree() {
+        assertAllocationFree(new MutantDetector(new RunLengthDetectionEngine()));
+    }
+
+    @Test
+    @DisplayName("Motor bitboard: cero bytes asignados por detección")
+    void testBitboardIsAllocationFree() {
+        assertAllocationFree(new MutantDetector(new BitboardDetectionEngine()));
+    }
+
+    @Test
+    @DisplayName("Detectores desenrollados (configuración por defecto): cero bytes asignados por detección")
+    void testUnrolledIsAllocationFree() {
+        assertAllocationFree(new MutantDetector());
+    }
+
+    private void assertAllocationFree(MutantDetector detector) {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        String[][] inputs = {
+            randomDna(6, 1), randomDna(10, 2), randomDna(16, 3), randomDna(32, 4), randomDna(64, 5)
+        };
+
+        // Calentamiento: dimensiona los buffers por hilo y da tiempo al JIT
+        int sink = 0;
+        for (int k = 0; k < WARMUP; k++) {
+            sink += detector.isMutant(inputs[k % inputs.length]) ? 1 : 0;
+            sink += detector.countMutantSequences(inputs[k % inputs.length]);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int k = 0; k < ITERATIONS; k++) {
+            sink += detector.isMutant(inputs[k % inputs.length]) ? 1 : 0;
+            sink += detector.countMutantSequences(inputs[k % inputs.length]);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(sink > 0);
+        assertEquals(0, allocated / ITERATIONS,
+            "Bytes asignados por detección en estado estable (total " + allocated + ")");
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+            "La JVM no expone com.sun.management.ThreadMXBean");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Medición de asignación no soportada");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static String[] randomDna(int n, long seed) {
+        return RandomDna.matrix(new Random(seed), n, 4);
+    }
+}
@@ -1,9 +1,23 @@
 package com.example.Mutantes.service;
 
+import com.example.Mutantes.RandomDna;
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import com.example.Mutantes.service.engine.EngineRange;
+import com.example.Mutantes.service.engine.ScalarDetectionEngine;
+import com.example.Mutantes.service.engine.ThreadLocalScratch;
+import com.example.Mutantes.validator.PreparedDna;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -180,7 +194,7 @@ class MutantDetectorTest {
     @Test
     @DisplayName("Validación: ADN null debe retornar false")
     void testNullDna() {
-        assertFalse(detector.isMutant(null), "ADN null debe retornar false");
+        assertFalse(detector.isMutant((String[]) null), "ADN null debe retornar false");
     }
 
     @Test
@@ -452,5 +466,460 @@ class MutantDetectorTest {
             "Matriz rectangular debe lanzar excepción"
         );
     }
-}
 
+    // ==================================================================================
+    // MODO PARALELO (matrices grandes)
+    // ==================================================================================
+
+    @Test
+    @DisplayName("Paralelo: mismo conteo y resultado que el modo secuencial en matriz 500x500")
+    void testParallelModeMatchesSequential() {
+        int size = 500;
+        String[] dna = RandomDna.matrix(new Random(2024), size, 4);
+
+        MutantDetector sequential = new MutantDetector(new ScalarDetectionEngine(), 0);
+        MutantDetector parallel = new MutantDetector(new ScalarDetectionEngine(), 100);
+
+        assertEquals(sequential.countMutantSequences(dna), parallel.countMutantSequences(dna),
+            "El conteo paralelo no debe duplicar secuencias entre franjas");
+        assertEquals(sequential.isMutant(dna), parallel.isMutant(dna),
+            "El modo paralelo debe dar el mismo resultado");
+    }
+
+    @Test
+    @DisplayName("Paralelo: secuencia vertical que cruza el borde entre franjas")
+    void testParallelSequenceAcrossStrips() {
+        int size = 256;
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                // Patrón sin secuencias en ninguna dirección
+                row.append("ATCG".charAt((j + 2 * i) % 4));
+            }
+            dna[i] = row.toString();
+        }
+        // Una única secuencia vertical en filas 126..129 (cruza el límite entre franjas)
+        for (int i = 126; i < 130; i++) {
+            dna[i] = "G" + dna[i].substring(1);
+        }
+
+        MutantDetector parallel = new MutantDetector(new ScalarDetectionEngine(), 100);
+
+        assertEquals(1, parallel.countMutantSequences(dna), "La secuencia debe contarse una sola vez");
+        assertFalse(parallel.isMutant(dna), "Con UNA secuencia debe ser HUMANO");
+    }
+
+    // ==================================================================================
+    // API DE BYTES (US-ASCII, buffer plano con stride)
+    // ==================================================================================
+
+    @Test
+    @DisplayName("Bytes: matriz embebida con offset y stride da el mismo resultado que String[]")
+    void testByteApiWithStride() {
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATGT",
+            "AGAAGG",
+            "CCCCTA",
+            "TCACTG"
+        };
+        // Cada fila separada por "\n" como en un cuerpo de texto: stride = N + 1
+        byte[] body = ("xx" + String.join("\n", dna)).getBytes(StandardCharsets.US_ASCII);
+
+        assertTrue(detector.isMutant(body, 2, 6, 7), "Debe detectar mutante sobre el buffer con stride");
+        assertEquals(detector.countMutantSequences(dna), detector.countMutantSequences(body, 2, 6, 7),
+            "El conteo debe coincidir con el de String[]");
+    }
+
+    @Test
+    @DisplayName("Bytes: ByteBuffer en heap y directo")
+    void testByteBufferApi() {
+        byte[] cells = "AAAATTTTCCCCGGGG".getBytes(StandardCharsets.US_ASCII);
+
+        ByteBuffer heap = ByteBuffer.wrap(cells);
+        ByteBuffer direct = ByteBuffer.allocateDirect(cells.length);
+        direct.put(cells).flip();
+
+        assertTrue(detector.isMutant(heap, 4, 4), "Debe detectar mutante en buffer heap");
+        assertTrue(detector.isMutant(direct, 4, 4), "Debe detectar mutante en buffer directo");
+        assertEquals(0, direct.position(), "No debe modificar la posición del buffer");
+    }
+
+    @Test
+    @DisplayName("Bytes: base inválida o buffer insuficiente deben lanzar excepción")
+    void testByteApiValidation() {
+        byte[] invalid = "ATGCTBATCGATGCAT".getBytes(StandardCharsets.US_ASCII);
+        byte[] valid = "ATGCATGCATGCATGC".getBytes(StandardCharsets.US_ASCII);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> detector.isMutant(invalid, 0, 4, 4)
+        );
+        assertTrue(exception.getMessage().contains("inválido"));
+
+        assertThrows(IllegalArgumentException.class, () -> detector.isMutant(valid, 0, 4, 5),
+            "El buffer no alcanza para 4 filas con stride 5");
+        assertThrows(IllegalArgumentException.class, () -> detector.isMutant(valid, 0, 4, 3),
+            "El stride no puede ser menor que N");
+    }
+
+    // ==================================================================================
+    // CAMINO RÁPIDO POR TABLAS (N <= 8)
+    // ==================================================================================
+
+    @Test
+    @DisplayName("Tablas: mismo conteo y resultado que el detector por defecto para N de 1 a 10")
+    void testLookupTableMatchesDefault() {
+        MutantDetector lookup = new MutantDetector(new ScalarDetectionEngine(), 0,
+            ThreadLocalScratch.DEFAULT_MAX_ELEMENTS, DetectionRules.DEFAULT, false, true);
+        Random random = new Random(8);
+        for (int size = 1; size <= 10; size++) {
+            for (int k = 0; k < 200; k++) {
+                String[] dna = RandomDna.matrix(random, size, 2 + (k & 1));
+                assertEquals(detector.countMutantSequences(dna), lookup.countMutantSequences(dna),
+                    "N=" + size + ", matriz " + k);
+                assertEquals(detector.isMutant(dna), lookup.isMutant(dna), "N=" + size + ", matriz " + k);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Rangos de motores: reflejan los umbrales fijos de la configuración")
+    void testEngineRangesForFixedRouting() {
+        MutantDetector configured = new MutantDetector(new ScalarDetectionEngine(), 100,
+            ThreadLocalScratch.DEFAULT_MAX_ELEMENTS, DetectionRules.DEFAULT, true, false);
+
+        List<EngineRange> ranges = configured.getEngineRanges();
+
+        assertEquals(4, ranges.size(), ranges.toString());
+        assertEquals("scalar", ranges.get(0).getEngine());
+        assertEquals(3, ranges.get(0).getToSize());
+        assertEquals("unrolled", ranges.get(1).getEngine());
+        assertEquals(4, ranges.get(1).getFromSize());
+        assertEquals(16, ranges.get(1).getToSize());
+        assertEquals("scalar", ranges.get(2).getEngine());
+        assertEquals(99, ranges.get(2).getToSize());
+        assertEquals("parallel", ranges.get(3).getEngine());
+        assertEquals(Integer.MAX_VALUE, ranges.get(3).getToSize());
+    }
+
+    @Test
+    @DisplayName("Rangos de motores: un único rango sin caminos especiales")
+    void testEngineRangesSingleEngine() {
+        MutantDetector single = new MutantDetector(new ScalarDetectionEngine(), 0);
+
+        List<EngineRange> ranges = single.getEngineRanges();
+
+        assertEquals(1, ranges.size(), ranges.toString());
+        assertEquals(1, ranges.get(0).getFromSize());
+        assertEquals(Integer.MAX_VALUE, ranges.get(0).getToSize());
+        assertEquals("scalar", ranges.get(0).getEngine());
+    }
+
+    @Test
+    @DisplayName("ADN preparado: mismo resultado que isMutant(String[])")
+    void testPreparedDnaMatchesStrings() {
+        Random random = new Random(17);
+        for (int size = 1; size <= 20; size++) {
+            for (int k = 0; k < 50; k++) {
+                String[] dna = RandomDna.matrix(random, size, 2 + k % 3);
+                assertEquals(detector.isMutant(dna), detector.isMutant(PreparedDna.prepare(dna)),
+                    "N=" + size + ", matriz " + k);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ADN preparado: se valida contra un alfabeto que no incluye A, T, C, G")
+    void testPreparedDnaWithCustomAlphabet() {
+        DetectionRules rules = new DetectionRules(4, 2, "ATCX", EnumSet.allOf(Direction.class));
+        MutantDetector custom = new MutantDetector(rules);
+        PreparedDna prepared = PreparedDna.prepare(new String[] {"AAAA", "TTTT", "CCCC", "GGGG"});
+
+        assertThrows(IllegalArgumentException.class, () -> custom.isMutant(prepared));
+    }
+
+    // ==================================================================================
+    // LOTES (structure-of-arrays)
+    // ==================================================================================
+
+    @Test
+    @DisplayName("Lote: mismo resultado que isMutant para cada matriz")
+    void testBatchMatchesPerItem() {
+        Random random = new Random(21);
+        for (int size = 1; size <= 20; size++) {
+            DnaBatch batch = new DnaBatch(size, 64);
+            String[][] matrices = new String[50][];
+            for (int b = 0; b < matrices.length; b++) {
+                matrices[b] = RandomDna.matrix(random, size, 2 + b % 3);
+                assertEquals(b, batch.add(matrices[b]));
+            }
+
+            BitSet mutants = detector.isMutantBatch(batch);
+
+            for (int b = 0; b < matrices.length; b++) {
+                assertEquals(detector.isMutant(matrices[b]), mutants.get(b), "N=" + size + ", matriz " + b);
+            }
+            assertFalse(mutants.get(matrices.length), "Sin resultados fuera del lote");
+        }
+    }
+
+    @Test
+    @DisplayName("Lote: matrices en bytes con stride y reutilización con clear")
+    void testBatchFromBytes() {
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] human = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+        byte[] buffer = ("xxATGCGA." + "CAGTGC." + "TTATGT." + "AGAAGG." + "CCCCTA." + "TCACTG")
+            .getBytes(StandardCharsets.US_ASCII);
+
+        DnaBatch batch = new DnaBatch(6, 4);
+        batch.add(human);
+        batch.add(buffer, 2, 7);
+        batch.add(mutant);
+
+        BitSet mutants = detector.isMutantBatch(batch);
+        assertFalse(mutants.get(0));
+        assertTrue(mutants.get(1));
+        assertTrue(mutants.get(2));
+        assertEquals((byte) 'C', batch.base(1, 1, 0));
+
+        batch.clear();
+        batch.add(human);
+        assertEquals(1, batch.size());
+        assertTrue(detector.isMutantBatch(batch).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lote: valida bases, dimensiones y capacidad")
+    void testBatchValidation() {
+        DnaBatch batch = new DnaBatch(4, 2);
+        batch.add(new String[] {"ATCG", "ATCG", "ATCG", "ATCG"});
+        batch.add(new String[] {"ATCG", "ATXG", "ATCG", "ATCG"});
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> detector.isMutantBatch(batch));
+        assertTrue(error.getMessage().contains("matriz 1"), error.getMessage());
+        assertTrue(error.getMessage().contains("[1][2]"), error.getMessage());
+
+        assertThrows(IllegalStateException.class, () -> batch.add(new String[] {"ATCG", "ATCG", "ATCG", "ATCG"}));
+        assertThrows(IllegalArgumentException.class, () -> new DnaBatch(4, 1).add(new String[] {"ATCG", "ATC"}));
+        assertTrue(detector.isMutantBatch(new DnaBatch(4, 8)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lote: un carácter fuera de US-ASCII se rechaza igual que en isMutant")
+    void testBatchRejectsNonAscii() {
+        // 'Ł' (U+0141) truncado a byte sería 'A' (0x41)
+        String[] dna = {"ŁAAA", "ATCG", "ATCG", "ATCG"};
+        assertThrows(IllegalArgumentException.class, () -> detector.isMutant(dna));
+
+        DnaBatch batch = new DnaBatch(4, 2);
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> batch.add(dna));
+        assertTrue(error.getMessage().contains("[0][0]"), error.getMessage());
+        assertEquals(0, batch.size(), "La matriz rechazada no debe quedar en el lote");
+
+        batch.add(new String[] {"ATCG", "CGAT", "ATCG", "CGAT"});
+        assertEquals(1, batch.size());
+        assertTrue(detector.isMutantBatch(batch).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lote: con un perfil personalizado coincide con isMutant")
+    void testBatchWithCustomRules() {
+        DetectionRules rules = new DetectionRules(3, 3, "ATCG", EnumSet.of(Direction.HORIZONTAL, Direction.VERTICAL));
+        MutantDetector custom = new MutantDetector(rules);
+        Random random = new Random(4);
+        DnaBatch batch = new DnaBatch(7, 40);
+        String[][] matrices = new String[40][];
+        for (int b = 0; b < matrices.length; b++) {
+            matrices[b] = RandomDna.matrix(random, 7, 2 + b % 2);
+            batch.add(matrices[b]);
+        }
+
+        BitSet mutants = custom.isMutantBatch(batch);
+
+        for (int b = 0; b < matrices.length; b++) {
+            assertEquals(custom.isMutant(matrices[b]), mutants.get(b), "matriz " + b);
+        }
+    }
+
+    // ==================================================================================
+    // PERFILES DE REGLAS (mutant.detector.rules.*)
+    // ==================================================================================
+
+    @Test
+    @DisplayName("Perfil: el perfil por defecto equivale al detector original")
+    void testDefaultRulesProfile() {
+        DetectionRules sameAsDefault = new DetectionRules(4, 2, "GCTA", EnumSet.allOf(Direction.class));
+        MutantDetector configured = new MutantDetector(sameAsDefault);
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATGT",
+            "AGAAGG",
+            "CCCCTA",
+            "TCACTG"
+        };
+
+        assertTrue(sameAsDefault.isDefault(), "El alfabeto se compara como conjunto");
+        assertEquals(detector.countMutantSequences(dna), configured.countMutantSequences(dna));
+        assertTrue(configured.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Perfil: longitud 3 y umbral 1 detecta una única secuencia corta")
+    void testCustomSequenceLengthAndThreshold() {
+        DetectionRules rules = new DetectionRules(3, 1, "ATCG", EnumSet.allOf(Direction.class));
+        MutantDetector custom = new MutantDetector(rules);
+        String[] dna = {
+            "AAAT",
+            "CGTC",
+            "TCGA",
+            "GATC"
+        };
+
+        assertEquals(0, detector.countMutantSequences(dna), "Con las reglas por defecto no hay secuencias");
+        assertEquals(1, custom.countMutantSequences(dna), "Con K=3 la fila 0 tiene una secuencia");
+        assertTrue(custom.isMutant(dna), "Con T=1 una secuencia alcanza para ser mutante");
+    }
+
+    @Test
+    @DisplayName("Perfil: las direcciones deshabilitadas no se cuentan")
+    void testDirectionSubset() {
+        DetectionRules horizontalOnly = new DetectionRules(4, 2, "ATCG", EnumSet.of(Direction.HORIZONTAL));
+        MutantDetector custom = new MutantDetector(horizontalOnly);
+        String[] dna = {
+            "AAAAT",
+            "ACTGC",
+            "ATCGT",
+            "AGTCG",
+            "CTGAT"
+        };
+
+        assertEquals(2, detector.countMutantSequences(dna), "Por defecto: horizontal + vertical");
+        assertEquals(1, custom.countMutantSequences(dna), "Solo se cuenta la horizontal");
+        assertFalse(custom.isMutant(dna), "Con UNA secuencia habilitada debe ser HUMANO");
+    }
+
+    @Test
+    @DisplayName("Perfil: el alfabeto personalizado define las bases válidas y el mensaje de error")
+    void testCustomAlphabet() {
+        DetectionRules rules = new DetectionRules(4, 2, "ACGU", EnumSet.allOf(Direction.class));
+        MutantDetector rna = new MutantDetector(rules);
+        String[] withUracil = {
+            "UUUU",
+            "ACGA",
+            "GCAC",
+            "UUUU"
+        };
+
+        assertTrue(rna.isMutant(withUracil), "U es válida en el alfabeto ACGU");
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> rna.isMutant(new String[]{"ATGC", "ACGA", "GCAC", "UUUU"})
+        );
+        assertTrue(exception.getMessage().contains("A, C, G, U"), "El mensaje debe listar el alfabeto");
+        StreamingMutantDetector stream = rna.openStream(4);
+        for (String row : withUracil) {
+            stream.feedRow(row);
+        }
+        assertTrue(stream.result(), "El análisis incremental usa el mismo alfabeto");
+    }
+
+    @Test
+    @DisplayName("Perfil: parámetros inválidos deben lanzar excepción")
+    void testInvalidRules() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new DetectionRules(1, 2, "ATCG", EnumSet.allOf(Direction.class)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DetectionRules(4, 0, "ATCG", EnumSet.allOf(Direction.class)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DetectionRules(4, 2, "ATTG", EnumSet.allOf(Direction.class)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DetectionRules(4, 2, "ATCG", EnumSet.noneOf(Direction.class)));
+    }
+
+    // ==================================================================================
+    // SIMETRÍAS (clave de caché canónica)
+    // ==================================================================================
+
+    private static String[] rotate(String[] dna) {
+        int n = dna.length;
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int j = 0; j < n; j++) {
+                row.append(dna[n - 1 - j].charAt(i));
+            }
+            out[i] = row.toString();
+        }
+        return out;
+    }
+
+    private static String[] transpose(String[] dna) {
+        int n = dna.length;
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int j = 0; j < n; j++) {
+                row.append(dna[j].charAt(i));
+            }
+            out[i] = row.toString();
+        }
+        return out;
+    }
+
+    private static String[] relabel(String[] dna, String to) {
+        String[] out = new String[dna.length];
+        for (int i = 0; i < dna.length; i++) {
+            StringBuilder row = new StringBuilder(dna.length);
+            for (int j = 0; j < dna.length; j++) {
+                row.append(to.charAt("ATCG".indexOf(dna[i].charAt(j))));
+            }
+            out[i] = row.toString();
+        }
+        return out;
+    }
+
+    @Test
+    @DisplayName("Simetrías: rotar, reflejar o reetiquetar las bases no cambia el conteo")
+    void testCountInvariantUnderSymmetries() {
+        Random random = new Random(16);
+        String[] relabelings = {"ATCG", "TACG", "GCTA", "CGAT"};
+        for (int size = 4; size <= 12; size++) {
+            for (int k = 0; k < 20; k++) {
+                String[] dna = RandomDna.matrix(random, size, 2 + k % 3);
+                int expected = detector.countMutantSequences(dna);
+
+                String[] variant = dna;
+                for (int t = 0; t < 8; t++) {
+                    // 4 rotaciones y, a partir de la quinta, las de la transpuesta (reflejos)
+                    variant = t == 4 ? transpose(variant) : rotate(variant);
+                    for (String to : relabelings) {
+                        assertEquals(expected, detector.countMutantSequences(relabel(variant, to)),
+                            java.util.Arrays.toString(dna));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Simetrías: sólo los perfiles simétricos con A, T, C y G admiten la clave canónica")
+    void testSymmetryInvariance() {
+        assertTrue(detector.isSymmetryInvariant());
+        assertTrue(new MutantDetector(new DetectionRules(5, 3, "ATCG",
+            EnumSet.of(Direction.HORIZONTAL, Direction.VERTICAL))).isSymmetryInvariant());
+        assertFalse(new MutantDetector(new DetectionRules(4, 2, "ATCG",
+            EnumSet.of(Direction.HORIZONTAL))).isSymmetryInvariant(), "Sin VERTICAL, transponer cambia el conteo");
+        assertFalse(new MutantDetector(new DetectionRules(4, 2, "ATCG",
+            EnumSet.of(Direction.HORIZONTAL, Direction.VERTICAL, Direction.DIAGONAL))).isSymmetryInvariant(),
+            "Sin ANTI_DIAGONAL, reflejar cambia el conteo");
+        assertFalse(new MutantDetector(new DetectionRules(4, 2, "ATCX",
+            EnumSet.allOf(Direction.class))).isSymmetryInvariant(), "Un reetiquetado podría introducir una base inválida");
+        assertFalse(new MutantDetector(new DetectionRules(4, 2, "ATCGN",
+            EnumSet.allOf(Direction.class))).isSymmetryInvariant(), "N no tiene forma canónica");
+    }
+}
@@ -2,15 +2,32 @@ package com.example.Mutantes.service;
 
 import com.example.Mutantes.entity.DnaRecord;
 import com.example.Mutantes.repository.DnaRecordRepository;
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import com.example.Mutantes.validator.DnaFingerprint;
+import com.example.Mutantes.validator.PreparedDna;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -23,6 +40,10 @@ import static org.mockito.Mockito.*;
  * - Detección de mutantes y humanos
  * - Persistencia de resultados en base de datos
  * - Sistema de caché (cache hit para evitar análisis duplicados)
+ * - Caché L1 en memoria delante de la base de datos
+ * - Peticiones concurrentes del mismo ADN (single-flight)
+ * - Filtro de Bloom que evita consultar la BD por ADN nunca visto
+ * - Perfiles de reglas con un alfabeto distinto de A, T, C, G
  */
 @ExtendWith(MockitoExtension.class)
 @DisplayName("MutantService - Tests con Mocks")
@@ -34,6 +55,18 @@ class MutantServiceTest {
     @Mock
     private DnaRecordRepository dnaRecordRepository;
 
+    @Mock
+    private DnaResultCache resultCache;
+
+    @Mock
+    private KnownFingerprints knownFingerprints;
+
+    @Mock
+    private DnaRecordWriter recordWriter;
+
+    @Mock
+    private DnaCounters dnaCounters;
+
     @InjectMocks
     private MutantService mutantService;
 
@@ -42,6 +75,13 @@ class MutantServiceTest {
 
     @BeforeEach
     void setUp() {
+        // El ADN se prepara con el perfil de reglas del detector
+        lenient().when(mutantDetector.getRules()).thenReturn(DetectionRules.DEFAULT);
+        // Filtro de Bloom: por defecto "quizás", así que se consulta la BD
+        lenient().when(knownFingerprints.mightContain(any(DnaFingerprint.class))).thenReturn(true);
+        // MERGE: por defecto la huella no existía y se inserta
+        lenient().when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean())).thenReturn(true);
+
         // DNA de mutante (ejemplo estándar)
         mutantDna = new String[]{
             "ATGCGA",
@@ -63,13 +103,21 @@ class MutantServiceTest {
         };
     }
 
+    /**
+     * El servicio pasa al detector el ADN preparado: se compara por sus celdas.
+     */
+    private static PreparedDna sameDna(String[] dna) {
+        byte[] expected = PreparedDna.prepare(dna).cells();
+        return argThat(prepared -> prepared != null && Arrays.equals(expected, prepared.cells()));
+    }
+
     @Test
     @DisplayName("Analizar DNA mutante: debe guardar con isMutant=true")
     void testAnalyzeDnaMutant() {
         // Arrange
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
-        when(dnaRecordRepository.save(any(DnaRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(sameDna(mutantDna))).thenReturn(true);
+        when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean())).thenReturn(true);
 
         // Act
         boolean result = mutantService.analyzeDna(mutantDna);
@@ -78,21 +126,20 @@ class MutantServiceTest {
         assertTrue(result, "Debe retornar true para mutante");
 
         // Verificar que se llamó al detector
-        verify(mutantDetector, times(1)).isMutant(mutantDna);
+        verify(mutantDetector, times(1)).isMutant(sameDna(mutantDna));
 
         // Verificar que se guardó el registro con isMutant=true
-        verify(dnaRecordRepository, times(1)).save(argThat(record ->
-            record.isMutant() == true
-        ));
+        verify(dnaRecordRepository, times(1)).insertIfAbsent(any(DnaFingerprint.class), eq(true));
+        verify(dnaCounters, times(1)).recordInserted(true);
     }
 
     @Test
     @DisplayName("Analizar DNA humano: debe guardar con isMutant=false")
     void testAnalyzeDnaHuman() {
         // Arrange
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(mutantDetector.isMutant(humanDna)).thenReturn(false);
-        when(dnaRecordRepository.save(any(DnaRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(sameDna(humanDna))).thenReturn(false);
+        when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean())).thenReturn(true);
 
         // Act
         boolean result = mutantService.analyzeDna(humanDna);
@@ -101,12 +148,11 @@ class MutantServiceTest {
         assertFalse(result, "Debe retornar false para humano");
 
         // Verificar que se llamó al detector
-        verify(mutantDetector, times(1)).isMutant(humanDna);
+        verify(mutantDetector, times(1)).isMutant(sameDna(humanDna));
 
         // Verificar que se guardó el registro con isMutant=false
-        verify(dnaRecordRepository, times(1)).save(argThat(record ->
-            record.isMutant() == false
-        ));
+        verify(dnaRecordRepository, times(1)).insertIfAbsent(any(DnaFingerprint.class), eq(false));
+        verify(dnaCounters, times(1)).recordInserted(false);
     }
 
     @Test
@@ -114,11 +160,11 @@ class MutantServiceTest {
     void testCacheHit() {
         // Arrange
         DnaRecord cachedRecord = DnaRecord.builder()
-            .dnaHash("abc123")
+            .fingerprintHi(1L).fingerprintLo(2L)
             .isMutant(true)
             .build();
 
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.of(cachedRecord));
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.of(cachedRecord));
 
         // Act
         boolean result = mutantService.analyzeDna(mutantDna);
@@ -127,13 +173,14 @@ class MutantServiceTest {
         assertTrue(result, "Debe retornar el resultado del caché");
 
         // CRÍTICO: Verificar que NO se llamó al detector (ahorro de cómputo)
-        verify(mutantDetector, never()).isMutant(any());
+        verify(mutantDetector, never()).isMutant(any(PreparedDna.class));
 
         // CRÍTICO: Verificar que NO se guardó ningún registro nuevo
-        verify(dnaRecordRepository, never()).save(any());
+        verify(dnaRecordRepository, never()).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
+        verify(dnaCounters, never()).recordInserted(anyBoolean());
 
         // Verificar que SÍ se consultó el caché
-        verify(dnaRecordRepository, times(1)).findByDnaHash(anyString());
+        verify(dnaRecordRepository, times(1)).findByFingerprint(any(DnaFingerprint.class));
     }
 
     @Test
@@ -141,59 +188,370 @@ class MutantServiceTest {
     void testCacheHitHuman() {
         // Arrange
         DnaRecord cachedRecord = DnaRecord.builder()
-            .dnaHash("def456")
+            .fingerprintHi(3L).fingerprintLo(4L)
             .isMutant(false)
             .build();
 
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.of(cachedRecord));
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.of(cachedRecord));
 
         // Act
         boolean result = mutantService.analyzeDna(humanDna);
 
         // Assert
         assertFalse(result, "Debe retornar false del caché para humano");
-        verify(mutantDetector, never()).isMutant(any());
-        verify(dnaRecordRepository, never()).save(any());
+        verify(mutantDetector, never()).isMutant(any(PreparedDna.class));
+        verify(dnaRecordRepository, never()).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
     }
 
     @Test
-    @DisplayName("Hash único: diferentes DNAs deben generar hashes diferentes")
-    void testDifferentDnasGenerateDifferentHashes() {
+    @DisplayName("Huella única: diferentes DNAs deben generar huellas diferentes")
+    void testDifferentDnasGenerateDifferentFingerprints() {
         // Arrange
         String[] dna1 = {"ATGC", "CGTA", "TACG", "GCAT"};
         String[] dna2 = {"AAAA", "TTTT", "CCCC", "GGGG"};
 
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(mutantDetector.isMutant(any())).thenReturn(true);
-        when(dnaRecordRepository.save(any(DnaRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(true);
+        when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean())).thenReturn(true);
 
         // Act
         mutantService.analyzeDna(dna1);
         mutantService.analyzeDna(dna2);
 
-        // Assert - Se debe llamar findByDnaHash 2 veces con diferentes hashes
-        verify(dnaRecordRepository, times(2)).findByDnaHash(anyString());
-        verify(dnaRecordRepository, times(2)).save(any(DnaRecord.class));
+        // Assert - Se debe llamar findByFingerprint 2 veces con diferentes huellas
+        verify(dnaRecordRepository, times(2)).findByFingerprint(any(DnaFingerprint.class));
+        verify(dnaRecordRepository, times(2)).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
     }
 
     @Test
     @DisplayName("Mismo DNA múltiples veces: solo debe analizar una vez")
     void testSameDnaMultipleTimes() {
         // Arrange - Primera llamada no tiene caché
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class)))
             .thenReturn(Optional.empty())
-            .thenReturn(Optional.of(DnaRecord.builder().dnaHash("hash").isMutant(true).build()));
+            .thenReturn(Optional.of(DnaRecord.builder().fingerprintHi(5L).fingerprintLo(6L).isMutant(true).build()));
 
-        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
-        when(dnaRecordRepository.save(any(DnaRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mutantDetector.isMutant(sameDna(mutantDna))).thenReturn(true);
+        when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean())).thenReturn(true);
 
         // Act - Llamar dos veces con el mismo DNA
         mutantService.analyzeDna(mutantDna);
         mutantService.analyzeDna(mutantDna);
 
         // Assert - El detector solo debe llamarse UNA vez
-        verify(mutantDetector, times(1)).isMutant(mutantDna);
-        verify(dnaRecordRepository, times(1)).save(any(DnaRecord.class));
+        verify(mutantDetector, times(1)).isMutant(sameDna(mutantDna));
+        verify(dnaRecordRepository, times(1)).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
     }
 }
+    @Test
+    @DisplayName("Huella canónica: una matriz reflejada y reetiquetada reutiliza el mismo registro")
+    void testCanonicalFingerprintSharesRecord() {
+        // Arrange - Reflejo horizontal de mutantDna con A<->T y C<->G intercambiadas
+        String[] mirrored = {"TCGCAT", "GCACTG", "ACATAA", "CCTTCT", "TAGGGG", "CAGTGA"};
+        ReflectionTestUtils.setField(mutantService, "canonicalFingerprint", true);
+        when(mutantDetector.isSymmetryInvariant()).thenReturn(true);
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(true);
+
+        // Act
+        mutantService.analyzeDna(mutantDna);
+        mutantService.analyzeDna(mirrored);
+
+        // Assert - Ambas consultas usan la misma clave, distinta de la huella por orden
+        ArgumentCaptor<DnaFingerprint> keys = ArgumentCaptor.forClass(DnaFingerprint.class);
+        verify(dnaRecordRepository, times(2)).findByFingerprint(keys.capture());
+        assertEquals(keys.getAllValues().get(0), keys.getAllValues().get(1));
+        assertEquals(PreparedDna.prepare(mirrored).getCanonicalFingerprint(), mutantService.getDnaFingerprint(mutantDna));
+        assertNotEquals(PreparedDna.prepare(mirrored).getFingerprint(), PreparedDna.prepare(mutantDna).getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Huella canónica: no se usa si el perfil de reglas no es simétrico")
+    void testCanonicalFingerprintRequiresSymmetricRules() {
+        ReflectionTestUtils.setField(mutantService, "canonicalFingerprint", true);
+        when(mutantDetector.isSymmetryInvariant()).thenReturn(false);
+
+        assertEquals(PreparedDna.prepare(mutantDna).getFingerprint(), mutantService.getDnaFingerprint(mutantDna));
+    }
+
+    @Test
+    @DisplayName("Caché L1: un acierto en memoria no consulta la BD ni el detector")
+    void testL1CacheHit() {
+        when(resultCache.get(any(DnaFingerprint.class))).thenReturn(true);
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+
+        verifyNoInteractions(dnaRecordRepository);
+        verify(mutantDetector, never()).isMutant(any(PreparedDna.class));
+    }
+
+    @Test
+    @DisplayName("Caché L1: se llena tanto al leer de la BD como al insertar")
+    void testL1CachePopulatedOnReadAndInsert() {
+        DnaFingerprint mutantKey = PreparedDna.prepare(mutantDna).getFingerprint();
+        DnaFingerprint humanKey = PreparedDna.prepare(humanDna).getFingerprint();
+        when(dnaRecordRepository.findByFingerprint(mutantKey))
+            .thenReturn(Optional.of(DnaRecord.builder().fingerprintHi(1L).fingerprintLo(2L).isMutant(true).build()));
+        when(dnaRecordRepository.findByFingerprint(humanKey)).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(sameDna(humanDna))).thenReturn(false);
+
+        mutantService.analyzeDna(mutantDna);
+        mutantService.analyzeDna(humanDna);
+
+        verify(resultCache).put(mutantKey, true);
+        verify(resultCache).put(humanKey, false);
+    }
+
+    @Test
+    @DisplayName("Single-flight: peticiones concurrentes del mismo DNA comparten un análisis y un INSERT")
+    void testConcurrentRequestsAreCoalesced() throws Exception {
+        int followers = 7;
+        CountDownLatch detecting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenAnswer(invocation -> {
+            detecting.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return true;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(followers + 1);
+        try {
+            // El primero queda bloqueado dentro del detector con la huella en curso
+            Future<Boolean> leader = pool.submit(() -> mutantService.analyzeDna(mutantDna));
+            assertTrue(detecting.await(5, TimeUnit.SECONDS));
+
+            List<Thread> waiting = new ArrayList<>();
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < followers; i++) {
+                results.add(pool.submit(() -> {
+                    synchronized (waiting) {
+                        waiting.add(Thread.currentThread());
+                    }
+                    return mutantService.analyzeDna(mutantDna);
+                }));
+            }
+            awaitParked(waiting, followers);
+            release.countDown();
+
+            assertTrue(leader.get(5, TimeUnit.SECONDS));
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(dnaRecordRepository, times(1)).findByFingerprint(any(DnaFingerprint.class));
+        verify(mutantDetector, times(1)).isMutant(any(PreparedDna.class));
+        verify(dnaRecordRepository, times(1)).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Single-flight: si el análisis falla, todos los que esperaban reciben la misma excepción")
+    void testCoalescedFailureIsPropagated() throws Exception {
+        CountDownLatch detecting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenAnswer(invocation -> {
+            detecting.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw new IllegalStateException("Falla del detector");
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> leader = pool.submit(() -> mutantService.analyzeDna(mutantDna));
+            assertTrue(detecting.await(5, TimeUnit.SECONDS));
+            List<Thread> waiting = new ArrayList<>();
+            Future<Boolean> follower = pool.submit(() -> {
+                synchronized (waiting) {
+                    waiting.add(Thread.currentThread());
+                }
+                return mutantService.analyzeDna(mutantDna);
+            });
+            awaitParked(waiting, 1);
+            release.countDown();
+
+            for (Future<Boolean> result : List.of(leader, follower)) {
+                ExecutionException failure = assertThrows(
+                    ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, failure.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(dnaRecordRepository, never()).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("MERGE sin inserción: otra instancia guardó la huella y se usa el registro existente")
+    void testInsertIfAbsentReusesStoredRecord() {
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class)))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(DnaRecord.builder().fingerprintHi(1L).fingerprintLo(2L).isMutant(true).build()));
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(true);
+        when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean())).thenReturn(false);
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+
+        // Lectura condicional: sólo porque el MERGE no insertó
+        verify(dnaRecordRepository, times(2)).findByFingerprint(any(DnaFingerprint.class));
+        verify(dnaRecordRepository, never()).save(any(DnaRecord.class));
+        verify(knownFingerprints).add(any(DnaFingerprint.class));
+        verify(dnaCounters, never()).recordInserted(anyBoolean());
+        verify(resultCache).put(any(DnaFingerprint.class), eq(true));
+    }
+
+    @Test
+    @DisplayName("MERGE concurrente rechazado por la restricción única: se reutiliza el registro existente sin error")
+    void testDuplicateKeyOnInsertIsResolved() {
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class)))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(DnaRecord.builder().fingerprintHi(1L).fingerprintLo(2L).isMutant(true).build()));
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(true);
+        when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean()))
+            .thenThrow(new DataIntegrityViolationException("uk_dna_records_fingerprint"));
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+        verify(resultCache).put(any(DnaFingerprint.class), eq(true));
+    }
+
+    @Test
+    @DisplayName("Otras violaciones de integridad en el INSERT se propagan")
+    void testOtherIntegrityViolationsPropagate() {
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(true);
+        when(dnaRecordRepository.insertIfAbsent(any(DnaFingerprint.class), anyBoolean()))
+            .thenThrow(new DataIntegrityViolationException("NOT NULL"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> mutantService.analyzeDna(mutantDna));
+        verify(resultCache, never()).put(any(DnaFingerprint.class), anyBoolean());
+    }
+
+    /**
+     * Espera a que los hilos registrados queden estacionados (esperando el
+     * resultado en curso), para liberar al primero sólo cuando todos se unieron.
+     */
+    private static void awaitParked(List<Thread> threads, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (threads) {
+                if (threads.size() == expected && threads.stream().allMatch(t -> t.getState() == Thread.State.WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(1);
+        }
+        fail("Los hilos no quedaron esperando el análisis en curso");
+    }
+
+    @Test
+    @DisplayName("Filtro de Bloom: ADN nunca visto se analiza e inserta sin consultar la BD")
+    void testBloomFilterSkipsLookup() {
+        when(knownFingerprints.mightContain(any(DnaFingerprint.class))).thenReturn(false);
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(true);
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+
+        verify(dnaRecordRepository, never()).findByFingerprint(any(DnaFingerprint.class));
+        verify(dnaRecordRepository, times(1)).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
+        verify(knownFingerprints).add(PreparedDna.prepare(mutantDna).getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Write-behind: el resultado se encola y queda en la caché L1 sin escribir en la BD")
+    void testWriteBehindEnqueuesResult() {
+        DnaFingerprint key = PreparedDna.prepare(mutantDna).getFingerprint();
+        when(dnaRecordRepository.findByFingerprint(key)).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(true);
+        when(recordWriter.enqueue(key, true)).thenReturn(true);
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+
+        verify(dnaRecordRepository, never()).insertIfAbsent(any(DnaFingerprint.class), anyBoolean());
+        verify(resultCache).put(key, true);
+        verify(knownFingerprints).add(key);
+        // Lo cuenta el escritor cuando el lote se confirma
+        verify(dnaCounters, never()).recordInserted(anyBoolean());
+    }
 
+    @Test
+    @DisplayName("Write-behind con la cola llena: se escribe de forma sincrónica")
+    void testWriteBehindQueueFullWritesSynchronously() {
+        when(dnaRecordRepository.findByFingerprint(any(DnaFingerprint.class))).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(PreparedDna.class))).thenReturn(false);
+        when(recordWriter.enqueue(any(DnaFingerprint.class), anyBoolean())).thenReturn(false);
+
+        assertFalse(mutantService.analyzeDna(humanDna));
+
+        verify(dnaRecordRepository, times(1)).insertIfAbsent(any(DnaFingerprint.class), eq(false));
+        verify(resultCache).put(any(DnaFingerprint.class), eq(false));
+    }
+
+    @Test
+    @DisplayName("Alfabeto ACGU: U es válida y T se rechaza con el mensaje del perfil")
+    void testCustomAlphabetWithRealDetector() {
+        DetectionRules rna = new DetectionRules(4, 2, "ACGU", EnumSet.allOf(Direction.class));
+        MutantService rnaService = new MutantService(new MutantDetector(rna), dnaRecordRepository, resultCache,
+            knownFingerprints, recordWriter, dnaCounters);
+        String[] withUracil = {"UUUU", "CAGC", "GGGG", "ACGU"};
+
+        // Act & Assert - dos secuencias horizontales (UUUU y GGGG)
+        assertTrue(rnaService.analyzeDna(withUracil));
+        verify(dnaRecordRepository).insertIfAbsent(PreparedDna.prepare(withUracil, rna).getFingerprint(), true);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> rnaService.analyzeDna(new String[] {"TTTT", "CAGC", "GGGG", "ACGU"}));
+        assertTrue(error.getMessage().contains("A, C, G, U"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Alfabeto ATCGN: acepta N y no usa la huella canónica aunque esté habilitada")
+    void testSupersetAlphabetSkipsCanonicalFingerprint() {
+        DetectionRules withN = new DetectionRules(4, 2, "ATCGN", EnumSet.allOf(Direction.class));
+        MutantService nService = new MutantService(new MutantDetector(withN), dnaRecordRepository, resultCache,
+            knownFingerprints, recordWriter, dnaCounters);
+        ReflectionTestUtils.setField(nService, "canonicalFingerprint", true);
+        String[] withUnknownBases = {"NNNN", "ATCG", "NNNN", "GCTA"};
+
+        assertTrue(nService.analyzeDna(withUnknownBases));
+
+        // Huella sobre los bytes (N no tiene código de 2 bits), no la canónica
+        DnaFingerprint expected = PreparedDna.prepare(withUnknownBases, withN).getFingerprint();
+        assertEquals(expected, nService.getDnaFingerprint(withUnknownBases));
+        verify(dnaRecordRepository).insertIfAbsent(expected, true);
+    }
+
+    @Test
+    @DisplayName("Carga masiva: inserta en lotes y actualiza los contadores y el filtro de Bloom")
+    void testSaveAllResultsUpdatesCountersAndBloomFilter() {
+        List<DnaRecord> records = List.of(
+            new DnaRecord(new DnaFingerprint(1, 1), true),
+            new DnaRecord(new DnaFingerprint(2, 2), false),
+            new DnaRecord(new DnaFingerprint(3, 3), true)
+        );
+        when(dnaRecordRepository.saveAllInBatches(records)).thenReturn(3);
+
+        assertEquals(3, mutantService.saveAllResults(records));
+
+        verify(dnaCounters).recordInserted(2L, 1L);
+        for (DnaRecord record : records) {
+            verify(knownFingerprints).add(record.getFingerprint());
+        }
+        verify(resultCache, never()).put(any(DnaFingerprint.class), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Carga masiva fallida: no cuenta registros ni agrega huellas")
+    void testSaveAllResultsFailureCountsNothing() {
+        List<DnaRecord> records = List.of(new DnaRecord(new DnaFingerprint(1, 1), true));
+        when(dnaRecordRepository.saveAllInBatches(records))
+            .thenThrow(new DataIntegrityViolationException("uk_dna_records_fingerprint"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> mutantService.saveAllResults(records));
+
+        verify(dnaCounters, never()).recordInserted(anyLong(), anyLong());
+        verify(knownFingerprints, never()).add(any(DnaFingerprint.class));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.validator.DnaFingerprint;
+import com.example.Mutantes.validator.PreparedDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el filtro de Bloom escalable: sin falsos negativos, tasa de
+ * falsos positivos acotada al crecer más allá de la capacidad inicial, y
+ * memoria reportada.
+ */
+@DisplayName("ScalableBloomFilter - Filtro de Bloom escalable de huellas")
+class ScalableBloomFilterTest {
+
+    private static DnaFingerprint randomFingerprint(SplittableRandom random) {
+        return new DnaFingerprint(random.nextLong(), random.nextLong());
+    }
+
+    @Test
+    @DisplayName("Nunca da falsos negativos, aunque crezca muy por encima de la capacidad inicial")
+    void testNoFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        SplittableRandom random = new SplittableRandom(19);
+        DnaFingerprint[] added = new DnaFingerprint[50_000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = randomFingerprint(random);
+            filter.add(added[i]);
+        }
+
+        for (DnaFingerprint fingerprint : added) {
+            assertTrue(filter.mightContain(fingerprint));
+        }
+        assertTrue(filter.segmentCount() > 1, "Debe haber agregado segmentos al superar la capacidad");
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos se mantiene bajo la configurada al crecer")
+    void testFalsePositiveRateIsBounded() {
+        double fpp = 0.01;
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, fpp);
+        SplittableRandom random = new SplittableRandom(23);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add(randomFingerprint(random));
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(randomFingerprint(random))) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / probes;
+
+        // Margen para el error de muestreo (desvío de ~0.0002 con 200k consultas)
+        assertTrue(measured < fpp * 1.05, "Tasa medida " + measured + " >= " + fpp);
+        assertTrue(filter.expectedFpp() < fpp, "Tasa estimada " + filter.expectedFpp() + " >= " + fpp);
+    }
+
+    @Test
+    @DisplayName("Funciona con huellas reales de ADN preparado")
+    void testWithDnaFingerprints() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.001);
+        DnaFingerprint mutant = PreparedDna.prepare(new String[] {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"})
+            .getFingerprint();
+        DnaFingerprint human = PreparedDna.prepare(new String[] {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"})
+            .getFingerprint();
+
+        filter.add(mutant);
+
+        assertTrue(filter.mightContain(mutant));
+        assertFalse(filter.mightContain(human));
+    }
+
+    @Test
+    @DisplayName("Los duplicados no consumen capacidad y la memoria crece con los segmentos")
+    void testSizeAndMemory() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        long initialBytes = filter.memoryBytes();
+        DnaFingerprint fingerprint = new DnaFingerprint(1L, 2L);
+        filter.add(fingerprint);
+        filter.add(fingerprint);
+
+        assertEquals(1, filter.size());
+        // ~9.6 bits por elemento para 0.005 (la mitad de la tasa va al primer segmento)
+        assertTrue(initialBytes >= 1_000 * 9 / 8 && initialBytes <= 1_000 * 16 / 8, "Bytes: " + initialBytes);
+
+        SplittableRandom random = new SplittableRandom(29);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(randomFingerprint(random));
+        }
+        assertTrue(filter.memoryBytes() > initialBytes);
+    }
+
+    @Test
+    @DisplayName("Inserciones concurrentes no pierden huellas")
+    void testConcurrentAdds() throws Exception {
+        ScalableBloomFilter filter = new ScalableBloomFilter(500, 0.01);
+        int threads = 4;
+        int perThread = 10_000;
+        DnaFingerprint[][] added = new DnaFingerprint[threads][perThread];
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(100 + t);
+            for (int i = 0; i < perThread; i++) {
+                added[t][i] = randomFingerprint(random);
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                DnaFingerprint[] mine = added[t];
+                tasks.add(pool.submit(() -> {
+                    for (DnaFingerprint fingerprint : mine) {
+                        filter.add(fingerprint);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (DnaFingerprint[] mine : added) {
+            for (DnaFingerprint fingerprint : mine) {
+                assertTrue(filter.mightContain(fingerprint));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Parámetros inválidos deben lanzar excepción")
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+}
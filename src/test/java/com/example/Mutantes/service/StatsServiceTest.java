@@ -1,13 +1,15 @@
 package com.example.Mutantes.service;
 
 import com.example.Mutantes.dto.StatsResponse;
-import com.example.Mutantes.repository.DnaRecordRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -15,6 +17,8 @@ import static org.mockito.Mockito.*;
 /**
  * Suite de pruebas unitarias para StatsService con Mockito.
  *
+ * Los conteos salen de {@link DnaCounters} (ver DnaCountersTest).
+ *
  * Verifica:
  * - Cálculo correcto de estadísticas
  * - Manejo de casos especiales (división por cero)
@@ -25,7 +29,7 @@ import static org.mockito.Mockito.*;
 class StatsServiceTest {
 
     @Mock
-    private DnaRecordRepository dnaRecordRepository;
+    private DnaCounters dnaCounters;
 
     @InjectMocks
     private StatsService statsService;
@@ -34,8 +38,8 @@ class StatsServiceTest {
     @DisplayName("Ratio estándar: 40 mutantes, 100 humanos → Ratio 0.4")
     void testRatioStandard() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(40L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(100L);
+        when(dnaCounters.getMutantCount()).thenReturn(40L);
+        when(dnaCounters.getHumanCount()).thenReturn(100L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -47,16 +51,16 @@ class StatsServiceTest {
         assertEquals(0.4, response.getRatio(), 0.001, "El ratio debe ser 0.4 (40/100)");
 
         // Verificar interacciones
-        verify(dnaRecordRepository, times(1)).countByIsMutant(true);
-        verify(dnaRecordRepository, times(1)).countByIsMutant(false);
+        verify(dnaCounters, times(1)).getMutantCount();
+        verify(dnaCounters, times(1)).getHumanCount();
     }
 
     @Test
     @DisplayName("División por cero: 10 mutantes, 0 humanos → Ratio 0.0 (no debe lanzar excepción)")
     void testRatioDivisionByZero() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(10L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(dnaCounters.getMutantCount()).thenReturn(10L);
+        when(dnaCounters.getHumanCount()).thenReturn(0L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -76,8 +80,8 @@ class StatsServiceTest {
     @DisplayName("Sin registros: 0 mutantes, 0 humanos → Ratio 0.0")
     void testZeroRecords() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(0L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(dnaCounters.getMutantCount()).thenReturn(0L);
+        when(dnaCounters.getHumanCount()).thenReturn(0L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -93,8 +97,8 @@ class StatsServiceTest {
     @DisplayName("Solo humanos: 0 mutantes, 50 humanos → Ratio 0.0")
     void testOnlyHumans() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(0L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(50L);
+        when(dnaCounters.getMutantCount()).thenReturn(0L);
+        when(dnaCounters.getHumanCount()).thenReturn(50L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -109,8 +113,8 @@ class StatsServiceTest {
     @DisplayName("Solo mutantes: 30 mutantes, 0 humanos → Ratio 0.0")
     void testOnlyMutants() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(30L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(dnaCounters.getMutantCount()).thenReturn(30L);
+        when(dnaCounters.getHumanCount()).thenReturn(0L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -125,8 +129,8 @@ class StatsServiceTest {
     @DisplayName("Ratio con decimales: 1 mutante, 3 humanos → Ratio 0.333...")
     void testRatioWithDecimals() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(1L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(3L);
+        when(dnaCounters.getMutantCount()).thenReturn(1L);
+        when(dnaCounters.getHumanCount()).thenReturn(3L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -141,8 +145,8 @@ class StatsServiceTest {
     @DisplayName("Ratio igual a 1: 50 mutantes, 50 humanos → Ratio 1.0")
     void testRatioEqualsOne() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(50L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(50L);
+        when(dnaCounters.getMutantCount()).thenReturn(50L);
+        when(dnaCounters.getHumanCount()).thenReturn(50L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -157,8 +161,8 @@ class StatsServiceTest {
     @DisplayName("Ratio mayor a 1: 200 mutantes, 100 humanos → Ratio 2.0")
     void testRatioGreaterThanOne() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(200L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(100L);
+        when(dnaCounters.getMutantCount()).thenReturn(200L);
+        when(dnaCounters.getHumanCount()).thenReturn(100L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -173,8 +177,8 @@ class StatsServiceTest {
     @DisplayName("Números grandes: verificar que no hay overflow")
     void testLargeNumbers() {
         // Arrange
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(1_000_000L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(2_000_000L);
+        when(dnaCounters.getMutantCount()).thenReturn(1_000_000L);
+        when(dnaCounters.getHumanCount()).thenReturn(2_000_000L);
 
         // Act
         StatsResponse response = statsService.getStats();
@@ -184,5 +188,72 @@ class StatsServiceTest {
         assertEquals(2_000_000, response.getCount_human_dna());
         assertEquals(0.5, response.getRatio(), 0.001, "El ratio debe ser 0.5 con números grandes");
     }
-}
 
+    @Test
+    @DisplayName("Con max-age reutiliza la respuesta (mismo ETag) aunque cambien los conteos")
+    void testResponseReusedWithinMaxAge() {
+        // Arrange
+        ReflectionTestUtils.setField(statsService, "maxAge", Duration.ofMinutes(1));
+        when(dnaCounters.getMutantCount()).thenReturn(40L, 41L);
+        when(dnaCounters.getHumanCount()).thenReturn(100L);
+
+        // Act
+        StatsResponse first = statsService.getStats();
+        StatsResponse second = statsService.getStats();
+
+        // Assert - la segunda no lee los contadores
+        assertSame(first, second);
+        assertEquals(40, second.getCount_mutant_dna());
+        verify(dnaCounters, times(1)).getMutantCount();
+    }
+
+    @Test
+    @DisplayName("Vencido max-age recalcula con los conteos actuales")
+    void testResponseRecomputedAfterMaxAge() throws InterruptedException {
+        // Arrange
+        ReflectionTestUtils.setField(statsService, "maxAge", Duration.ofMillis(1));
+        when(dnaCounters.getMutantCount()).thenReturn(40L, 41L);
+        when(dnaCounters.getHumanCount()).thenReturn(100L);
+
+        // Act
+        StatsResponse first = statsService.getStats();
+        Thread.sleep(5);
+        StatsResponse second = statsService.getStats();
+
+        // Assert
+        assertEquals(40, first.getCount_mutant_dna());
+        assertEquals(41, second.getCount_mutant_dna());
+        verify(dnaCounters, times(2)).getMutantCount();
+    }
+
+    @Test
+    @DisplayName("Dentro de stale-while-revalidate sirve la respuesta vencida y recalcula en segundo plano")
+    void testStaleResponseServedWhileRevalidating() throws InterruptedException {
+        // Arrange
+        ReflectionTestUtils.setField(statsService, "maxAge", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(statsService, "staleWhileRevalidate", Duration.ofMinutes(1));
+        when(dnaCounters.getMutantCount()).thenReturn(40L, 41L);
+        when(dnaCounters.getHumanCount()).thenReturn(100L);
+
+        try {
+            // Act
+            StatsResponse first = statsService.getStats();
+            Thread.sleep(5);
+            StatsResponse stale = statsService.getStats();
+
+            // Assert - la petición no espera el recálculo
+            assertSame(first, stale);
+
+            // El recálculo en segundo plano deja la respuesta nueva para las siguientes
+            StatsResponse refreshed = stale;
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (refreshed.getCount_mutant_dna() == 40 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+                refreshed = statsService.getStats();
+            }
+            assertEquals(41, refreshed.getCount_mutant_dna());
+        } finally {
+            statsService.close();
+        }
+    }
+}
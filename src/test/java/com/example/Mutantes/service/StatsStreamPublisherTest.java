@@ -0,0 +1,174 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.dto.StatsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifica la publicación de /stats/stream: un evento sólo cuando cambian los
+ * conteos, una lectura de estadísticas por intervalo sin importar los
+ * suscriptores, y la baja de las conexiones cerradas o lentas.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatsStreamPublisher - Estadísticas por Server-Sent Events")
+class StatsStreamPublisherTest {
+
+    @Mock
+    private StatsService statsService;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private StatsStreamPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = publisher(Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+    }
+
+    private StatsStreamPublisher publisher(Duration timeout, Duration sendTimeout) {
+        return new StatsStreamPublisher(timeout, Duration.ofSeconds(1), 2, sendTimeout,
+            statsService, new ObjectMapper(), registry);
+    }
+
+    /**
+     * Espera (hasta 5 s) a que los hilos de envío cumplan la condición.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private double publishedEvents() {
+        return registry.get("mutant.stats.stream.events").counter().count();
+    }
+
+    @Test
+    @DisplayName("Publica sólo cuando cambian los conteos")
+    void testPublishesOnlyOnChange() {
+        when(statsService.getStats()).thenReturn(
+            new StatsResponse(40, 100, 0.4),
+            new StatsResponse(40, 100, 0.4),
+            new StatsResponse(41, 100, 0.41));
+
+        publisher.publish();
+        publisher.publish();
+        assertEquals(1.0, publishedEvents(), "Sin cambios no debe publicar");
+
+        publisher.publish();
+        assertEquals(2.0, publishedEvents());
+    }
+
+    @Test
+    @DisplayName("Lee las estadísticas una vez por intervalo sin importar los suscriptores")
+    void testSharedSnapshot() {
+        when(statsService.getStats()).thenReturn(new StatsResponse(1, 2, 0.5));
+        for (int i = 0; i < 1000; i++) {
+            publisher.subscribe();
+        }
+
+        publisher.publish();
+
+        assertEquals(1000, publisher.subscriberCount());
+        assertEquals(1000.0, registry.get("mutant.stats.stream.subscribers").gauge().value());
+        verify(statsService, times(1)).getStats();
+    }
+
+    @Test
+    @DisplayName("Quita las conexiones cerradas al publicar")
+    void testClosedSubscribersAreRemoved() throws InterruptedException {
+        when(statsService.getStats()).thenReturn(new StatsResponse(1, 2, 0.5));
+        SseEmitter closed = publisher.subscribe();
+        publisher.subscribe();
+        closed.complete();
+
+        publisher.publish();
+
+        await(() -> publisher.subscriberCount() == 1);
+    }
+
+    @Test
+    @DisplayName("Un cliente lento no demora a los demás y se da de baja al vencer el envío")
+    void testSlowSubscriberIsDropped() throws InterruptedException {
+        publisher.close();
+        publisher = publisher(Duration.ofMinutes(1), Duration.ofMillis(50));
+        when(statsService.getStats()).thenReturn(new StatsResponse(1, 2, 0.5), new StatsResponse(2, 2, 0.5));
+
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slow = new SseEmitter(60_000L) {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(items);
+            }
+        };
+        AtomicInteger received = new AtomicInteger();
+        SseEmitter fast = new SseEmitter(60_000L) {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                received.incrementAndGet();
+                super.send(items);
+            }
+        };
+        publisher.register(slow);
+        publisher.register(fast);
+
+        try {
+            // When - el primer evento deja bloqueado el envío al cliente lento
+            publisher.publish();
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+            await(() -> received.get() == 1);
+            Thread.sleep(100);
+            publisher.publish();
+
+            // Then - el cliente lento se da de baja y el otro recibe el segundo evento
+            assertEquals(1, publisher.subscriberCount());
+            assertEquals(1.0, registry.get("mutant.stats.stream.dropped").counter().count());
+            await(() -> received.get() == 2);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Un timeout negativo o un timeout de envío nulo debe lanzar excepción")
+    void testNegativeTimeout() {
+        assertThrows(IllegalArgumentException.class,
+            () -> publisher(Duration.ofSeconds(-1), Duration.ofSeconds(5)));
+        assertThrows(IllegalArgumentException.class,
+            () -> publisher(Duration.ofMinutes(1), Duration.ZERO));
+    }
+}
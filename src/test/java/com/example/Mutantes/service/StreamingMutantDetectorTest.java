@@ -0,0 +1,167 @@
+package com.example.Mutantes.service;
+
+import com.example.Mutantes.RandomDna;
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el detector incremental (fila por fila).
+ *
+ * Verifica que el resultado coincida con MutantDetector y que la decisión
+ * "mutante" se tome en cuanto se completa la segunda secuencia.
+ */
+@DisplayName("StreamingMutantDetector - Detección fila por fila")
+class StreamingMutantDetectorTest {
+
+    private final MutantDetector detector = new MutantDetector();
+
+    @Test
+    @DisplayName("Mutante: decide en cuanto aparece la segunda secuencia")
+    void testEarlyMutantDecision() {
+        String[] dna = {
+            "AAAATG",
+            "TGCAGT",
+            "GCTTCC",
+            "TTTTTG",
+            "GTAGTC",
+            "AGTCAC"
+        };
+        StreamingMutantDetector stream = detector.openStream(dna.length);
+
+        assertFalse(stream.feedRow(dna[0]));
+        assertFalse(stream.feedRow(dna[1]));
+        assertFalse(stream.feedRow(dna[2]));
+        assertTrue(stream.feedRow(dna[3]), "La fila 3 completa la segunda secuencia");
+
+        assertTrue(stream.isComplete(), "El resultado ya debe estar decidido");
+        assertTrue(stream.result());
+        assertEquals(4, stream.getRowsRead(), "No se requieren las filas restantes");
+    }
+
+    @Test
+    @DisplayName("Humano: el resultado solo está disponible al recibir todas las filas")
+    void testHumanRequiresAllRows() {
+        String[] dna = {
+            "AAAATG",
+            "TGCAGT",
+            "GCTTCC",
+            "TTTAGG",
+            "GTAGTC",
+            "AGTCAC"
+        };
+        StreamingMutantDetector stream = detector.openStream(dna.length);
+
+        for (int i = 0; i < dna.length - 1; i++) {
+            assertFalse(stream.feedRow(dna[i]));
+        }
+        assertFalse(stream.isComplete());
+        assertThrows(IllegalStateException.class, stream::result);
+
+        assertFalse(stream.feedRow(dna[dna.length - 1]));
+        assertFalse(stream.result(), "Con UNA secuencia debe ser HUMANO");
+        assertEquals(1, stream.getSequenceCount());
+    }
+
+    @Test
+    @DisplayName("Equivalencia: mismo resultado que MutantDetector en matrices aleatorias")
+    void testMatchesMutantDetector() {
+        Random random = new Random(11);
+        for (int n = 1; n <= 40; n++) {
+            String[] dna = RandomDna.matrix(random, n, 3);
+
+            StreamingMutantDetector stream = detector.openStream(n);
+            for (String row : dna) {
+                stream.feedRow(row);
+            }
+            assertEquals(detector.isMutant(dna), stream.result(), "Resultado distinto para N=" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Perfiles: mismo resultado que MutantDetector con el mismo perfil de reglas")
+    void testMatchesMutantDetectorForRuleProfiles() {
+        List<DetectionRules> profiles = List.of(
+            new DetectionRules(3, 3, "ACGU", EnumSet.allOf(Direction.class)),
+            new DetectionRules(5, 1, "AT", EnumSet.of(Direction.HORIZONTAL, Direction.DIAGONAL)),
+            new DetectionRules(2, 6, "ATCGN", EnumSet.of(Direction.VERTICAL, Direction.ANTI_DIAGONAL))
+        );
+        Random random = new Random(17);
+        for (DetectionRules rules : profiles) {
+            MutantDetector profileDetector = new MutantDetector(rules);
+            for (int n = 1; n <= 24; n++) {
+                String[] dna = RandomDna.matrix(random, n, rules.getAlphabet());
+
+                StreamingMutantDetector stream = profileDetector.openStream(n);
+                for (String row : dna) {
+                    stream.feedRow(row);
+                }
+                assertEquals(profileDetector.isMutant(dna), stream.result(),
+                    "Resultado distinto para N=" + n + " con " + rules);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Perfiles: una fila inválida no altera las filas ya recibidas")
+    void testInvalidRowKeepsState() {
+        DetectionRules rules = new DetectionRules(3, 2, "ACGU", EnumSet.allOf(Direction.class));
+        StreamingMutantDetector stream = new MutantDetector(rules).openStream(3);
+        stream.feedRow("UAC");
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> stream.feedRow("UAT")
+        );
+        assertTrue(exception.getMessage().contains("A, C, G, U"), "El mensaje debe listar el alfabeto");
+
+        stream.feedRow("UCA");
+        assertFalse(stream.feedRow("UGG"));
+        assertEquals(1, stream.getSequenceCount(), "Sólo la vertical de U en la columna 0");
+        assertFalse(stream.result());
+    }
+
+    @Test
+    @DisplayName("Validación: fila con longitud incorrecta debe lanzar excepción")
+    void testInvalidRowLength() {
+        StreamingMutantDetector stream = detector.openStream(4);
+        stream.feedRow("ATCG");
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> stream.feedRow("ATC")
+        );
+        assertTrue(exception.getMessage().contains("cuadrada"));
+    }
+
+    @Test
+    @DisplayName("Validación: caracteres inválidos deben lanzar excepción")
+    void testInvalidCharacter() {
+        StreamingMutantDetector stream = detector.openStream(4);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> stream.feedRow("ATBG")
+        );
+        assertTrue(exception.getMessage().contains("inválido"));
+    }
+
+    @Test
+    @DisplayName("Validación: más de N filas debe lanzar excepción")
+    void testTooManyRows() {
+        StreamingMutantDetector stream = detector.openStream(4);
+        stream.feedRow("ATCG");
+        stream.feedRow("TGCA");
+        stream.feedRow("CGAT");
+        stream.feedRow("GATC");
+
+        assertThrows(IllegalArgumentException.class, () -> stream.feedRow("ATCG"));
+    }
+}
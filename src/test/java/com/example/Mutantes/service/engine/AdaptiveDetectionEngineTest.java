@@ -0,0 +1,94 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.RandomDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la calibración al iniciar: los rangos elegidos cubren todos los
+ * tamaños sin huecos, respetan los tamaños que soporta cada motor y el
+ * despacho por N da el mismo conteo que el motor escalar.
+ */
+@DisplayName("AdaptiveDetectionEngine - Selección de motor calibrada")
+class AdaptiveDetectionEngineTest {
+
+    private static final int[] SIZES = {4, 8, 12, 16, 24, 48};
+
+    private final DetectionEngine reference = new ScalarDetectionEngine();
+
+    private AdaptiveDetectionEngine calibrate() {
+        // Presupuesto mínimo: sólo interesa la forma de los rangos, no el ganador
+        return new EngineCalibrator(EngineCalibrator.defaultCandidates(8), SIZES, 1).calibrate();
+    }
+
+    @Test
+    @DisplayName("Rangos contiguos desde N=1 hasta el infinito")
+    void testRangesAreContiguous() {
+        List<EngineRange> ranges = calibrate().getRanges();
+
+        assertFalse(ranges.isEmpty());
+        assertEquals(1, ranges.get(0).getFromSize());
+        for (int r = 1; r < ranges.size(); r++) {
+            assertEquals(ranges.get(r - 1).getToSize() + 1, ranges.get(r).getFromSize(), "rangos " + ranges);
+            assertNotEquals(ranges.get(r - 1).getEngine(), ranges.get(r).getEngine(), "rangos sin fusionar " + ranges);
+        }
+        assertEquals(Integer.MAX_VALUE, ranges.get(ranges.size() - 1).getToSize());
+    }
+
+    @Test
+    @DisplayName("Los motores restringidos sólo se eligen dentro de sus tamaños")
+    void testRestrictedEnginesStayInRange() {
+        for (EngineRange range : calibrate().getRanges()) {
+            if (range.getEngine().equals(UnrolledDetectionEngine.NAME)) {
+                assertTrue(range.getFromSize() >= UnrolledDetectionEngine.MIN_SIZE, range.toString());
+                assertTrue(range.getToSize() <= UnrolledDetectionEngine.MAX_SIZE, range.toString());
+            }
+            if (range.getEngine().equals(LookupTableDetectionEngine.NAME)) {
+                assertTrue(range.getToSize() <= LookupTableDetectionEngine.MAX_SIZE, range.toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Registra una medición por tamaño y motor candidato")
+    void testSamples() {
+        AdaptiveDetectionEngine engine = calibrate();
+
+        assertFalse(engine.getSamples().isEmpty());
+        for (EngineCalibrator.Sample sample : engine.getSamples()) {
+            assertTrue(sample.getNanosPerCall() > 0, sample.getEngine() + " N=" + sample.getSize());
+        }
+        assertTrue(engine.getSamples().stream().anyMatch(s -> s.getSize() == 48
+            && s.getEngine().equals(ScalarDetectionEngine.NAME)));
+        // El desenrollado no se mide fuera de sus tamaños
+        assertTrue(engine.getSamples().stream().noneMatch(s -> s.getSize() == 24
+            && s.getEngine().equals(UnrolledDetectionEngine.NAME)));
+    }
+
+    @Test
+    @DisplayName("Mismo conteo que el escalar para cualquier N")
+    void testSameCountAsScalar() {
+        AdaptiveDetectionEngine engine = calibrate();
+        Random random = new Random(5);
+        for (int n = 1; n <= 60; n++) {
+            for (int k = 0; k < 20; k++) {
+                byte[] matrix = RandomDna.flat(random, n, 2 + (k & 1));
+                assertEquals(reference.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                    engine.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                    "N=" + n + " con " + engine.engineFor(n).name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Rechaza rangos que no empiezan en N=1")
+    void testInvalidRanges() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveDetectionEngine(
+            new int[] {4}, new DetectionEngine[] {reference}, List.of(), 0));
+    }
+}
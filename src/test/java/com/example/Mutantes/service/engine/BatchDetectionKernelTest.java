@@ -0,0 +1,86 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.RandomDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el kernel por lotes (SWAR, 8 matrices por palabra) cuente
+ * exactamente lo mismo que el motor escalar para cada matriz del lote,
+ * incluyendo lotes que no son múltiplo de 8 y matrices con más de 63
+ * columnas (volcado de los contadores de 8 bits dentro de una fila).
+ */
+@DisplayName("BatchDetectionKernel - Conteo por lotes structure-of-arrays")
+class BatchDetectionKernelTest {
+
+    private final DetectionEngine reference = new ScalarDetectionEngine();
+
+    @Test
+    @DisplayName("Mismo conteo exacto que el escalar para cada matriz del lote")
+    void testSameCountAsScalar() {
+        Random random = new Random(31);
+        int[][] cases = {{1, 5}, {4, 8}, {5, 13}, {6, 1}, {9, 24}, {16, 17}, {70, 9}};
+        for (int[] c : cases) {
+            int n = c[0];
+            int size = c[1];
+            int lanes = BatchDetectionKernel.words(size) * BatchDetectionKernel.LANES_PER_WORD;
+            byte[][] matrices = new byte[size][];
+            byte[] cells = new byte[n * n * lanes];
+            for (int b = 0; b < size; b++) {
+                // Alfabeto de 1 a 4 bases: desde "todo secuencias" hasta casi ninguna
+                matrices[b] = RandomDna.flat(random, n, 1 + b % 4);
+                for (int cell = 0; cell < n * n; cell++) {
+                    cells[cell * lanes + b] = matrices[b][cell];
+                }
+            }
+
+            int[] counts = new int[size];
+            BatchDetectionKernel.countSequences(cells, n, lanes, size, Integer.MAX_VALUE,
+                counts, new long[BatchDetectionKernel.words(size)]);
+
+            for (int b = 0; b < size; b++) {
+                assertEquals(reference.countSequences(matrices[b], 0, n, n, Integer.MAX_VALUE), counts[b],
+                    "N=" + n + ", matriz " + b);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Terminación anticipada: exacto bajo el límite y >= límite si lo alcanza")
+    void testLimit() {
+        Random random = new Random(3);
+        int n = 12;
+        int size = 40;
+        byte[][] matrices = new byte[size][];
+        byte[] cells = new byte[n * n * size];
+        for (int b = 0; b < size; b++) {
+            matrices[b] = RandomDna.flat(random, n, 3 + b % 2);
+            for (int cell = 0; cell < n * n; cell++) {
+                cells[cell * size + b] = matrices[b][cell];
+            }
+        }
+
+        int[] counts = new int[size];
+        BatchDetectionKernel.countSequences(cells, n, size, size, 2, counts, new long[BatchDetectionKernel.words(size)]);
+
+        for (int b = 0; b < size; b++) {
+            int total = reference.countSequences(matrices[b], 0, n, n, Integer.MAX_VALUE);
+            if (total < 2) {
+                assertEquals(total, counts[b], "matriz " + b);
+            } else {
+                assertTrue(counts[b] >= 2, "matriz " + b);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Rechaza una distancia entre celdas que no es múltiplo de 8")
+    void testLanesMustBeWordAligned() {
+        assertThrows(IllegalArgumentException.class, () -> BatchDetectionKernel.countSequences(
+            new byte[16 * 5], 4, 5, 5, 2, new int[5], new long[1]));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.RandomDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que todos los motores de detección cuenten exactamente las mismas
+ * secuencias que el motor escalar de referencia.
+ *
+ * Se usan matrices aleatorias con alfabeto reducido (más secuencias) y completo,
+ * incluyendo tamaños que cruzan los límites de palabra de 64 bits, en formato
+ * compacto (stride = N) y embebidas en buffers mayores (offset y stride > N).
+ */
+@DisplayName("DetectionEngine - Equivalencia con el motor escalar")
+class DetectionEngineEquivalenceTest {
+
+    private static final int[] SIZES = {1, 3, 4, 5, 6, 7, 8, 15, 16, 17, 31, 63, 64, 65, 100, 130, 300};
+
+    private final DetectionEngine reference = new ScalarDetectionEngine();
+
+    static Stream<DetectionEngine> engines() {
+        Stream<DetectionEngine> engines = Stream.of(
+            new BitboardDetectionEngine(),
+            new RunLengthDetectionEngine(),
+            new ParallelDetectionEngine(new ForkJoinPool(4)),
+            // Motor genérico de perfiles con las reglas por defecto
+            new RuleProfileEngine(DetectionRules.DEFAULT),
+            // Detector de perfil generado para K = 4 y todas las direcciones
+            ProfileDetectors.forRules(DetectionRules.DEFAULT),
+            new UnrolledDetectionEngine(),
+            new LookupTableDetectionEngine(),
+            // Bloques chicos y no alineados para cruzar muchos bordes de bloque
+            new TiledDetectionEngine(7),
+            new TiledDetectionEngine()
+        );
+        // El motor vectorial sólo existe si la JVM de test tiene el módulo incubador
+        if (DetectionEngines.isVectorApiAvailable()) {
+            engines = Stream.concat(engines, Stream.of(DetectionEngines.forName(DetectionEngines.VECTOR_ENGINE_NAME)));
+        }
+        return engines;
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("engines")
+    @DisplayName("Conteo total idéntico al escalar en matrices aleatorias")
+    void testSameCountAsScalar(DetectionEngine engine) {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            for (int alphabet = 1; alphabet <= 4; alphabet++) {
+                byte[] matrix = RandomDna.flat(random, n, alphabet);
+                assertEquals(reference.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                    engine.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                    "Conteo distinto para N=" + n + " con " + alphabet + " bases");
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("engines")
+    @DisplayName("Early Termination: resultado mutante idéntico al escalar")
+    void testSameMutantDecisionAsScalar(DetectionEngine engine) {
+        Random random = new Random(7);
+        for (int n : SIZES) {
+            for (int alphabet = 2; alphabet <= 4; alphabet++) {
+                byte[] matrix = RandomDna.flat(random, n, alphabet);
+                boolean expected = reference.countSequences(matrix, 0, n, n, 2) >= 2;
+                assertEquals(expected, engine.countSequences(matrix, 0, n, n, 2) >= 2,
+                    "Decisión distinta para N=" + n + " con " + alphabet + " bases");
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("engines")
+    @DisplayName("Offset y stride: matriz embebida en un buffer mayor")
+    void testOffsetAndStride(DetectionEngine engine) {
+        Random random = new Random(99);
+        for (int n : SIZES) {
+            byte[] compact = RandomDna.flat(random, n, 2);
+            int offset = 5;
+            int stride = n + 7;
+            // Relleno con bytes que no son bases: ningún motor debe leerlos
+            byte[] padded = new byte[offset + n * stride + 3];
+            Arrays.fill(padded, (byte) 'X');
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(compact, i * n, padded, offset + i * stride, n);
+            }
+            assertEquals(reference.countSequences(compact, 0, n, n, Integer.MAX_VALUE),
+                engine.countSequences(padded, offset, n, stride, Integer.MAX_VALUE),
+                "Conteo distinto con stride para N=" + n);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("engines")
+    @DisplayName("Secuencias en los bordes de palabra de 64 bits")
+    void testWordBoundaries(DetectionEngine engine) {
+        int n = 70;
+        byte[] matrix = withoutSequences(n);
+        // Horizontal que cruza el límite 63/64 y diagonal invertida que llega a la columna 61
+        for (int k = 0; k < 4; k++) {
+            matrix[10 * n + 62 + k] = 'G';
+            matrix[(20 + k) * n + 64 - k] = 'C';
+        }
+        assertEquals(reference.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+            engine.countSequences(matrix, 0, n, n, Integer.MAX_VALUE));
+        assertTrue(engine.countSequences(matrix, 0, n, n, 2) >= 2);
+    }
+
+    /**
+     * Patrón sin secuencias: la base cambia al avanzar en cualquiera de las 4 direcciones.
+     */
+    static byte[] withoutSequences(int n) {
+        byte[] bases = {'A', 'T', 'C', 'G'};
+        byte[] matrix = new byte[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix[i * n + j] = bases[(j + 2 * i) % 4];
+            }
+        }
+        return matrix;
+    }
+}
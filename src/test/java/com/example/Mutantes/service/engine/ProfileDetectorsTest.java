@@ -0,0 +1,140 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.RandomDna;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los detectores de perfil generados en el build coincidan
+ * exactamente con el motor genérico {@link RuleProfileEngine} para cada K de
+ * 2 a 8 y cada conjunto de direcciones, incluyendo la terminación anticipada
+ * y matrices embebidas con offset y stride.
+ */
+@DisplayName("ProfileDetectors - Detectores generados por K y direcciones")
+class ProfileDetectorsTest {
+
+    private static final int MATRICES_PER_PROFILE = 40;
+
+    private static final int[] SIZES = {1, 2, 3, 5, 8, 9, 13};
+
+    @Test
+    @DisplayName("Cubre exactamente las longitudes de secuencia de 2 a 8")
+    void testSupportedLengths() {
+        for (int k = 2; k <= 8; k++) {
+            assertTrue(ProfileDetectors.supports(rules(k, EnumSet.allOf(Direction.class))), "K=" + k);
+        }
+        assertFalse(ProfileDetectors.supports(rules(9, EnumSet.allOf(Direction.class))));
+        assertThrows(IllegalArgumentException.class,
+            () -> ProfileDetectors.forRules(rules(9, EnumSet.allOf(Direction.class))));
+    }
+
+    @Test
+    @DisplayName("El motor de un perfil distinto del default es el detector generado")
+    void testForRulesUsesGeneratedDetector() {
+        DetectionRules rules = rules(3, EnumSet.of(Direction.HORIZONTAL, Direction.VERTICAL));
+        assertEquals(ProfileDetector3HV.NAME, DetectionEngines.forRules(rules, ScalarDetectionEngine.NAME).name());
+        assertEquals(RuleProfileEngine.NAME,
+            DetectionEngines.forRules(rules(9, EnumSet.allOf(Direction.class)), ScalarDetectionEngine.NAME).name());
+    }
+
+    @Test
+    @DisplayName("Mismo conteo que el motor genérico para cada K y conjunto de direcciones")
+    void testSameCountAsGeneric() {
+        Random random = new Random(23);
+        for (int k = 2; k <= 8; k++) {
+            for (Set<Direction> directions : directionSets()) {
+                DetectionRules rules = rules(k, directions);
+                DetectionEngine reference = new RuleProfileEngine(rules);
+                DetectionEngine generated = ProfileDetectors.forRules(rules);
+                for (int n : SIZES) {
+                    for (int m = 0; m < MATRICES_PER_PROFILE; m++) {
+                        // Alfabeto de 1 o 2 bases para que aparezcan secuencias largas
+                        byte[] matrix = RandomDna.flat(random, n, 1 + (m & 1));
+                        assertEquals(reference.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                            generated.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                            generated.name() + ", N=" + n + ", matriz " + m);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Terminación anticipada: resultado exacto bajo el límite y >= límite si lo alcanza")
+    void testLimits() {
+        Random random = new Random(5);
+        for (int k = 2; k <= 8; k++) {
+            for (Set<Direction> directions : directionSets()) {
+                DetectionRules rules = rules(k, directions);
+                DetectionEngine reference = new RuleProfileEngine(rules);
+                DetectionEngine generated = ProfileDetectors.forRules(rules);
+                for (int m = 0; m < MATRICES_PER_PROFILE; m++) {
+                    byte[] matrix = RandomDna.flat(random, 9, 2);
+                    int total = reference.countSequences(matrix, 0, 9, 9, Integer.MAX_VALUE);
+                    for (int limit = 1; limit <= 3; limit++) {
+                        int found = generated.countSequences(matrix, 0, 9, 9, limit);
+                        if (total < limit) {
+                            assertEquals(total, found, generated.name() + ", límite " + limit);
+                        } else {
+                            assertTrue(found >= limit, generated.name() + ", límite " + limit);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Matriz embebida con offset y stride mayor que N")
+    void testOffsetAndStride() {
+        Random random = new Random(17);
+        int n = 10;
+        int offset = 5;
+        int stride = n + 3;
+        for (int k = 2; k <= 8; k++) {
+            for (Set<Direction> directions : directionSets()) {
+                DetectionRules rules = rules(k, directions);
+                byte[] compact = RandomDna.flat(random, n, 2);
+                byte[] padded = new byte[offset + n * stride];
+                Arrays.fill(padded, (byte) 'A');
+                for (int i = 0; i < n; i++) {
+                    System.arraycopy(compact, i * n, padded, offset + i * stride, n);
+                }
+                assertEquals(new RuleProfileEngine(rules).countSequences(compact, 0, n, n, Integer.MAX_VALUE),
+                    ProfileDetectors.forRules(rules).countSequences(padded, offset, n, stride, Integer.MAX_VALUE),
+                    "K=" + k + ", " + directions);
+            }
+        }
+    }
+
+    private static DetectionRules rules(int sequenceLength, Set<Direction> directions) {
+        return new DetectionRules(sequenceLength, 2, DetectionRules.DEFAULT_ALPHABET, directions);
+    }
+
+    /**
+     * Los 15 conjuntos no vacíos de direcciones.
+     */
+    private static Set<Set<Direction>> directionSets() {
+        Set<Set<Direction>> sets = new LinkedHashSet<>();
+        Direction[] all = Direction.values();
+        for (int mask = 1; mask < (1 << all.length); mask++) {
+            Set<Direction> directions = EnumSet.noneOf(Direction.class);
+            for (int d = 0; d < all.length; d++) {
+                if ((mask & (1 << d)) != 0) {
+                    directions.add(all[d]);
+                }
+            }
+            sets.add(directions);
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.Mutantes.service.engine;
+
+import com.example.Mutantes.RandomDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los detectores desenrollados generados en el build coincidan
+ * exactamente con el motor escalar para cada N de 4 a 16, incluyendo la
+ * terminación anticipada y matrices embebidas con offset y stride.
+ */
+@DisplayName("UnrolledDetectionEngine - Detectores generados para N de 4 a 16")
+class UnrolledDetectionEngineTest {
+
+    private static final int MATRICES_PER_SIZE = 300;
+
+    private final DetectionEngine reference = new ScalarDetectionEngine();
+    private final DetectionEngine unrolled = new UnrolledDetectionEngine();
+
+    @Test
+    @DisplayName("Cubre exactamente los tamaños de 4 a 16")
+    void testSupportedSizes() {
+        assertFalse(UnrolledDetectionEngine.supports(3));
+        for (int n = 4; n <= 16; n++) {
+            assertTrue(UnrolledDetectionEngine.supports(n), "N=" + n);
+        }
+        assertFalse(UnrolledDetectionEngine.supports(17));
+    }
+
+    @Test
+    @DisplayName("Mismo conteo que el escalar para cada N de 3 a 17")
+    void testSameCountAsScalar() {
+        Random random = new Random(99);
+        for (int n = 3; n <= 17; n++) {
+            for (int k = 0; k < MATRICES_PER_SIZE; k++) {
+                // Alfabeto de 2 o 3 bases para que aparezcan secuencias en todas las direcciones
+                byte[] matrix = RandomDna.flat(random, n, 2 + (k & 1));
+                assertEquals(reference.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                    unrolled.countSequences(matrix, 0, n, n, Integer.MAX_VALUE),
+                    "N=" + n + ", matriz " + k);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Terminación anticipada: resultado exacto bajo el límite y >= límite si lo alcanza")
+    void testLimits() {
+        Random random = new Random(7);
+        for (int n = 4; n <= 16; n++) {
+            for (int k = 0; k < MATRICES_PER_SIZE; k++) {
+                byte[] matrix = RandomDna.flat(random, n, 3 + (k & 1));
+                int total = reference.countSequences(matrix, 0, n, n, Integer.MAX_VALUE);
+                for (int limit = 1; limit <= 3; limit++) {
+                    int found = unrolled.countSequences(matrix, 0, n, n, limit);
+                    if (total < limit) {
+                        assertEquals(total, found, "N=" + n + ", límite " + limit);
+                    } else {
+                        assertTrue(found >= limit, "N=" + n + ", límite " + limit);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Matriz embebida con offset y stride mayor que N")
+    void testOffsetAndStride() {
+        Random random = new Random(11);
+        for (int n = 4; n <= 16; n++) {
+            byte[] compact = RandomDna.flat(random, n, 2);
+            int offset = 5;
+            int stride = n + 3;
+            byte[] padded = new byte[offset + n * stride];
+            Arrays.fill(padded, (byte) 'X');
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(compact, i * n, padded, offset + i * stride, n);
+            }
+            assertEquals(reference.countSequences(compact, 0, n, n, Integer.MAX_VALUE),
+                unrolled.countSequences(padded, offset, n, stride, Integer.MAX_VALUE),
+                "N=" + n);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.Mutantes.validator;
+
+import com.example.Mutantes.RandomDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la forma canónica contra la definición: la menor de las 192
+ * variantes (8 transformaciones x 24 reetiquetados) materializadas por fuerza bruta.
+ */
+@DisplayName("CanonicalDna - Forma canónica bajo simetrías y reetiquetado")
+class CanonicalDnaTest {
+
+    private static final char[] BASES = {'A', 'T', 'C', 'G'};
+
+    private final String[] mutantDna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    @Test
+    @DisplayName("Las 192 variantes de una matriz comparten la huella canónica")
+    void testAllVariantsShareFingerprint() {
+        DnaFingerprint expected = PreparedDna.prepare(mutantDna).getCanonicalFingerprint();
+
+        for (int t = 0; t < 8; t++) {
+            for (char[] relabel : permutations()) {
+                String[] variant = variant(mutantDna, t, relabel);
+                assertEquals(expected, PreparedDna.prepare(variant).getCanonicalFingerprint(),
+                    "Variante " + t + " / " + new String(relabel) + ": " + Arrays.toString(variant));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("La forma canónica es la menor de las 192 variantes (fuerza bruta)")
+    void testMatchesBruteForceMinimum() {
+        Random random = new Random(7);
+        for (int n = 1; n <= 9; n++) {
+            for (int k = 0; k < 40; k++) {
+                // Alfabetos reducidos para generar matrices con simetrías y empates
+                String[] dna = RandomDna.matrix(random, n, 1 + random.nextInt(4));
+                PreparedDna prepared = PreparedDna.prepare(dna);
+
+                assertArrayEquals(bruteForceMinimum(dna), CanonicalDna.pack(prepared.cells(), n),
+                    Arrays.toString(dna));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Matrices que no son variantes entre sí tienen huellas canónicas distintas")
+    void testNonEquivalentMatricesDiffer() {
+        // Intercambiar dos filas no es una rotación ni un reflejo
+        String[] permuted = {"CAGTGC", "ATGCGA", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        assertFalse(Arrays.equals(bruteForceMinimum(mutantDna), bruteForceMinimum(permuted)));
+        assertNotEquals(PreparedDna.prepare(mutantDna).getCanonicalFingerprint(),
+            PreparedDna.prepare(permuted).getCanonicalFingerprint());
+    }
+
+    @Test
+    @DisplayName("La huella canónica se calcula una vez y se reutiliza")
+    void testCanonicalFingerprintIsCached() {
+        PreparedDna prepared = PreparedDna.prepare(mutantDna);
+
+        assertSame(prepared.getCanonicalFingerprint(), prepared.getCanonicalFingerprint());
+    }
+
+    /**
+     * Transformación t del cuadrado seguida de un reetiquetado (A, T, C, G) -> relabel.
+     */
+    static String[] variant(String[] dna, int t, char[] relabel) {
+        int n = dna.length;
+        int last = n - 1;
+        String[] out = new String[n];
+        for (int r = 0; r < n; r++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int c = 0; c < n; c++) {
+                int i;
+                int j;
+                switch (t) {
+                    case 0: i = r; j = c; break;
+                    case 1: i = r; j = last - c; break;
+                    case 2: i = last - r; j = c; break;
+                    case 3: i = last - r; j = last - c; break;
+                    case 4: i = c; j = r; break;
+                    case 5: i = c; j = last - r; break;
+                    case 6: i = last - c; j = r; break;
+                    default: i = last - c; j = last - r; break;
+                }
+                row.append(relabel[indexOf(dna[i].charAt(j))]);
+            }
+            out[r] = row.toString();
+        }
+        return out;
+    }
+
+    /**
+     * Las 24 permutaciones de A, T, C, G.
+     */
+    static char[][] permutations() {
+        char[][] result = new char[24][];
+        int k = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) {
+                        result[k++] = new char[] {BASES[a], BASES[b], BASES[c], BASES[d]};
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Empaquetado a 2 bits (A=0, T=1, C=2, G=3) de la menor de las 192 variantes.
+     */
+    private static byte[] bruteForceMinimum(String[] dna) {
+        byte[] best = null;
+        for (int t = 0; t < 8; t++) {
+            for (char[] relabel : permutations()) {
+                byte[] packed = pack(variant(dna, t, relabel));
+                if (best == null || compareCells(packed, best, dna.length * dna.length) < 0) {
+                    best = packed;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static byte[] pack(String[] dna) {
+        int n = dna.length;
+        byte[] packed = new byte[(n * n + 3) / 4];
+        for (int cell = 0; cell < n * n; cell++) {
+            packed[cell >>> 2] |= (byte) (indexOf(dna[cell / n].charAt(cell % n)) << ((cell & 3) << 1));
+        }
+        return packed;
+    }
+
+    /**
+     * Orden lexicográfico por celda (no por byte: cada byte guarda 4 celdas desde los bits bajos).
+     */
+    private static int compareCells(byte[] a, byte[] b, int cells) {
+        for (int cell = 0; cell < cells; cell++) {
+            int shift = (cell & 3) << 1;
+            int x = (a[cell >>> 2] >>> shift) & 3;
+            int y = (b[cell >>> 2] >>> shift) & 3;
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(char base) {
+        for (int k = 0; k < BASES.length; k++) {
+            if (BASES[k] == base) {
+                return k;
+            }
+        }
+        throw new IllegalArgumentException("Base inválida: " + base);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.example.Mutantes.validator;
+
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifica que la validación de String[] use el alfabeto del perfil de reglas.
+ */
+@DisplayName("DnaSequenceValidator - Alfabeto del perfil de reglas")
+class DnaSequenceValidatorTest {
+
+    @SuppressWarnings("unchecked")
+    private static DnaSequenceValidator validatorFor(DetectionRules rules) {
+        ObjectProvider<DetectionRules> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(rules);
+        return new DnaSequenceValidator(provider);
+    }
+
+    @Test
+    @DisplayName("Sin perfil configurado acepta sólo A, T, C, G")
+    void testDefaultAlphabet() {
+        DnaSequenceValidator validator = new DnaSequenceValidator();
+
+        assertTrue(validator.isValid(new String[] {"AT", "CG"}, null));
+        assertFalse(validator.isValid(new String[] {"AT", "CU"}, null));
+        assertFalse(validator.isValid(new String[] {"AT", "C"}, null));
+    }
+
+    @Test
+    @DisplayName("Con un alfabeto personalizado acepta sus bases y rechaza las demás")
+    void testCustomAlphabet() {
+        DetectionRules rna = new DetectionRules(4, 2, "ACGU", EnumSet.allOf(Direction.class));
+        DnaSequenceValidator validator = validatorFor(rna);
+
+        assertTrue(validator.isValid(new String[] {"AU", "CG"}, null));
+        assertFalse(validator.isValid(new String[] {"AT", "CG"}, null), "T no pertenece a ACGU");
+    }
+}
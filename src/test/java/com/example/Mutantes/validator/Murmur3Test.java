@@ -0,0 +1,53 @@
+package com.example.Mutantes.validator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica MurmurHash3 x64 128 contra los vectores de la implementación de
+ * referencia, y que la cola (longitudes no múltiplo de 16) participe del hash.
+ */
+@DisplayName("Murmur3 - Hash de 128 bits")
+class Murmur3Test {
+
+    @Test
+    @DisplayName("Coincide con los vectores de referencia")
+    void testReferenceVectors() {
+        byte[] fox = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.US_ASCII);
+
+        // Referencia: 6c1b07bc7bbc4be347939ac4a93c437a (h1 y h2 en little-endian)
+        assertEquals(new DnaFingerprint(0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L),
+            Murmur3.hash128(fox, 0, fox.length, 0));
+        assertEquals(new DnaFingerprint(0L, 0L), Murmur3.hash128(new byte[0], 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Respeta offset y longitud")
+    void testOffset() {
+        byte[] data = "xxThe quick brown fox jumps over the lazy dogyy".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(new DnaFingerprint(0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L),
+            Murmur3.hash128(data, 2, data.length - 4, 0));
+    }
+
+    @Test
+    @DisplayName("Cada longitud de cola y cada semilla produce huellas distintas")
+    void testTailAndSeed() {
+        Random random = new Random(1);
+        byte[] data = new byte[64];
+        random.nextBytes(data);
+
+        Set<DnaFingerprint> seen = new HashSet<>();
+        for (int length = 0; length <= data.length; length++) {
+            assertTrue(seen.add(Murmur3.hash128(data, 0, length, 0)), "longitud " + length);
+        }
+        assertNotEquals(Murmur3.hash128(data, 0, 20, 0), Murmur3.hash128(data, 0, 20, 1));
+    }
+}
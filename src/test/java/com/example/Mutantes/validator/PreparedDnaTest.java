@@ -0,0 +1,127 @@
+package com.example.Mutantes.validator;
+
+import com.example.Mutantes.service.engine.DetectionRules;
+import com.example.Mutantes.service.engine.DetectionRules.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la preparación en una sola pasada: validación (NxN y alfabeto),
+ * codificación al buffer plano US-ASCII y huella de 128 bits de las bases
+ * empaquetadas, en orden.
+ */
+@DisplayName("PreparedDna - Validación, codificación y huella en una pasada")
+class PreparedDnaTest {
+
+    private final String[] mutantDna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    @Test
+    @DisplayName("Codifica las filas en un buffer plano row-major")
+    void testCells() {
+        PreparedDna prepared = PreparedDna.prepare(mutantDna);
+
+        assertEquals(6, prepared.getN());
+        assertArrayEquals(String.join("", mutantDna).getBytes(StandardCharsets.US_ASCII), prepared.cells());
+    }
+
+    @Test
+    @DisplayName("La huella es MurmurHash3 de las bases empaquetadas a 2 bits con N como semilla")
+    void testFingerprint() {
+        // ATGC CAGT: A=0, T=1, C=2, G=3, 4 bases por byte desde los bits bajos
+        String[] dna = {"ATGC", "CAGT", "AAAA", "GGGG"};
+        byte[] packed = {
+            (byte) (0 | 1 << 2 | 3 << 4 | 2 << 6),
+            (byte) (2 | 0 << 2 | 3 << 4 | 1 << 6),
+            0,
+            (byte) 0xFF
+        };
+
+        assertEquals(Murmur3.hash128(packed, 0, packed.length, 4), PreparedDna.prepare(dna).getFingerprint());
+        assertEquals(PreparedDna.prepare(mutantDna).getFingerprint(),
+            PreparedDna.prepare(mutantDna.clone()).getFingerprint(), "Mismo ADN, misma huella");
+    }
+
+    @Test
+    @DisplayName("Filas permutadas son ADN distintos con huella distinta")
+    void testRowOrderMatters() {
+        String[] permuted = {"CAGTGC", "ATGCGA", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        assertNotEquals(PreparedDna.prepare(mutantDna).getFingerprint(), PreparedDna.prepare(permuted).getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Matrices de distinto tamaño con los mismos bits empaquetados tienen huellas distintas")
+    void testSizeIsPartOfFingerprint() {
+        // 1x1 "A" y 2x2 "AA/AA" empaquetan ambas a un único byte 0
+        assertNotEquals(PreparedDna.prepare(new String[] {"A"}).getFingerprint(),
+            PreparedDna.prepare(new String[] {"AA", "AA"}).getFingerprint());
+    }
+
+    @Test
+    @DisplayName("tryPrepare retorna null para ADN inválido")
+    void testTryPrepareInvalid() {
+        assertNull(PreparedDna.tryPrepare(null));
+        assertNull(PreparedDna.tryPrepare(new String[0]));
+        assertNull(PreparedDna.tryPrepare(new String[] {"ATG", "CAG"}));
+        assertNull(PreparedDna.tryPrepare(new String[] {"AT", null}));
+        assertNull(PreparedDna.tryPrepare(new String[] {"AT", "CZ"}));
+        assertNull(PreparedDna.tryPrepare(new String[] {"at", "cg"}));
+        assertNull(PreparedDna.tryPrepare(new String[] {"AŁ", "CG"}), "Carácter fuera de Latin-1");
+        assertNotNull(PreparedDna.tryPrepare(new String[] {"A"}));
+    }
+
+    @Test
+    @DisplayName("prepare describe el motivo del error")
+    void testPrepareErrors() {
+        IllegalArgumentException notSquare = assertThrows(IllegalArgumentException.class,
+            () -> PreparedDna.prepare(new String[] {"ATG", "CA", "TTT"}));
+        assertTrue(notSquare.getMessage().contains("cuadrada"), notSquare.getMessage());
+
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+            () -> PreparedDna.prepare(new String[] {"ATG", "CAX", "TTT"}));
+        assertTrue(invalid.getMessage().contains("[1][2]"), invalid.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> PreparedDna.prepare(null));
+    }
+
+    @Test
+    @DisplayName("Valida contra el alfabeto del perfil de reglas")
+    void testCustomAlphabet() {
+        DetectionRules rna = new DetectionRules(4, 2, "ACGU", EnumSet.allOf(Direction.class));
+
+        assertNotNull(PreparedDna.tryPrepare(new String[] {"AU", "CG"}, rna));
+        assertNull(PreparedDna.tryPrepare(new String[] {"AT", "CG"}, rna), "T no pertenece a ACGU");
+        assertNull(PreparedDna.tryPrepare(new String[] {"AU", "CG"}), "Sin perfil, U no es válida");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> PreparedDna.prepare(new String[] {"AT", "CG"}, rna));
+        assertTrue(error.getMessage().contains("A, C, G, U"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Alfabeto fuera de A, T, C, G: huella sobre los bytes y sin huella canónica")
+    void testAlphabetWithoutTwoBitCodes() {
+        DetectionRules withN = new DetectionRules(4, 2, "ATCGN", EnumSet.allOf(Direction.class));
+        String[] dna = {"ATCN", "NNNN", "ATCG", "GCTA"};
+
+        PreparedDna prepared = PreparedDna.prepare(dna, withN);
+
+        byte[] bytes = String.join("", dna).getBytes(StandardCharsets.US_ASCII);
+        assertEquals(Murmur3.hash128(bytes, 0, bytes.length, 4), prepared.getFingerprint());
+        assertSame(withN, prepared.getRules());
+        assertThrows(IllegalStateException.class, prepared::getCanonicalFingerprint);
+    }
+
+    @Test
+    @DisplayName("Alfabeto contenido en A, T, C, G: misma huella empaquetada que el perfil por defecto")
+    void testSubsetAlphabetKeepsPackedFingerprint() {
+        DetectionRules atc = new DetectionRules(4, 2, "ATC", EnumSet.allOf(Direction.class));
+        String[] dna = {"ATCA", "TTTT", "CCCC", "ACTA"};
+
+        assertEquals(PreparedDna.prepare(dna).getFingerprint(), PreparedDna.prepare(dna, atc).getFingerprint());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.Mutantes.service.engine;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static com.example.Mutantes.service.MutantDetector.SEQUENCE_LENGTH;
+
+/**
+ * Motor SIMD basado en la JDK Vector API (jdk.incubator.vector).
+ *
+ * Carga tramos de fila del buffer plano como vectores de bytes y compara la
+ * fila i contra las filas i+1, i+2, i+3 con desplazamientos de carril 0 (↓),
+ * +1 (↘) y -1 (↙), y contra sí misma desplazada +1, +2, +3 (→). Cada
+ * comparación evalúa tantas celdas iniciales como carriles tenga la especie
+ * preferida de la CPU (32 con AVX2, 64 con AVX-512); la máscara resultante se
+ * cuenta con trueCount(). Las columnas que no completan un
+ * vector se resuelven con la comparación escalar.
+ *
+ * Este motor sólo puede cargarse si el módulo incubador está presente
+ * (--add-modules jdk.incubator.vector); {@link DetectionEngines} lo verifica
+ * antes de instanciarlo por reflexión y, si falta, usa el motor escalar.
+ *
+ * Vive en el source set "vector" (src/vector/java): es la única clase que se
+ * compila con --add-modules jdk.incubator.vector, así el resto del build no
+ * emite el aviso de módulo en incubación.
+ */
+public class VectorDetectionEngine implements DetectionEngine {
+
+    public static final String NAME = DetectionEngines.VECTOR_ENGINE_NAME;
+
+    /**
+     * Nombre del módulo incubador requerido por este motor.
+     */
+    public static final String MODULE_NAME = DetectionEngines.VECTOR_MODULE_NAME;
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public int countSequences(byte[] data, int offset, int n, int stride, int limit) {
+        if (n < SEQUENCE_LENGTH) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int row = offset + i * stride;
+
+            // HORIZONTAL (→): la fila contra sí misma desplazada +1, +2, +3
+            count += countDirection(data, row, 1, 0, n - SEQUENCE_LENGTH);
+
+            if (i <= n - SEQUENCE_LENGTH) {
+                // VERTICAL (↓): fila i contra i+1..i+3 sin desplazamiento
+                count += countDirection(data, row, stride, 0, n - 1);
+                // DIAGONAL PRINCIPAL (↘): desplazamiento +1 por fila
+                count += countDirection(data, row, stride + 1, 0, n - SEQUENCE_LENGTH);
+                // DIAGONAL INVERTIDA (↙): desplazamiento -1 por fila
+                count += countDirection(data, row, stride - 1, SEQUENCE_LENGTH - 1, n - 1);
+            }
+
+            // EARLY TERMINATION: se evalúa por fila para no cortar el bucle vectorial
+            if (count >= limit) {
+                return count;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Cuenta las secuencias que empiezan en la fila que inicia en {@code row},
+     * en las columnas [fromCol, toCol], avanzando {@code step} bytes por celda.
+     */
+    private static int countDirection(byte[] data, int row, int step,
+                                      int fromCol, int toCol) {
+        int lanes = SPECIES.length();
+        int count = 0;
+        int j = fromCol;
+
+        // Bloques vectoriales: [fromCol, toCol] ya garantiza que j + k * step
+        // esté dentro de la matriz para cada celda inicial, incluido el último carril
+        int vectorLimit = toCol - lanes + 1;
+        for (; j <= vectorLimit; j += lanes) {
+            int start = row + j;
+            ByteVector v0 = ByteVector.fromArray(SPECIES, data, start);
+            VectorMask<Byte> mask = v0.eq(ByteVector.fromArray(SPECIES, data, start + step))
+                    .and(v0.eq(ByteVector.fromArray(SPECIES, data, start + 2 * step)))
+                    .and(v0.eq(ByteVector.fromArray(SPECIES, data, start + 3 * step)));
+            count += mask.trueCount();
+        }
+
+        // Cola escalar
+        for (; j <= toCol; j++) {
+            int start = row + j;
+            byte base = data[start];
+            if (data[start + step] == base && data[start + 2 * step] == base && data[start + 3 * step] == base) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}